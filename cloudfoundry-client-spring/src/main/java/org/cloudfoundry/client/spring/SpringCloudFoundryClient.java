@@ -17,6 +17,8 @@
 package org.cloudfoundry.client.spring;
 
 import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v2.events.SpringEvents;
 import org.cloudfoundry.client.spring.v2.info.SpringInfo;
 import org.cloudfoundry.client.spring.v2.organizations.SpringOrganizations;
@@ -35,12 +37,17 @@ import org.cloudfoundry.client.v3.droplets.Droplets;
 import org.cloudfoundry.client.v3.packages.Packages;
 import org.springframework.security.oauth2.client.OAuth2RestOperations;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * The Spring-based implementation of {@link CloudFoundryClient}
+ * The Spring-based implementation of {@link CloudFoundryClient}.  A client owns the HTTP clients and threads created
+ * for it by its builder, and {@link #close() closing} it releases them.
  */
-public final class SpringCloudFoundryClient implements CloudFoundryClient {
+public final class SpringCloudFoundryClient implements CloudFoundryClient, Closeable {
 
     private final Applications applications;
 
@@ -54,34 +61,79 @@ public final class SpringCloudFoundryClient implements CloudFoundryClient {
 
     private final Packages packages;
 
+    private final List<Closeable> resources;
+
     private final OAuth2RestOperations restOperations;
 
     private final ServiceInstances serviceInstances;
 
     private final Spaces spaces;
 
+    private final Transport transport;
+
     SpringCloudFoundryClient(OAuth2RestOperations restOperations, URI root) {
-        this.applications = new SpringApplications(restOperations, root);
-        this.droplets = new SpringDroplets(restOperations, root);
-        this.events = new SpringEvents(restOperations, root);
-        this.info = new SpringInfo(restOperations, root);
-        this.organizations = new SpringOrganizations(restOperations, root);
-        this.packages = new SpringPackages(restOperations, root);
-        this.serviceInstances = new SpringServiceInstances(restOperations, root);
-        this.spaces = new SpringSpaces(restOperations, root);
+        this(restOperations, new RestOperationsTransport(restOperations), root);
+    }
+
+    SpringCloudFoundryClient(OAuth2RestOperations restOperations, Transport transport, URI root) {
+        this(restOperations, transport, root, Collections.emptyList());
+    }
 
+    SpringCloudFoundryClient(OAuth2RestOperations restOperations, Transport transport, URI root,
+                             List<Closeable> resources) {
+        this.applications = new SpringApplications(transport, root);
+        this.droplets = new SpringDroplets(transport, root);
+        this.events = new SpringEvents(transport, root);
+        this.info = new SpringInfo(transport, root);
+        this.organizations = new SpringOrganizations(transport, root);
+        this.packages = new SpringPackages(transport, root);
+        this.serviceInstances = new SpringServiceInstances(transport, root);
+        this.spaces = new SpringSpaces(transport, root);
+
+        this.resources = resources;
         this.restOperations = restOperations;
+        this.transport = transport;
     }
 
     OAuth2RestOperations getRestOperations() {
         return this.restOperations;
     }
 
+    Transport getTransport() {
+        return this.transport;
+    }
+
     @Override
     public Applications applications() {
         return this.applications;
     }
 
+    /**
+     * Closes the HTTP clients and threads owned by this client.  Requests in flight may fail once it is closed.
+     *
+     * @throws IOException if a resource fails to close.  Every resource is closed regardless.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+
+        for (Closeable resource : this.resources) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
     @Override
     public Droplets droplets() {
         return this.droplets;
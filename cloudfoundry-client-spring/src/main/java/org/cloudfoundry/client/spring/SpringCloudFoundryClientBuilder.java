@@ -16,34 +16,67 @@
 
 package org.cloudfoundry.client.spring;
 
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.spring.loggregator.LoggregatorMessageHttpMessageConverter;
+import org.cloudfoundry.client.spring.util.AdaptiveConcurrencyLimiter;
+import org.cloudfoundry.client.spring.util.AsyncRestOperationsTransport;
+import org.cloudfoundry.client.spring.util.CachingTransport;
 import org.cloudfoundry.client.spring.util.CertificateCollectingSslCertificateTruster;
+import org.cloudfoundry.client.spring.util.CoalescingTransport;
+import org.cloudfoundry.client.spring.util.ConcurrencyLimitingTransport;
 import org.cloudfoundry.client.spring.util.FallbackHttpMessageConverter;
+import org.cloudfoundry.client.spring.util.IdleTimeoutConnectionKeepAliveStrategy;
 import org.cloudfoundry.client.spring.util.LoggingDeserializationProblemHandler;
+import org.cloudfoundry.client.spring.util.OAuth2AsyncClientHttpRequestFactory;
+import org.cloudfoundry.client.spring.util.RateLimiter;
+import org.cloudfoundry.client.spring.util.RateLimitingTransport;
 import org.cloudfoundry.client.spring.util.ResourceOwnerPasswordResourceDetailsBuilder;
+import org.cloudfoundry.client.spring.util.ResponseCache;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.RetryBudget;
+import org.cloudfoundry.client.spring.util.RetryingTransport;
 import org.cloudfoundry.client.spring.util.SslCertificateTruster;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
 import org.springframework.security.oauth2.client.OAuth2ClientContext;
-import org.springframework.security.oauth2.client.OAuth2RestOperations;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 import org.springframework.security.oauth2.client.resource.OAuth2ProtectedResourceDetails;
 import org.springframework.security.oauth2.client.token.DefaultAccessTokenRequest;
+import org.springframework.web.client.AsyncRestTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -54,6 +87,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  */
 public final class SpringCloudFoundryClientBuilder {
 
+    private static final int SENDER_THREADS = 4;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final RestTemplate restTemplate;
@@ -64,12 +99,40 @@ public final class SpringCloudFoundryClientBuilder {
 
     private volatile Optional<String> clientSecret = Optional.empty();
 
+    private volatile Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter = Optional.empty();
+
+    private volatile Optional<Long> connectionIdleTimeout = Optional.empty();
+
+    private volatile Optional<Integer> connectionMaxPerRoute = Optional.empty();
+
+    private volatile Optional<Integer> connectionMaxTotal = Optional.empty();
+
     private volatile Optional<String> host = Optional.empty();
 
+    private volatile Optional<Executor> ioExecutor = Optional.empty();
+
+    private volatile Optional<Boolean> nonBlockingTransport = Optional.empty();
+
     private volatile Optional<String> username = Optional.empty();
 
     private volatile Optional<String> password = Optional.empty();
 
+    private volatile Optional<RateLimiter> rateLimiter = Optional.empty();
+
+    private volatile Optional<Boolean> requestCoalescing = Optional.empty();
+
+    private volatile Optional<ResponseCache> responseCache = Optional.empty();
+
+    private volatile Optional<Integer> retryBudgetMaxTokens = Optional.empty();
+
+    private volatile Optional<Double> retryBudgetTokenRatio = Optional.empty();
+
+    private volatile Optional<Long> retryInitialBackoff = Optional.empty();
+
+    private volatile Optional<Integer> retryMaxAttempts = Optional.empty();
+
+    private volatile Optional<Long> retryMaxBackoff = Optional.empty();
+
     private volatile Optional<Boolean> skipSslValidation = Optional.empty();
 
     /**
@@ -108,6 +171,40 @@ public final class SpringCloudFoundryClientBuilder {
         return this;
     }
 
+    /**
+     * Configure an {@link AdaptiveConcurrencyLimiter} to limit the number of concurrent requests.  The limit grows
+     * while the latency of the server stays flat and shrinks as latency rises or the server signals overload, so that
+     * operations that fan out, such as paginated listings, find the best throughput on their own.  The same limiter
+     * can be configured on a number of builders, and read for metrics.  Streamed listings are read at the pace of
+     * their subscribers and are not limited.  By default, concurrency is not limited.
+     *
+     * @param concurrencyLimiter the {@link AdaptiveConcurrencyLimiter} to limit requests with
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = Optional.of(concurrencyLimiter);
+        return this;
+    }
+
+    /**
+     * Configure a pool of persistent connections to use when connecting.  Connections are reused across requests,
+     * avoiding a new TCP and TLS handshake for most requests.  By default, a new connection is opened for each request.
+     * Requires Apache HttpClient ({@code org.apache.httpcomponents:httpclient}) on the classpath.
+     *
+     * @param maxTotal    the maximum number of connections in the pool
+     * @param maxPerRoute the maximum number of connections to a single host
+     * @param idleTimeout the maximum time an idle connection is kept alive in the pool
+     * @param unit        the unit of {@code idleTimeout}
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withConnectionPool(Integer maxTotal, Integer maxPerRoute, Long idleTimeout,
+                                                              TimeUnit unit) {
+        this.connectionMaxTotal = Optional.of(maxTotal);
+        this.connectionMaxPerRoute = Optional.of(maxPerRoute);
+        this.connectionIdleTimeout = Optional.of(unit.toMillis(idleTimeout));
+        return this;
+    }
+
     /**
      * Configure the credentials to use when connecting
      *
@@ -121,6 +218,113 @@ public final class SpringCloudFoundryClientBuilder {
         return this;
     }
 
+    /**
+     * Configure the {@link Executor} that blocking requests are executed on.  Moving requests off the subscribing
+     * thread allows operations such as pagination to fetch pages concurrently, and a bounded executor caps the number
+     * of threads blocked waiting on the server.  A streamed listing, such as that of events or service instances,
+     * holds its thread until its subscriber has requested all of its resources, so with a bounded executor a subscriber
+     * must not wait on other requests of the same client before requesting more resources.  Not used by the
+     * non-blocking transport.
+     *
+     * @param ioExecutor the {@link Executor} to execute requests on.  Defaults to executing on the subscribing thread,
+     *                   or on a small pool of daemon threads for requests delayed by concurrency limiting, rate
+     *                   limiting or retrying.
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withIoExecutor(Executor ioExecutor) {
+        this.ioExecutor = Optional.of(ioExecutor);
+        return this;
+    }
+
+    /**
+     * Configure whether to use a non-blocking transport.  When enabled, requests are sent with an asynchronous HTTP
+     * client that services all in-flight requests from a small number of event loop threads, rather than holding a
+     * thread for the duration of each request.  Access tokens are obtained and refreshed on a dedicated thread rather
+     * than an event loop thread, and a request rejected for an invalid token is retried once with a new token.
+     * Requires Apache HttpAsyncClient ({@code org.apache.httpcomponents:httpasyncclient}) on the classpath.
+     *
+     * @param nonBlockingTransport whether to use a non-blocking transport.  Defaults to {@code false}.
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withNonBlockingTransport(Boolean nonBlockingTransport) {
+        this.nonBlockingTransport = Optional.of(nonBlockingTransport);
+        return this;
+    }
+
+    /**
+     * Configure a {@link RateLimiter} to limit the rate of requests.  Requests wait for a permit without holding a
+     * thread.  The same {@link RateLimiter} can be configured on a number of builders to keep all of their clients
+     * under a single quota.  By default, the rate of requests is not limited.
+     *
+     * @param rateLimiter the {@link RateLimiter} to reserve permits from
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = Optional.of(rateLimiter);
+        return this;
+    }
+
+    /**
+     * Configure whether to coalesce identical {@code GET} requests.  When enabled, a request for a url that is already
+     * being requested shares the request in flight, and its response is read into a separate copy for each caller.
+     *
+     * @param requestCoalescing whether to coalesce identical {@code GET} requests.  Defaults to {@code false}.
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withRequestCoalescing(Boolean requestCoalescing) {
+        this.requestCoalescing = Optional.of(requestCoalescing);
+        return this;
+    }
+
+    /**
+     * Configure a cache for the responses to {@code GET} requests.  Fresh responses are returned without contacting
+     * the server, and stale responses are revalidated with conditional requests.  A single cache can be shared by a
+     * number of clients, and stores the responses for each user separately.
+     *
+     * @param responseCache the {@link ResponseCache} to store responses in
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withResponseCache(ResponseCache responseCache) {
+        this.responseCache = Optional.of(responseCache);
+        return this;
+    }
+
+    /**
+     * Configure the retrying of idempotent requests that fail transiently.  {@code GET}, {@code PUT} and {@code DELETE}
+     * requests are retried when the server responds {@code 429}, {@code 502}, {@code 503} or {@code 504}, or when the
+     * connection fails.  Each retry is delayed by a random time up to a maximum that starts at {@code initialBackoff}
+     * and doubles with each retry, or by the server's {@code Retry-After}.  By default, requests are not retried.
+     *
+     * @param maxAttempts    the maximum number of times to attempt a request, including the first attempt
+     * @param initialBackoff the maximum delay before the first retry
+     * @param maxBackoff     the maximum delay before any retry.  Requests with a longer {@code Retry-After} are not
+     *                       retried.
+     * @param unit           the unit of {@code initialBackoff} and {@code maxBackoff}
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withRetry(Integer maxAttempts, Long initialBackoff, Long maxBackoff,
+                                                     TimeUnit unit) {
+        this.retryMaxAttempts = Optional.of(maxAttempts);
+        this.retryInitialBackoff = Optional.of(unit.toMillis(initialBackoff));
+        this.retryMaxBackoff = Optional.of(unit.toMillis(maxBackoff));
+        return this;
+    }
+
+    /**
+     * Configure the budget that limits retries across all requests.  Each retry withdraws a token from the budget and
+     * each success deposits {@code tokenRatio} of a token.  Requests are only retried while more than half of the
+     * tokens remain, so that retries stop when most requests are failing.  Requires {@link #withRetry}.
+     *
+     * @param maxTokens  the number of tokens in a full budget.  Defaults to {@code 100}.
+     * @param tokenRatio the fraction of a token deposited by each success.  Defaults to {@code 0.1}.
+     * @return {@code this}
+     */
+    public SpringCloudFoundryClientBuilder withRetryBudget(Integer maxTokens, Double tokenRatio) {
+        this.retryBudgetMaxTokens = Optional.of(maxTokens);
+        this.retryBudgetTokenRatio = Optional.of(tokenRatio);
+        return this;
+    }
+
     /**
      * Configure whether to skip SSL validation
      *
@@ -134,10 +338,12 @@ public final class SpringCloudFoundryClientBuilder {
 
     /**
      * Builds a new instance of a Spring-backed implementation of the {@link CloudFoundryClient} using the information
-     * provided
+     * provided.  The client owns any HTTP clients and threads created for it, and should be
+     * {@link SpringCloudFoundryClient#close() closed} when it is no longer needed.
      *
      * @return a new instance of a Spring-backed implementation of the {@link CloudFoundryClient}
-     * @throws IllegalArgumentException if {@code host}, {@code username}, or {@code password} has not been set
+     * @throws IllegalArgumentException if {@code host}, {@code username}, or {@code password} has not been set, or if
+     *                                  a retry budget has been configured without retrying
      */
     public SpringCloudFoundryClient build() {
         String clientId = this.clientId.orElse("cf");
@@ -148,6 +354,12 @@ public final class SpringCloudFoundryClientBuilder {
                 .orElseThrow(() -> new IllegalArgumentException("username must be set"));
         String password = this.password
                 .orElseThrow(() -> new IllegalArgumentException("password must be set"));
+
+        if (this.retryBudgetMaxTokens.isPresent() && !this.retryMaxAttempts.isPresent()) {
+            throw new IllegalArgumentException("retry must be set to use a retry budget");
+        }
+
+        Boolean nonBlockingTransport = this.nonBlockingTransport.orElse(false);
         Boolean skipSslValidation = this.skipSslValidation.orElse(false);
 
         if (skipSslValidation) {
@@ -159,7 +371,56 @@ public final class SpringCloudFoundryClientBuilder {
         }
 
         URI root = UriComponentsBuilder.newInstance().scheme("https").host(host).build().toUri();
-        return new SpringCloudFoundryClient(getRestOperations(clientId, clientSecret, host, username, password), root);
+        OAuth2RestTemplate restOperations = getRestOperations(clientId, clientSecret, host, username, password);
+
+        List<Closeable> resources = new ArrayList<>();
+
+        if (this.connectionMaxTotal.isPresent()) {
+            CloseableHttpClient httpClient = getHttpClient();
+            resources.add(httpClient);
+            restOperations.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+        }
+
+        Transport transport = getTransport(restOperations, nonBlockingTransport, resources);
+        ScheduledExecutorService scheduler = this.rateLimiter.isPresent() || this.retryMaxAttempts.isPresent() ?
+                getScheduler(resources) : null;
+        Executor sendExecutor = scheduler != null || this.concurrencyLimiter.isPresent() ?
+                getSendExecutor(nonBlockingTransport, resources) : null;
+
+        if (this.concurrencyLimiter.isPresent()) {
+            transport = new ConcurrencyLimitingTransport(transport, this.concurrencyLimiter.get(), sendExecutor);
+        }
+
+        if (this.rateLimiter.isPresent()) {
+            transport = new RateLimitingTransport(transport, this.rateLimiter.get(), scheduler, sendExecutor);
+        }
+
+        if (this.retryMaxAttempts.isPresent()) {
+            transport = new RetryingTransport(transport, this.retryMaxAttempts.get(), this.retryInitialBackoff.get(),
+                    this.retryMaxBackoff.get(), MILLISECONDS, new RetryBudget(this.retryBudgetMaxTokens.orElse(100),
+                    this.retryBudgetTokenRatio.orElse(0.1)), scheduler, sendExecutor);
+        }
+
+        if (this.responseCache.isPresent()) {
+            transport = new CachingTransport(transport, this.responseCache.get(), Arrays.asList(clientId, username),
+                    restOperations.getMessageConverters());
+        }
+
+        if (this.requestCoalescing.orElse(false)) {
+            transport = new CoalescingTransport(transport, restOperations.getMessageConverters());
+        }
+
+        return new SpringCloudFoundryClient(restOperations, transport, root, resources);
+    }
+
+    private CloseableHttpClient getHttpClient() {
+        this.logger.debug("Creating pooled HTTP client");
+        return HttpClients.custom()
+                .useSystemProperties()
+                .setMaxConnTotal(this.connectionMaxTotal.get())
+                .setMaxConnPerRoute(this.connectionMaxPerRoute.get())
+                .setKeepAliveStrategy(new IdleTimeoutConnectionKeepAliveStrategy(this.connectionIdleTimeout.get()))
+                .build();
     }
 
     private OAuth2ClientContext getOAuth2ClientContext() {
@@ -178,8 +439,8 @@ public final class SpringCloudFoundryClientBuilder {
                 .build();
     }
 
-    private OAuth2RestOperations getRestOperations(String clientId, String clientSecret, String host, String username,
-                                                   String password) {
+    private OAuth2RestTemplate getRestOperations(String clientId, String clientSecret, String host, String username,
+                                                 String password) {
         OAuth2ProtectedResourceDetails oAuth2ProtectedResourceDetails = getOAuth2ProtectedResourceDetails(clientId,
                 clientSecret, host, username, password);
         OAuth2ClientContext oAuth2ClientContext = getOAuth2ClientContext();
@@ -204,6 +465,80 @@ public final class SpringCloudFoundryClientBuilder {
         return restTemplate;
     }
 
+    private ScheduledExecutorService getScheduler(List<Closeable> resources) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cloudfoundry-client-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.setKeepAliveTime(60, SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        resources.add(scheduler::shutdown);
+        return scheduler;
+    }
+
+    private Executor getSendExecutor(Boolean nonBlockingTransport, List<Closeable> resources) {
+        if (nonBlockingTransport || this.ioExecutor.isPresent()) {
+            return Runnable::run;
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 60, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "cloudfoundry-client-sender-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        executor.allowCoreThreadTimeOut(true);
+        resources.add(executor::shutdown);
+        return executor;
+    }
+
+    private Executor getTokenExecutor(List<Closeable> resources) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cloudfoundry-client-token");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        executor.allowCoreThreadTimeOut(true);
+        resources.add(executor::shutdown);
+        return executor;
+    }
+
+    private Transport getTransport(OAuth2RestTemplate restOperations, Boolean nonBlockingTransport,
+                                   List<Closeable> resources) {
+        if (!nonBlockingTransport) {
+            return this.ioExecutor
+                    .map(executor -> new RestOperationsTransport(restOperations, executor))
+                    .orElseGet(() -> new RestOperationsTransport(restOperations));
+        }
+
+        this.logger.debug("Creating non-blocking transport");
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .useSystemProperties();
+
+        if (this.connectionMaxTotal.isPresent()) {
+            builder
+                    .setMaxConnTotal(this.connectionMaxTotal.get())
+                    .setMaxConnPerRoute(this.connectionMaxPerRoute.get())
+                    .setKeepAliveStrategy(new IdleTimeoutConnectionKeepAliveStrategy(this.connectionIdleTimeout.get()));
+        }
+
+        CloseableHttpAsyncClient httpAsyncClient = builder.build();
+        httpAsyncClient.start();
+        resources.add(httpAsyncClient);
+
+        AsyncClientHttpRequestFactory requestFactory = new OAuth2AsyncClientHttpRequestFactory(
+                new HttpComponentsAsyncClientHttpRequestFactory(httpAsyncClient), restOperations,
+                getTokenExecutor(resources));
+
+        return new AsyncRestOperationsTransport(new AsyncRestTemplate(requestFactory, restOperations));
+    }
+
     @SuppressWarnings("unchecked")
     private String getAccessTokenUri(String host) {
         String infoUri = UriComponentsBuilder.newInstance()
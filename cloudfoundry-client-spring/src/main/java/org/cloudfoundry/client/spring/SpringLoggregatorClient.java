@@ -21,18 +21,27 @@ import org.cloudfoundry.client.RequestValidationException;
 import org.cloudfoundry.client.Validatable;
 import org.cloudfoundry.client.ValidationResult;
 import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 import org.cloudfoundry.client.loggregator.RecentLogsRequest;
 import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+import org.cloudfoundry.client.spring.loggregator.LogMessageFilter;
 import org.cloudfoundry.client.spring.loggregator.LoggregatorMessageHandler;
+import org.cloudfoundry.client.spring.loggregator.MultiplexedStream;
 import org.cloudfoundry.client.spring.loggregator.ReactiveEndpoint;
+import org.cloudfoundry.client.spring.loggregator.ReconnectingSource;
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.BatchingPublisher;
+import org.cloudfoundry.client.spring.util.BufferingPublisher;
+import org.cloudfoundry.client.spring.util.MergingPublisher;
+import org.cloudfoundry.client.spring.util.OverflowStrategy;
+import org.cloudfoundry.client.spring.util.RunMergingPublisher;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.util.UriComponentsBuilder;
-import reactor.Publishers;
 import reactor.rx.Stream;
 import reactor.rx.Streams;
 
@@ -42,93 +51,285 @@ import javax.websocket.MessageHandler;
 import javax.websocket.Session;
 import javax.websocket.WebSocketContainer;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.URI;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
 
 /**
  * The Spring-based implementation of {@link LoggregatorClient}
  */
 public final class SpringLoggregatorClient extends AbstractSpringOperations implements LoggregatorClient {
 
+    static final int DEFAULT_BUFFER_SIZE = Integer.MAX_VALUE;
+
+    static final OverflowStrategy DEFAULT_OVERFLOW_STRATEGY = OverflowStrategy.BLOCK;
+
+    private static final Pattern HANDSHAKE_STATUS = Pattern.compile("\\[(\\d{3})\\]");
+
+    private static final int MERGE_PREFETCH = 64;
+
+    private static final int ORDER_WINDOW = 256;
+
+    private static final Set<Integer> PERMANENT_HANDSHAKE_STATUSES = new HashSet<>(Arrays.asList(401, 403, 404));
+
+    private static final long RECONNECT_INITIAL_DELAY = 1;
+
+    private static final int RECONNECT_MAX_ATTEMPTS = 10;
+
+    private static final long RECONNECT_MAXIMUM_DELAY = 30;
+
+    private static final Comparator<LoggregatorMessage> TIMESTAMP_ORDER = Comparator.comparing(
+            LoggregatorMessage::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private final int bufferSize;
+
     private final ClientEndpointConfig clientEndpointConfig;
 
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    private final OverflowStrategy overflowStrategy;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService sessionExecutor;
+
     private final WebSocketContainer webSocketContainer;
 
     private final URI root;
 
     SpringLoggregatorClient(ClientEndpointConfig clientEndpointConfig, WebSocketContainer webSocketContainer,
                             RestOperations restOperations, URI root) {
+        this(clientEndpointConfig, webSocketContainer, restOperations, root, DEFAULT_BUFFER_SIZE,
+                DEFAULT_OVERFLOW_STRATEGY);
+    }
+
+    SpringLoggregatorClient(ClientEndpointConfig clientEndpointConfig, WebSocketContainer webSocketContainer,
+                            RestOperations restOperations, URI root, int bufferSize,
+                            OverflowStrategy overflowStrategy) {
         super(restOperations, UriComponentsBuilder.fromUri(root).scheme("https").build().toUri());
 
+        this.bufferSize = bufferSize;
         this.clientEndpointConfig = clientEndpointConfig;
+        this.overflowStrategy = overflowStrategy;
+        this.scheduler = scheduler();
+        this.sessionExecutor = sessionExecutor();
         this.webSocketContainer = webSocketContainer;
         this.root = root;
     }
 
+    /**
+     * Returns the number of streamed messages that have been discarded because a subscriber did not keep up with them
+     *
+     * @return the number of discarded messages, across all streams of this client
+     */
+    public long getDroppedMessages() {
+        return this.droppedMessages.get();
+    }
+
+    /**
+     * Creates a stream of the logs of a changing set of applications.  The sessions of all of the applications share
+     * a single buffer, configured as for {@link #stream(StreamLogsRequest)}.
+     *
+     * @return a new, empty, stream to add applications to
+     */
+    public MultiplexedStream multiplex() {
+        return new MultiplexedStream(this::source, this.sessionExecutor, this.bufferSize, this.overflowStrategy,
+                message -> this.droppedMessages.incrementAndGet());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Publisher<LoggregatorMessage> recent(RecentLogsRequest request) {
         return get(request, Stream.class, builder -> builder.pathSegment("recent").queryParam("app", request.getId()))
-                .flatMap(stream -> stream);
+                .flatMap(stream -> ((Stream<LogMessage>) stream)
+                        .filter(LogMessageFilter.from(request))
+                        .map(LoggregatorMessage::from));
+    }
+
+    /**
+     * Makes the Recent Logs request, emitting the messages in timestamp order.  The messages of each source instance
+     * are merged as they arrive, holding back at most a window of messages rather than sorting the whole response.
+     *
+     * @param request the Recent Logs request
+     * @return the response from the Recent Logs request, in timestamp order
+     */
+    public Publisher<LoggregatorMessage> recentOrdered(RecentLogsRequest request) {
+        return Streams.wrap(new RunMergingPublisher<>(recent(request),
+                message -> Arrays.asList(message.getSourceName(), message.getSourceId()), TIMESTAMP_ORDER,
+                ORDER_WINDOW));
+    }
+
+    /**
+     * Makes a Recent Logs request for each of a number of applications, emitting the messages of all of them in
+     * timestamp order.  Each response is ordered as for {@link #recentOrdered(RecentLogsRequest)}, and the responses
+     * are merged as they are requested, holding only a few messages of each ahead of the subscriber.
+     *
+     * @param requests the Recent Logs requests
+     * @return the responses from the Recent Logs requests, in timestamp order
+     */
+    public Publisher<LoggregatorMessage> recentOrdered(List<RecentLogsRequest> requests) {
+        return Streams.wrap(new MergingPublisher<>(requests.stream()
+                .map(this::recentOrdered)
+                .collect(toList()), TIMESTAMP_ORDER, MERGE_PREFETCH));
     }
 
     @Override
     public Publisher<LoggregatorMessage> stream(StreamLogsRequest request) {
-        return ws(request,
-                builder -> builder.path("tail/").queryParam("app", request.getId()),
-                LoggregatorMessageHandler::new);
+        return Streams.wrap(new BufferingPublisher<>(source(request), this.bufferSize, this.overflowStrategy,
+                message -> this.droppedMessages.incrementAndGet()));
     }
 
-    private <T> Stream<T> ws(Validatable request, Consumer<UriComponentsBuilder> builderCallback,
-                             Function<Subscriber<T>, MessageHandler> messageHandlerCreator) {
+    /**
+     * Makes the Stream Logs request, grouping the messages into batches.  A batch is emitted when it holds {@code
+     * maxSize} messages or {@code maxDelay} after its first message was received, whichever comes first.
+     *
+     * @param request  the Stream Logs request
+     * @param maxSize  the maximum number of messages in a batch
+     * @param maxDelay the maximum time to hold a message before emitting its batch
+     * @param unit     the unit of {@code maxDelay}
+     * @return the batches of the response from the Stream Logs request
+     */
+    public Publisher<List<LoggregatorMessage>> streamBatches(StreamLogsRequest request, int maxSize, long maxDelay,
+                                                              TimeUnit unit) {
+        return Streams.wrap(new BatchingPublisher<>(stream(request), maxSize, maxDelay, unit, this.scheduler));
+    }
 
-        AtomicReference<Session> session = new AtomicReference<>();
+    private void close(Session session) {
+        try {
+            session.close();
+        } catch (IOException e) {
+            this.logger.warn("Failure closing session", e);
+        }
+    }
 
-        return exchange(request, (Subscriber<T> subscriber) -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
+    private static ScheduledExecutorService scheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "loggregator-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-            MessageHandler messageHandler = messageHandlerCreator.apply(subscriber);
-            ReactiveEndpoint<T> endpoint = new ReactiveEndpoint<>(messageHandler, subscriber);
+        scheduler.setKeepAliveTime(60, SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        return scheduler;
+    }
 
-            try {
-                this.logger.debug("WS {}", uri);
-                session.set(this.webSocketContainer.connectToServer(endpoint, this.clientEndpointConfig, uri));
-            } catch (DeploymentException | IOException e) {
-                subscriber.onError(e);
-            }
-        }).observeCancel(r -> Optional.ofNullable(session.get()).ifPresent(s -> {
-            try {
-                s.close();
-            } catch (IOException e) {
-                this.logger.warn("Failure closing session", e);
+    private static ExecutorService sessionExecutor() {
+        AtomicInteger count = new AtomicInteger();
+
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "loggregator-session-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Integer handshakeStatus(Throwable throwable) {
+        Method method = ReflectionUtils.findMethod(throwable.getClass(), "getHttpStatusCode");
+        if (method != null && method.getReturnType() == int.class) {
+            ReflectionUtils.makeAccessible(method);
+            return (Integer) ReflectionUtils.invokeMethod(method, throwable);
+        }
+
+        if (throwable instanceof DeploymentException && throwable.getMessage() != null) {
+            Matcher matcher = HANDSHAKE_STATUS.matcher(throwable.getMessage());
+            if (matcher.find()) {
+                return Integer.valueOf(matcher.group(1));
             }
-        }));
+        }
+
+        return null;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Stream<T> exchange(Validatable request, Consumer<Subscriber<T>> exchange) {
-        return Streams.wrap(Publishers.createWithDemand((n, subscriber) -> {
-            if (n != Long.MAX_VALUE) {
-                subscriber.onError(new IllegalArgumentException("Publisher doesn't support back pressure"));
+    static boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RequestValidationException) {
+                return false;
+            }
+
+            Integer status = handshakeStatus(cause);
+            if (status != null) {
+                return !PERMANENT_HANDSHAKE_STATUSES.contains(status);
             }
+        }
+
+        return true;
+    }
+
+    private static RecentLogsRequest recentLogsRequest(StreamLogsRequest request) {
+        return new RecentLogsRequest()
+                .withId(request.getId())
+                .withMessageContains(request.getMessageContains())
+                .withMessagePattern(request.getMessagePattern())
+                .withMessageType(request.getMessageType())
+                .withSourceId(request.getSourceId())
+                .withSourceName(request.getSourceName());
+    }
 
+    private Function<Subscriber<LoggregatorMessage>, Runnable> source(StreamLogsRequest request) {
+        Function<Subscriber<LoggregatorMessage>, Runnable> source = ws(request,
+                builder -> builder.path("tail/").queryParam("app", request.getId()),
+                subscriber -> new LoggregatorMessageHandler(subscriber, LogMessageFilter.from(request)));
+
+        if (Boolean.TRUE.equals(request.getReconnect())) {
+            source = new ReconnectingSource(source, () -> recent(recentLogsRequest(request)), this.scheduler,
+                    this.sessionExecutor, RECONNECT_INITIAL_DELAY, RECONNECT_MAXIMUM_DELAY, SECONDS,
+                    RECONNECT_MAX_ATTEMPTS, SpringLoggregatorClient::isTransient);
+        }
+
+        return source;
+    }
+
+    private <T> Function<Subscriber<T>, Runnable> ws(Validatable request,
+                                                     Consumer<UriComponentsBuilder> builderCallback,
+                                                     Function<Subscriber<T>, MessageHandler> messageHandlerCreator) {
+
+        return subscriber -> {
             if (request != null) {
                 ValidationResult validationResult = request.isValid();
                 if (validationResult.getStatus() == ValidationResult.Status.INVALID) {
-                    subscriber.onError(new RequestValidationException(validationResult));
-                    return;
+                    throw new RequestValidationException(validationResult);
                 }
             }
 
-            exchange.accept(subscriber);
-        }));
+            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
+            builderCallback.accept(builder);
+            URI uri = builder.build().toUri();
+
+            MessageHandler messageHandler = messageHandlerCreator.apply(subscriber);
+            ReactiveEndpoint<T> endpoint = new ReactiveEndpoint<>(messageHandler, subscriber);
+
+            try {
+                this.logger.debug("WS {}", uri);
+                Session session = this.webSocketContainer.connectToServer(endpoint, this.clientEndpointConfig, uri);
+                return () -> close(session);
+            } catch (DeploymentException | IOException e) {
+                subscriber.onError(e);
+                return () -> {
+                };
+            }
+        };
     }
 
 }
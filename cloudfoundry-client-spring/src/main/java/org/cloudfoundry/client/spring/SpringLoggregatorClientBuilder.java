@@ -17,6 +17,7 @@
 package org.cloudfoundry.client.spring;
 
 import org.cloudfoundry.client.LoggregatorClient;
+import org.cloudfoundry.client.spring.util.OverflowStrategy;
 import org.cloudfoundry.client.v2.info.GetInfoResponse;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RestOperations;
@@ -35,8 +36,12 @@ public final class SpringLoggregatorClientBuilder {
 
     private final WebSocketContainer webSocketContainer;
 
+    private volatile int bufferSize = SpringLoggregatorClient.DEFAULT_BUFFER_SIZE;
+
     private volatile SpringCloudFoundryClient cloudFoundryClient;
 
+    private volatile OverflowStrategy overflowStrategy = SpringLoggregatorClient.DEFAULT_OVERFLOW_STRATEGY;
+
     public SpringLoggregatorClientBuilder() {
         this(ContainerProvider.getWebSocketContainer());
     }
@@ -45,20 +50,48 @@ public final class SpringLoggregatorClientBuilder {
         this.webSocketContainer = webSocketContainer;
     }
 
+    /**
+     * Configure the number of streamed messages buffered for each subscriber that has not yet requested them.  Defaults
+     * to unbounded, so that no message is discarded or held back.
+     *
+     * @param bufferSize the number of messages to buffer
+     * @return {@code this}
+     */
+    public SpringLoggregatorClientBuilder withBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
     public SpringLoggregatorClientBuilder withCloudFoundryClient(SpringCloudFoundryClient cloudFoundryClient) {
         this.cloudFoundryClient = cloudFoundryClient;
         return this;
     }
 
+    /**
+     * Configure what happens to streamed messages that arrive while a subscriber's buffer is full.  Only applies once a
+     * buffer size has been configured.  Defaults to {@link OverflowStrategy#BLOCK}, so that messages are only discarded
+     * when a dropping strategy is chosen.
+     *
+     * @param overflowStrategy the strategy to apply
+     * @return {@code this}
+     */
+    public SpringLoggregatorClientBuilder withOverflowStrategy(OverflowStrategy overflowStrategy) {
+        this.overflowStrategy = overflowStrategy;
+        return this;
+    }
+
     /**
      * Builds a new instance of a Spring-backed implementation of {@link LoggregatorClient} using the information
      * provided
      *
      * @return a new instance of a Spring-backed implementation of the {@link LoggregatorClient}
-     * @throws IllegalArgumentException if {@code cloudFoundryClient} has not been set
+     * @throws IllegalArgumentException if {@code cloudFoundryClient} has not been set or {@code bufferSize} is not
+     *                                  positive
      */
     public SpringLoggregatorClient build() {
         Assert.notNull(this.cloudFoundryClient, "cloudFoundryClient must be set");
+        Assert.isTrue(this.bufferSize > 0, "bufferSize must be positive");
+        Assert.notNull(this.overflowStrategy, "overflowStrategy must be set");
 
         URI root = Streams.wrap(this.cloudFoundryClient.info().get())
                 .map(GetInfoResponse::getLoggingEndpoint)
@@ -66,7 +99,8 @@ public final class SpringLoggregatorClientBuilder {
                 .next().poll();
 
         RestOperations restOperations = this.cloudFoundryClient.getRestOperations();
-        return new SpringLoggregatorClient(getClientEndpointConfig(), this.webSocketContainer, restOperations, root);
+        return new SpringLoggregatorClient(getClientEndpointConfig(), this.webSocketContainer, restOperations, root,
+                this.bufferSize, this.overflowStrategy);
     }
 
     private ClientEndpointConfig getClientEndpointConfig() {
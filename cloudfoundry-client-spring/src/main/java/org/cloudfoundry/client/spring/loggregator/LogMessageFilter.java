@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import com.google.protobuf.ByteString;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
+import org.cloudfoundry.client.loggregator.RecentLogsRequest;
+import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+
+import java.nio.charset.Charset;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link Predicate} that selects {@link LogMessage}s by their protobuf fields, so that messages can be discarded
+ * before a {@link LoggregatorMessage} is created for them.  Text filters are applied last; {@code contains} compares
+ * the raw UTF-8 bytes of the message and only a pattern requires the message to be decoded.
+ */
+public final class LogMessageFilter implements Predicate<LogMessage> {
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private final byte[] messageContains;
+
+    private final Pattern messagePattern;
+
+    private final LogMessage.MessageType messageType;
+
+    private final String sourceId;
+
+    private final String sourceName;
+
+    LogMessageFilter(String messageContains, String messagePattern, LoggregatorMessage.MessageType messageType,
+                     String sourceId, String sourceName) {
+        this.messageContains = messageContains == null ? null : messageContains.getBytes(CHARSET);
+        this.messagePattern = messagePattern == null ? null : Pattern.compile(messagePattern);
+        this.messageType = messageType == null ? null : LogMessage.MessageType.valueOf(messageType.name());
+        this.sourceId = sourceId;
+        this.sourceName = sourceName;
+    }
+
+    /**
+     * Creates a filter from the filter options of a Recent Logs request
+     *
+     * @param request the request
+     * @return the filter
+     */
+    public static LogMessageFilter from(RecentLogsRequest request) {
+        return new LogMessageFilter(request.getMessageContains(), request.getMessagePattern(),
+                request.getMessageType(), request.getSourceId(), request.getSourceName());
+    }
+
+    /**
+     * Creates a filter from the filter options of a Stream Logs request
+     *
+     * @param request the request
+     * @return the filter
+     */
+    public static LogMessageFilter from(StreamLogsRequest request) {
+        return new LogMessageFilter(request.getMessageContains(), request.getMessagePattern(),
+                request.getMessageType(), request.getSourceId(), request.getSourceName());
+    }
+
+    @Override
+    public boolean test(LogMessage logMessage) {
+        return (this.messageType == null || this.messageType == logMessage.getMessageType()) &&
+                (this.sourceName == null || this.sourceName.equals(logMessage.getSourceName())) &&
+                (this.sourceId == null || this.sourceId.equals(logMessage.getSourceId())) &&
+                (this.messageContains == null || contains(logMessage.getMessage(), this.messageContains)) &&
+                (this.messagePattern == null ||
+                        this.messagePattern.matcher(logMessage.getMessage().toStringUtf8()).find());
+    }
+
+    private static boolean contains(ByteString message, byte[] bytes) {
+        int last = message.size() - bytes.length;
+
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < bytes.length && message.byteAt(i + j) == bytes[j]) {
+                j++;
+            }
+
+            if (j == bytes.length) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -16,30 +16,88 @@
 
 package org.cloudfoundry.client.spring.loggregator;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
 import org.cloudfoundry.client.loggregator.LoggregatorMessage;
 import org.reactivestreams.Subscriber;
 
 import javax.websocket.MessageHandler;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Predicate;
 
 import static org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 
-public final class LoggregatorMessageHandler implements MessageHandler.Whole<byte[]> {
+/**
+ * A {@link MessageHandler} that decodes the {@link LogMessage}s in binary websocket frames.  A frame delivered whole in
+ * a heap buffer is decoded in place.  Frames delivered in parts, or in direct buffers, are accumulated in a buffer
+ * that is reused for every frame of the session.  Messages rejected by a filter are discarded before a
+ * {@link LoggregatorMessage} is created for them.
+ */
+public final class LoggregatorMessageHandler implements MessageHandler.Partial<ByteBuffer> {
+
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+
+    private byte[] buffer = new byte[0];
+
+    private final Predicate<LogMessage> filter;
+
+    private int length = 0;
 
     private final Subscriber<LoggregatorMessage> subscriber;
 
     public LoggregatorMessageHandler(Subscriber<LoggregatorMessage> subscriber) {
+        this(subscriber, logMessage -> true);
+    }
+
+    public LoggregatorMessageHandler(Subscriber<LoggregatorMessage> subscriber, Predicate<LogMessage> filter) {
+        this.filter = filter;
         this.subscriber = subscriber;
     }
 
     @Override
-    public void onMessage(byte[] message) {
+    public void onMessage(ByteBuffer part, boolean last) {
+        if (last && this.length == 0 && part.hasArray()) {
+            decode(CodedInputStream.newInstance(part.array(), part.arrayOffset() + part.position(), part.remaining()));
+            return;
+        }
+
+        append(part);
+
+        if (last) {
+            CodedInputStream input = CodedInputStream.newInstance(this.buffer, 0, this.length);
+            this.length = 0;
+            decode(input);
+        }
+    }
+
+    private void append(ByteBuffer part) {
+        int required = this.length + part.remaining();
+
+        if (required > this.buffer.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, this.buffer.length);
+            while (capacity < required) {
+                capacity *= 2;
+            }
+
+            this.buffer = Arrays.copyOf(this.buffer, capacity);
+        }
+
+        part.get(this.buffer, this.length, part.remaining());
+        this.length = required;
+    }
+
+    private void decode(CodedInputStream input) {
         try {
-            LogMessage logMessage = LogMessage.parseFrom(message);
+            LogMessage logMessage = LogMessage.parseFrom(input);
+            if (!this.filter.test(logMessage)) {
+                return;
+            }
+
             LoggregatorMessage loggregatorMessage = LoggregatorMessage.from(logMessage);
 
             this.subscriber.onNext(loggregatorMessage);
-        } catch (InvalidProtocolBufferException e) {
+        } catch (IOException e) {
             this.subscriber.onError(e);
         }
     }
@@ -17,7 +17,6 @@
 package org.cloudfoundry.client.spring.loggregator;
 
 import com.google.protobuf.InvalidProtocolBufferException;
-import org.cloudfoundry.client.loggregator.LoggregatorMessage;
 import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 import org.cloudfoundry.client.spring.util.Multipart;
 import org.springframework.http.HttpInputMessage;
@@ -29,8 +28,12 @@ import reactor.rx.Stream;
 
 import java.io.IOException;
 
-public final class LoggregatorMessageHttpMessageConverter
-        extends AbstractHttpMessageConverter<Stream<LoggregatorMessage>> {
+/**
+ * An {@link AbstractHttpMessageConverter} that reads {@code multipart/x-protobuf} bodies as a {@link Stream} of
+ * {@link LogMessage}s.  The protobuf messages are emitted as they are parsed so that callers can filter them before
+ * creating {@link org.cloudfoundry.client.loggregator.LoggregatorMessage}s.
+ */
+public final class LoggregatorMessageHttpMessageConverter extends AbstractHttpMessageConverter<Stream<LogMessage>> {
 
     public LoggregatorMessageHttpMessageConverter() {
         super(MediaType.parseMediaType("multipart/x-protobuf"));
@@ -48,16 +51,16 @@ public final class LoggregatorMessageHttpMessageConverter
 
     @Override
     @SuppressWarnings("unchecked")
-    protected Stream<LoggregatorMessage> readInternal(Class<? extends Stream<LoggregatorMessage>> clazz,
-                                                    HttpInputMessage inputMessage) throws IOException {
+    protected Stream<LogMessage> readInternal(Class<? extends Stream<LogMessage>> clazz,
+                                              HttpInputMessage inputMessage) throws IOException {
 
         String boundary = inputMessage.getHeaders().getContentType().getParameter("boundary");
 
         return Multipart.from(inputMessage.getBody(), boundary)
                 .map(part -> {
                     try {
-                        LogMessage logMessage = LogMessage.parseFrom(part);
-                        return LoggregatorMessage.from(logMessage);
+                        return LogMessage.PARSER.parseFrom(part.array(), part.arrayOffset() + part.position(),
+                                part.remaining());
                     } catch (InvalidProtocolBufferException e) {
                         throw new RuntimeException(e);
                     }
@@ -66,7 +69,7 @@ public final class LoggregatorMessageHttpMessageConverter
     }
 
     @Override
-    protected void writeInternal(Stream<LoggregatorMessage> loggregatorMessage, HttpOutputMessage outputMessage) {
+    protected void writeInternal(Stream<LogMessage> logMessages, HttpOutputMessage outputMessage) {
         throw new UnsupportedOperationException();
     }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import org.cloudfoundry.client.RequestValidationException;
+import org.cloudfoundry.client.ValidationResult;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+import org.cloudfoundry.client.spring.util.BufferingPublisher;
+import org.cloudfoundry.client.spring.util.OverflowStrategy;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Publisher} that merges the log streams of a changing set of applications.  Applications can be added and
+ * removed at any time; a session is opened for each application while the stream is subscribed to, and all sessions
+ * push into a single buffer, one message at a time.  Sessions are opened by an {@link Executor} rather than by the
+ * thread that subscribes or adds an application.  Messages are tagged with the id of the application they were
+ * streamed for.  A session that ends removes its application without terminating the merged stream, and the error of a
+ * session that fails is available from {@link #getFailures()}.  Only a single subscriber is supported.
+ */
+public final class MultiplexedStream implements Publisher<LoggregatorMessage> {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Map<String, ApplicationSubscriber> connections = new ConcurrentHashMap<>();
+
+    private final Function<StreamLogsRequest, Function<Subscriber<LoggregatorMessage>, Runnable>> connector;
+
+    private final Executor executor;
+
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    private final Object monitor = new Object();
+
+    private final BufferingPublisher<LoggregatorMessage> publisher;
+
+    private final Map<String, StreamLogsRequest> requests = new ConcurrentHashMap<>();
+
+    private volatile Subscriber<LoggregatorMessage> sink;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    /**
+     * Creates an instance
+     *
+     * @param connector        creates the source of the log stream for a request
+     * @param executor         the {@link Executor} to open sessions on
+     * @param bufferSize       the maximum number of messages to buffer across all applications
+     * @param overflowStrategy the strategy to apply when a message is pushed into a full buffer
+     * @param dropped          called with each message discarded by the overflow strategy
+     */
+    public MultiplexedStream(Function<StreamLogsRequest, Function<Subscriber<LoggregatorMessage>, Runnable>> connector,
+                             Executor executor, int bufferSize, OverflowStrategy overflowStrategy,
+                             Consumer<? super LoggregatorMessage> dropped) {
+        this.connector = connector;
+        this.executor = executor;
+        this.publisher = new BufferingPublisher<>(this::start, bufferSize, overflowStrategy, dropped);
+    }
+
+    /**
+     * Adds an application to the stream, clearing any previous failure of its session.  If the stream has already been
+     * subscribed to, a session is opened for it immediately.
+     *
+     * @param request the Stream Logs request for the application
+     * @return {@code this}
+     * @throws RequestValidationException if the request is invalid
+     */
+    public MultiplexedStream add(StreamLogsRequest request) {
+        ValidationResult validationResult = request.isValid();
+        if (validationResult.getStatus() == ValidationResult.Status.INVALID) {
+            throw new RequestValidationException(validationResult);
+        }
+
+        if (this.requests.putIfAbsent(request.getId(), request) == null) {
+            this.failures.remove(request.getId());
+
+            Subscriber<LoggregatorMessage> sink = this.sink;
+            if (sink != null) {
+                this.executor.execute(() -> connect(request, sink));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the errors of the sessions that have failed, removing their applications from the stream
+     *
+     * @return the errors of the failed sessions, by application id
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(this.failures);
+    }
+
+    /**
+     * Returns the ids of the applications in the stream
+     *
+     * @return the ids of the applications in the stream
+     */
+    public Set<String> getApplicationIds() {
+        return Collections.unmodifiableSet(this.requests.keySet());
+    }
+
+    /**
+     * Removes an application from the stream, closing its session
+     *
+     * @param applicationId the id of the application
+     * @return {@code this}
+     */
+    public MultiplexedStream remove(String applicationId) {
+        this.requests.remove(applicationId);
+        disconnect(applicationId);
+        return this;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super LoggregatorMessage> subscriber) {
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.publisher.subscribe(subscriber);
+            return;
+        }
+
+        subscriber.onSubscribe(new Subscription() {
+
+            @Override
+            public void cancel() {
+            }
+
+            @Override
+            public void request(long n) {
+            }
+
+        });
+        subscriber.onError(new IllegalStateException("MultiplexedStream allows only a single subscriber"));
+    }
+
+    private void connect(StreamLogsRequest request, Subscriber<LoggregatorMessage> sink) {
+        String applicationId = request.getId();
+
+        ApplicationSubscriber connection = new ApplicationSubscriber(applicationId, sink);
+        try {
+            connection.stop = this.connector.apply(request).apply(connection);
+        } catch (RuntimeException e) {
+            connection.onError(e);
+        }
+
+        ApplicationSubscriber previous = this.connections.put(applicationId, connection);
+        if (previous != null) {
+            previous.close();
+        }
+
+        if (this.sink == null || connection.terminated || !this.requests.containsKey(applicationId)) {
+            closed(connection);
+        }
+    }
+
+    private void closed(ApplicationSubscriber connection) {
+        if (this.connections.remove(connection.applicationId, connection)) {
+            this.requests.remove(connection.applicationId);
+            if (connection.error != null) {
+                this.failures.put(connection.applicationId, connection.error);
+            }
+            connection.close();
+        }
+    }
+
+    private void disconnect(String applicationId) {
+        ApplicationSubscriber connection = this.connections.remove(applicationId);
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private Runnable start(Subscriber<LoggregatorMessage> sink) {
+        this.sink = sink;
+        this.requests.values().forEach(request -> this.executor.execute(() -> connect(request, sink)));
+
+        return this::stop;
+    }
+
+    private void stop() {
+        this.sink = null;
+        this.connections.keySet().forEach(this::disconnect);
+    }
+
+    private final class ApplicationSubscriber implements Subscriber<LoggregatorMessage> {
+
+        private final String applicationId;
+
+        private volatile Throwable error;
+
+        private final Subscriber<LoggregatorMessage> sink;
+
+        private volatile Runnable stop;
+
+        private volatile boolean terminated = false;
+
+        private ApplicationSubscriber(String applicationId, Subscriber<LoggregatorMessage> sink) {
+            this.applicationId = applicationId;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onComplete() {
+            MultiplexedStream.this.logger.debug("Log stream for application {} closed", this.applicationId);
+            this.terminated = true;
+            closed(this);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            MultiplexedStream.this.logger.warn("Log stream for application {} failed", this.applicationId, throwable);
+            this.error = throwable;
+            this.terminated = true;
+            closed(this);
+        }
+
+        @Override
+        public void onNext(LoggregatorMessage message) {
+            if (this.terminated) {
+                return;
+            }
+
+            if (message.getApplicationId() == null) {
+                message.withApplicationId(this.applicationId);
+            }
+
+            synchronized (MultiplexedStream.this.monitor) {
+                this.sink.onNext(message);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            // The session is controlled by the stop callback returned by the connector
+        }
+
+        private void close() {
+            this.terminated = true;
+
+            Runnable stop = this.stop;
+            if (stop != null) {
+                stop.run();
+            }
+        }
+
+    }
+
+}
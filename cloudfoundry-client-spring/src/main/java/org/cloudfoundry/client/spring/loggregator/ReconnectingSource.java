@@ -0,0 +1,452 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A source of {@link LoggregatorMessage}s that reconnects when its connection fails.  Reconnection attempts are
+ * delayed by an exponential backoff, and once connected the messages missed while disconnected are filled in from the
+ * recent logs.  Messages that have already been delivered are recognized by their timestamp, source id and content,
+ * and are not delivered twice.  The source completes when a connection closes normally, after any gap being filled
+ * has been delivered.  It fails, rather than reconnecting, when the first connection fails, when an error is not
+ * retryable, or when a number of consecutive attempts have failed without delivering a message.  Reconnections, and
+ * the recent logs requests that fill their gaps, run on an executor so that they never hold up the scheduler.
+ */
+public final class ReconnectingSource implements Function<Subscriber<LoggregatorMessage>, Runnable> {
+
+    private static final int DEDUPLICATION_WINDOW = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Function<Subscriber<LoggregatorMessage>, Runnable> connector;
+
+    private final Executor executor;
+
+    private final long initialDelay;
+
+    private final int maxAttempts;
+
+    private final long maximumDelay;
+
+    private final Supplier<Publisher<LoggregatorMessage>> recent;
+
+    private final Predicate<Throwable> retryable;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final TimeUnit unit;
+
+    /**
+     * Creates an instance
+     *
+     * @param connector    starts a connection that signals the given {@link Subscriber}, returning a callback that
+     *                     stops it
+     * @param recent       supplies the recent logs used to fill the gap after a reconnection
+     * @param scheduler    the scheduler to delay reconnection attempts with
+     * @param executor     the executor to reconnect and request the recent logs on
+     * @param initialDelay the delay before the first reconnection attempt
+     * @param maximumDelay the limit of the doubling delay between subsequent attempts
+     * @param unit         the unit of the delays
+     * @param maxAttempts  the number of consecutive attempts that may fail before the source fails
+     * @param retryable    whether an error may be recovered from by reconnecting
+     */
+    public ReconnectingSource(Function<Subscriber<LoggregatorMessage>, Runnable> connector,
+                              Supplier<Publisher<LoggregatorMessage>> recent, ScheduledExecutorService scheduler,
+                              Executor executor, long initialDelay, long maximumDelay, TimeUnit unit, int maxAttempts,
+                              Predicate<Throwable> retryable) {
+        this.connector = connector;
+        this.executor = executor;
+        this.initialDelay = initialDelay;
+        this.maxAttempts = maxAttempts;
+        this.maximumDelay = maximumDelay;
+        this.recent = recent;
+        this.retryable = retryable;
+        this.scheduler = scheduler;
+        this.unit = unit;
+    }
+
+    @Override
+    public Runnable apply(Subscriber<LoggregatorMessage> subscriber) {
+        Tail tail = new Tail(subscriber);
+        tail.connect();
+        return tail::stop;
+    }
+
+    private static long timestamp(LoggregatorMessage message) {
+        return message.getTimestamp() == null ? Long.MIN_VALUE : message.getTimestamp().getTime();
+    }
+
+    private static final class Key {
+
+        private final int messageHash;
+
+        private final String sourceId;
+
+        private final long timestamp;
+
+        private Key(LoggregatorMessage message) {
+            this.messageHash = Objects.hashCode(message.getMessage());
+            this.sourceId = message.getSourceId();
+            this.timestamp = timestamp(message);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.messageHash == key.messageHash && this.timestamp == key.timestamp &&
+                    Objects.equals(this.sourceId, key.sourceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.messageHash, this.sourceId, this.timestamp);
+        }
+
+    }
+
+    private final class Tail {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private boolean completing = false;
+
+        private volatile boolean connected = false;
+
+        private final AtomicReference<Runnable> connection = new AtomicReference<>();
+
+        private volatile long delay = ReconnectingSource.this.initialDelay;
+
+        private boolean filling = false;
+
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        private final List<LoggregatorMessage> pending = new ArrayList<>();
+
+        private final AtomicReference<Future<?>> reconnection = new AtomicReference<>();
+
+        private final Map<Key, Boolean> seen = new LinkedHashMap<Key, Boolean>() {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > DEDUPLICATION_WINDOW;
+            }
+
+        };
+
+        private volatile boolean stopped = false;
+
+        private final Subscriber<LoggregatorMessage> subscriber;
+
+        private Tail(Subscriber<LoggregatorMessage> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private int connect() {
+            int generation = this.generation.incrementAndGet();
+            Runnable connection = ReconnectingSource.this.connector.apply(new ConnectionSubscriber(generation));
+            this.connection.set(connection);
+            this.connected = true;
+
+            if ((this.stopped || this.generation.get() != generation) &&
+                    this.connection.compareAndSet(connection, null)) {
+                connection.run();
+            }
+
+            return generation;
+        }
+
+        private void complete(int generation) {
+            synchronized (this) {
+                if (!isCurrent(generation)) {
+                    return;
+                }
+
+                if (this.filling) {
+                    this.completing = true;
+                    return;
+                }
+
+                this.stopped = true;
+            }
+
+            this.subscriber.onComplete();
+        }
+
+        private void deliver(int generation, LoggregatorMessage message) {
+            synchronized (this) {
+                if (!isCurrent(generation)) {
+                    return;
+                }
+
+                if (this.filling) {
+                    this.pending.add(message);
+                } else {
+                    emit(message);
+                }
+            }
+        }
+
+        private void disconnect() {
+            Runnable connection = this.connection.getAndSet(null);
+            if (connection != null) {
+                connection.run();
+            }
+        }
+
+        private void discardPending() {
+            synchronized (this) {
+                this.pending.clear();
+            }
+        }
+
+        private void emit(LoggregatorMessage message) {
+            if (this.seen.put(new Key(message), Boolean.TRUE) != null) {
+                return;
+            }
+
+            this.lastTimestamp = Math.max(this.lastTimestamp, timestamp(message));
+            this.subscriber.onNext(message);
+        }
+
+        private void fail(Throwable throwable) {
+            synchronized (this) {
+                if (this.stopped) {
+                    return;
+                }
+                this.stopped = true;
+            }
+
+            cancelReconnect();
+            disconnect();
+            this.subscriber.onError(throwable);
+        }
+
+        private void fill(int generation, List<LoggregatorMessage> recent) {
+            synchronized (this) {
+                if (!isCurrent(generation)) {
+                    return;
+                }
+
+                recent.stream()
+                        .filter(message -> timestamp(message) >= this.lastTimestamp)
+                        .sorted(Comparator.comparingLong(ReconnectingSource::timestamp))
+                        .forEach(this::emit);
+
+                this.pending.forEach(this::emit);
+                this.pending.clear();
+                this.filling = false;
+
+                if (!this.completing) {
+                    return;
+                }
+
+                this.stopped = true;
+            }
+
+            this.subscriber.onComplete();
+        }
+
+        private boolean isCompleting() {
+            synchronized (this) {
+                return this.completing;
+            }
+        }
+
+        private boolean isCurrent(int generation) {
+            return !this.stopped && this.generation.get() == generation;
+        }
+
+        private void reconnect() {
+            if (this.stopped) {
+                return;
+            }
+
+            synchronized (this) {
+                this.filling = true;
+            }
+
+            try {
+                int generation = connect();
+                ReconnectingSource.this.recent.get().subscribe(new RecentSubscriber(generation));
+            } catch (RuntimeException e) {
+                ReconnectingSource.this.logger.warn("Failure reconnecting", e);
+                retry(this.generation.get(), e);
+            }
+        }
+
+        private void retry(int generation, Throwable throwable) {
+            if (this.stopped || !this.generation.compareAndSet(generation, generation + 1)) {
+                return;
+            }
+
+            discardPending();
+
+            if (!ReconnectingSource.this.retryable.test(throwable) ||
+                    this.attempts.incrementAndGet() > ReconnectingSource.this.maxAttempts) {
+                fail(throwable);
+                return;
+            }
+
+            disconnect();
+
+            long delay = this.delay;
+            this.delay = Math.min(delay * 2, ReconnectingSource.this.maximumDelay);
+
+            ReconnectingSource.this.logger.debug("Reconnecting in {} {}", delay, ReconnectingSource.this.unit);
+            this.reconnection.set(ReconnectingSource.this.scheduler.schedule(
+                    () -> ReconnectingSource.this.executor.execute(this::reconnect), delay,
+                    ReconnectingSource.this.unit));
+
+            if (this.stopped) {
+                cancelReconnect();
+            }
+        }
+
+        private void cancelReconnect() {
+            Future<?> reconnection = this.reconnection.getAndSet(null);
+            if (reconnection != null) {
+                reconnection.cancel(false);
+            }
+        }
+
+        private void stop() {
+            this.stopped = true;
+            cancelReconnect();
+            disconnect();
+        }
+
+        private final class ConnectionSubscriber implements Subscriber<LoggregatorMessage> {
+
+            private final int generation;
+
+            private ConnectionSubscriber(int generation) {
+                this.generation = generation;
+            }
+
+            @Override
+            public void onComplete() {
+                complete(this.generation);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (!isCurrent(this.generation)) {
+                    return;
+                }
+
+                if (!Tail.this.connected) {
+                    fail(throwable);
+                    return;
+                }
+
+                ReconnectingSource.this.logger.warn("Log stream failed", throwable);
+                retry(this.generation, throwable);
+            }
+
+            @Override
+            public void onNext(LoggregatorMessage message) {
+                if (isCurrent(this.generation)) {
+                    Tail.this.attempts.set(0);
+                    Tail.this.delay = ReconnectingSource.this.initialDelay;
+                    deliver(this.generation, message);
+                }
+            }
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                // The connection is controlled by the stop callback returned by the connector
+            }
+
+        }
+
+        private final class RecentSubscriber implements Subscriber<LoggregatorMessage> {
+
+            private final int generation;
+
+            private final List<LoggregatorMessage> messages = new ArrayList<>();
+
+            private RecentSubscriber(int generation) {
+                this.generation = generation;
+            }
+
+            @Override
+            public void onComplete() {
+                fill(this.generation, this.messages);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (!isCurrent(this.generation)) {
+                    return;
+                }
+
+                ReconnectingSource.this.logger.warn("Failure filling log stream gap from recent logs", throwable);
+
+                if (isCompleting()) {
+                    fill(this.generation, Collections.emptyList());
+                } else {
+                    retry(this.generation, throwable);
+                }
+            }
+
+            @Override
+            public void onNext(LoggregatorMessage message) {
+                this.messages.add(message);
+            }
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
+import reactor.Publishers;
+import reactor.rx.Stream;
+import reactor.rx.Streams;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Utilities for replaying the segments written by a {@link RollingLogSink}
+ */
+public final class RollingLogReader {
+
+    private static final String EXTENSION = ".log";
+
+    private RollingLogReader() {
+    }
+
+    /**
+     * Replays the messages in the segments with a prefix, in the order they were written.  Each segment is
+     * memory-mapped when the first message in it is requested, and unmapped once it has been read.  A record that was
+     * only partly written, as when the writer did not shut down cleanly, ends its segment.
+     *
+     * @param directory the directory containing the segments
+     * @param prefix    the prefix of the names of the segments
+     * @return a {@link Stream} of the messages in the segments
+     */
+    public static Stream<LoggregatorMessage> replay(Path directory, String prefix) {
+        return Streams.wrap(Publishers.<LoggregatorMessage, SegmentReader>create(subscriber -> {
+            try {
+                LoggregatorMessage message = subscriber.context().next();
+
+                if (message == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onNext(message);
+                }
+            } catch (IOException e) {
+                subscriber.onError(e);
+            }
+        }, subscriber -> new SegmentReader(directory, prefix)));
+    }
+
+    static int index(Path segment, String prefix) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(prefix.length() + 1, name.length() - EXTENSION.length()));
+    }
+
+    static String name(String prefix, int index) {
+        return String.format("%s-%010d%s", prefix, index, EXTENSION);
+    }
+
+    static void unmap(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeType = Class.forName("sun.misc.Unsafe");
+            Field unsafe = unsafeType.getDeclaredField("theUnsafe");
+            unsafe.setAccessible(true);
+
+            try {
+                unsafeType.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The mapping is released when the buffer is garbage collected instead
+        }
+    }
+
+    static List<Path> segments(Path directory, String prefix) throws IOException {
+        List<Path> segments = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "-*" + EXTENSION)) {
+            for (Path segment : stream) {
+                if (segment.getFileName().toString().matches("\\Q" + prefix + "\\E-\\d{10}\\Q" + EXTENSION + "\\E")) {
+                    segments.add(segment);
+                }
+            }
+        }
+
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static final class SegmentReader {
+
+        private final Path directory;
+
+        private final String prefix;
+
+        private byte[] scratch = new byte[1024];
+
+        private ByteBuffer segment;
+
+        private Iterator<Path> segments;
+
+        private SegmentReader(Path directory, String prefix) {
+            this.directory = directory;
+            this.prefix = prefix;
+        }
+
+        private LoggregatorMessage next() throws IOException {
+            if (this.segments == null) {
+                this.segments = segments(this.directory, this.prefix).iterator();
+            }
+
+            for (; ; ) {
+                if (this.segment == null) {
+                    if (!this.segments.hasNext()) {
+                        return null;
+                    }
+
+                    try (FileChannel channel = FileChannel.open(this.segments.next(), READ)) {
+                        this.segment = channel.map(READ_ONLY, 0, channel.size());
+                    }
+                }
+
+                int size = readVarint32(this.segment);
+                if (size <= 0 || size > this.segment.remaining()) {
+                    finishSegment();
+                    continue;
+                }
+
+                if (this.scratch.length < size) {
+                    this.scratch = new byte[Math.max(size, this.scratch.length * 2)];
+                }
+                this.segment.get(this.scratch, 0, size);
+
+                try {
+                    return LoggregatorMessage.from(LogMessage.PARSER.parseFrom(this.scratch, 0, size));
+                } catch (InvalidProtocolBufferException e) {
+                    finishSegment();
+                }
+            }
+        }
+
+        private void finishSegment() {
+            unmap(this.segment);
+            this.segment = null;
+        }
+
+        private static int readVarint32(ByteBuffer buffer) {
+            int result = 0;
+
+            for (int shift = 0; shift < 32 && buffer.hasRemaining(); shift += 7) {
+                byte b = buffer.get();
+                result |= (b & 0x7F) << shift;
+
+                if (b >= 0) {
+                    return result;
+                }
+            }
+
+            return -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import com.google.protobuf.CodedOutputStream;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A {@link Subscriber} that writes {@link LoggregatorMessage}s to a rolling set of segment files.  Each segment is
+ * preallocated and memory-mapped, and holds a sequence of protobuf {@code LogMessage}s, each prefixed with its length
+ * as a varint (the format of {@code writeDelimitedTo}).  The unused remainder of a segment is zero-filled, which reads
+ * as the end of the segment.  A new segment is started when a message does not fit in the current one, or when the
+ * current one has been open for longer than the maximum age.  Segments are named {@code <prefix>-<index>.log}, and
+ * indexes continue from any segments already in the directory.  Segments can be replayed with {@link
+ * RollingLogReader}.
+ *
+ * <p>Messages are written to the mapped segment without a system call, and are only forced to disk when a segment is
+ * finished, when the sink is {@link #flush() flushed}, or when it is closed.  A finished segment is unmapped at once
+ * rather than when it is garbage collected.  Each message is serialized into a reusable scratch buffer and copied into
+ * the segment.  Messages that were created from a protobuf message, and have not been modified since, are serialized
+ * from that message rather than rebuilt from their fields.  Messages missing a required field are discarded.
+ */
+public final class RollingLogSink implements Closeable, Subscriber<LoggregatorMessage> {
+
+    private static final int REQUEST_SIZE = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Path directory;
+
+    private int index;
+
+    private final long maxAge;
+
+    private final String prefix;
+
+    private int received;
+
+    private byte[] scratch = new byte[1024];
+
+    private MappedByteBuffer segment;
+
+    private long segmentCreated;
+
+    private final int segmentSize;
+
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+    /**
+     * Creates an instance
+     *
+     * @param directory   the directory to write segments to.  It is created if it does not exist.
+     * @param prefix      the prefix of the names of the segments
+     * @param segmentSize the size of each segment in bytes
+     * @param maxAge      the maximum time to write to a segment before starting a new one
+     * @param unit        the unit of {@code maxAge}
+     * @throws IOException if the directory cannot be created or read
+     */
+    public RollingLogSink(Path directory, String prefix, int segmentSize, long maxAge, TimeUnit unit)
+            throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive, but was " + segmentSize);
+        }
+
+        this.directory = directory;
+        this.maxAge = unit.toNanos(maxAge);
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+
+        List<Path> segments = RollingLogReader.segments(directory, prefix);
+        this.index = segments.isEmpty() ? 0 : RollingLogReader.index(segments.get(segments.size() - 1), prefix) + 1;
+    }
+
+    /**
+     * Finishes the current segment and cancels the subscription, if any
+     */
+    @Override
+    public synchronized void close() {
+        Subscription subscription = this.subscription.getAndSet(null);
+        if (subscription != null) {
+            subscription.cancel();
+        }
+
+        finishSegment();
+    }
+
+    /**
+     * Forces the messages written to the current segment to disk
+     */
+    public synchronized void flush() {
+        if (this.segment != null) {
+            this.segment.force();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.logger.warn("Log stream failed", throwable);
+        close();
+    }
+
+    @Override
+    public void onNext(LoggregatorMessage message) {
+        try {
+            write(message);
+        } catch (IllegalArgumentException e) {
+            this.logger.warn("Discarding message: {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            this.logger.error("Failure writing message", e);
+            close();
+            return;
+        }
+
+        if (++this.received == REQUEST_SIZE / 2) {
+            this.received = 0;
+
+            Subscription subscription = this.subscription.get();
+            if (subscription != null) {
+                subscription.request(REQUEST_SIZE / 2);
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (!this.subscription.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+
+        subscription.request(REQUEST_SIZE);
+    }
+
+    /**
+     * Writes a message to the current segment, starting a new segment if required
+     *
+     * @param message the message to write
+     * @throws IOException              if a new segment cannot be created
+     * @throws IllegalArgumentException if the message is missing a required field, or if the encoded message is larger
+     *                                  than a segment
+     */
+    public synchronized void write(LoggregatorMessage message) throws IOException {
+        LogMessage logMessage = message.toLogMessage();
+
+        int size = logMessage.getSerializedSize();
+        int length = CodedOutputStream.computeRawVarint32Size(size) + size;
+
+        if (length > this.segmentSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Message of %d bytes does not fit in a segment of %d bytes", length, this.segmentSize));
+        }
+
+        if (this.segment == null || this.segment.remaining() < length ||
+                System.nanoTime() - this.segmentCreated >= this.maxAge) {
+            startSegment();
+        }
+
+        if (this.scratch.length < length) {
+            this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+        }
+
+        CodedOutputStream output = CodedOutputStream.newInstance(this.scratch, 0, length);
+        output.writeRawVarint32(size);
+        logMessage.writeTo(output);
+
+        this.segment.put(this.scratch, 0, length);
+    }
+
+    private void finishSegment() {
+        if (this.segment != null) {
+            this.segment.force();
+            RollingLogReader.unmap(this.segment);
+            this.segment = null;
+        }
+    }
+
+    private void startSegment() throws IOException {
+        finishSegment();
+
+        Path path = this.directory.resolve(RollingLogReader.name(this.prefix, this.index++));
+        this.logger.debug("Starting segment {}", path);
+
+        try (FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE)) {
+            this.segment = channel.map(READ_WRITE, 0, this.segmentSize);
+        }
+        this.segmentCreated = System.nanoTime();
+    }
+
+}
@@ -16,120 +16,220 @@
 
 package org.cloudfoundry.client.spring.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cloudfoundry.client.RequestValidationException;
 import org.cloudfoundry.client.Validatable;
 import org.cloudfoundry.client.ValidationResult;
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.PaginatedRequest;
 import org.cloudfoundry.client.spring.v2.CloudFoundryExceptionBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureAdapter;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.util.UriComponentsBuilder;
-import reactor.Publishers;
 import reactor.rx.Stream;
 import reactor.rx.Streams;
 
 import java.net.URI;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.PATCH;
+import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 
 public abstract class AbstractSpringOperations {
 
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .addHandler(new LoggingDeserializationProblemHandler());
+
+    private static final int RESOURCE_BUFFER_SIZE = 64;
 
-    protected final RestOperations restOperations;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     protected final URI root;
 
+    protected final Transport transport;
+
     protected AbstractSpringOperations(RestOperations restOperations, URI root) {
-        this.restOperations = restOperations;
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    protected AbstractSpringOperations(Transport transport, URI root) {
         this.root = root;
+        this.transport = transport;
     }
 
     protected final <T> Stream<T> get(Validatable request, Class<T> responseType,
                                       Consumer<UriComponentsBuilder> builderCallback) {
-        return exchange(request, () -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
-
-            this.logger.debug("GET {}", uri);
-            return this.restOperations.getForObject(uri, responseType);
+        return exchange(request, responseType, () -> {
+            Link link = request instanceof PaginatedRequest ? ((PaginatedRequest<?>) request).getLink() : null;
+            return link != null ?
+                    requestEntity(null, GET, resolve(link)) : requestEntity(null, GET, builderCallback);
         });
     }
 
-    protected final Stream<Void> delete(Validatable request, Consumer<UriComponentsBuilder> builderCallback) {
-        return exchange(request, () -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
-
-            this.logger.debug("DELETE {}", uri);
-            this.restOperations.exchange(new RequestEntity<>(request, DELETE, uri), Void.class).getBody();
-            return null;
-        });
+    protected final <T> Stream<T> get(Validatable request, Class<T> responseType, PathTemplate template,
+                                      Object... variables) {
+        return exchange(request, responseType, () -> requestEntity(null, GET, template, variables));
     }
 
-    protected final <T> Stream<T> exchange(Validatable request, Supplier<T> exchange) {
-        return Streams.wrap(Publishers.create(subscriber -> {
-            if (request != null) {
-                ValidationResult validationResult = request.isValid();
-                if (validationResult.getStatus() == ValidationResult.Status.INVALID) {
-                    subscriber.onError(new RequestValidationException(validationResult));
-                    return;
+    protected final <U, R> Stream<R> getResources(Validatable request, Class<U> responseType, Class<R> resourceType,
+                                                  Consumer<U> pageConsumer,
+                                                  Consumer<UriComponentsBuilder> builderCallback) {
+        return Streams.wrap(new BufferingPublisher<R>(subscriber -> {
+            validate(request);
+
+            AtomicReference<ListenableFuture<Void>> future = new AtomicReference<>();
+            AtomicBoolean stopped = new AtomicBoolean(false);
+            Consumer<R> resourceConsumer = resource -> {
+                if (stopped.get()) {
+                    throw new CancellationException();
                 }
-            }
+                subscriber.onNext(resource);
+            };
 
-            try {
-                subscriber.onNext(exchange.get());
-                subscriber.onComplete();
-            } catch (HttpStatusCodeException e) {
-                subscriber.onError(CloudFoundryExceptionBuilder.build(e));
-            } catch (Exception e) {
-                subscriber.onError(e);
-            }
+            ResponseExtractor<Void> responseExtractor = new PaginatedResourceExtractor<>(OBJECT_MAPPER, responseType,
+                    resourceType, resourceConsumer, pageConsumer);
+            RequestEntity<?> requestEntity = requestEntity(null, GET, builderCallback);
+
+            ReaderThreads.EXECUTOR.execute(() -> {
+                ListenableFuture<Void> response = this.transport.execute(requestEntity, responseExtractor);
+                future.set(response);
+                response.addCallback(result -> subscriber.onComplete(),
+                        throwable -> subscriber.onError(translate(throwable)));
+
+                if (stopped.get()) {
+                    response.cancel(true);
+                }
+            });
+
+            return () -> {
+                stopped.set(true);
+
+                ListenableFuture<Void> response = future.get();
+                if (response != null) {
+                    response.cancel(true);
+                }
+            };
+        }, RESOURCE_BUFFER_SIZE, OverflowStrategy.BLOCK, resource -> {
         }));
     }
 
+    protected final Stream<Void> delete(Validatable request, Consumer<UriComponentsBuilder> builderCallback) {
+        return exchange(request, Void.class, () -> requestEntity(request, DELETE, builderCallback));
+    }
+
+    protected final Stream<Void> delete(Validatable request, PathTemplate template, Object... variables) {
+        return exchange(request, Void.class, () -> requestEntity(request, DELETE, template, variables));
+    }
+
+    protected final <T> Stream<T> exchange(Validatable request, Class<T> responseType,
+                                           Supplier<RequestEntity<?>> requestEntitySupplier) {
+        return Streams.wrap(new ListenableFuturePublisher<T>(() -> {
+            validate(request);
+            return getBody(this.transport.exchange(requestEntitySupplier.get(), responseType));
+        }, AbstractSpringOperations::translate));
+    }
+
     protected final <T> Stream<T> patch(Validatable request, Class<T> responseType,
                                         Consumer<UriComponentsBuilder> builderCallback) {
-        return exchange(request, () -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
+        return exchange(request, responseType, () -> requestEntity(request, PATCH, builderCallback));
+    }
 
-            this.logger.debug("PATCH {}", uri);
-            return this.restOperations.exchange(new RequestEntity<>(request, PATCH, uri), responseType).getBody();
-        });
+    protected final <T> Stream<T> patch(Validatable request, Class<T> responseType, PathTemplate template,
+                                        Object... variables) {
+        return exchange(request, responseType, () -> requestEntity(request, PATCH, template, variables));
     }
 
     protected final <T> Stream<T> post(Validatable request, Class<T> responseType,
                                        Consumer<UriComponentsBuilder> builderCallback) {
-        return exchange(request, () -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
+        return exchange(request, responseType, () -> requestEntity(request, POST, builderCallback));
+    }
 
-            this.logger.debug("POST {}", uri);
-            return this.restOperations.postForObject(uri, request, responseType);
-        });
+    protected final <T> Stream<T> post(Validatable request, Class<T> responseType, PathTemplate template,
+                                       Object... variables) {
+        return exchange(request, responseType, () -> requestEntity(request, POST, template, variables));
     }
 
     protected final <T> Stream<T> put(Validatable request, Class<T> responseType,
                                       Consumer<UriComponentsBuilder> builderCallback) {
-        return exchange(request, () -> {
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
-            builderCallback.accept(builder);
-            URI uri = builder.build().toUri();
+        return exchange(request, responseType, () -> requestEntity(request, PUT, builderCallback));
+    }
 
-            this.logger.debug("PUT {}", uri);
-            return this.restOperations.exchange(new RequestEntity<>(request, PUT, uri), responseType).getBody();
-        });
+    protected final <T> Stream<T> put(Validatable request, Class<T> responseType, PathTemplate template,
+                                      Object... variables) {
+        return exchange(request, responseType, () -> requestEntity(request, PUT, template, variables));
+    }
+
+    private static <T> ListenableFuture<T> getBody(ListenableFuture<ResponseEntity<T>> responseEntity) {
+        return new ListenableFutureAdapter<T, ResponseEntity<T>>(responseEntity) {
+
+            @Override
+            protected T adapt(ResponseEntity<T> adapteeResult) {
+                return adapteeResult.getBody();
+            }
+
+        };
+    }
+
+    private static Throwable translate(Throwable throwable) {
+        if (throwable instanceof HttpStatusCodeException) {
+            return CloudFoundryExceptionBuilder.build((HttpStatusCodeException) throwable);
+        }
+
+        return throwable;
+    }
+
+    private static void validate(Validatable request) {
+        if (request != null) {
+            ValidationResult validationResult = request.isValid();
+            if (validationResult.getStatus() == ValidationResult.Status.INVALID) {
+                throw new RequestValidationException(validationResult);
+            }
+        }
+    }
+
+    private RequestEntity<?> requestEntity(Object body, HttpMethod method,
+                                           Consumer<UriComponentsBuilder> builderCallback) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(this.root);
+        builderCallback.accept(builder);
+
+        return requestEntity(body, method, builder.build().toUri());
+    }
+
+    private RequestEntity<?> requestEntity(Object body, HttpMethod method, PathTemplate template,
+                                           Object... variables) {
+        return requestEntity(body, method, template.expand(this.root, variables));
+    }
+
+    private URI resolve(Link link) {
+        URI uri = this.root.resolve(link.getHref());
+
+        if (!this.root.getScheme().equalsIgnoreCase(uri.getScheme()) ||
+                !this.root.getRawAuthority().equalsIgnoreCase(uri.getRawAuthority())) {
+            throw new IllegalArgumentException(String.format("Link %s does not refer to %s", link.getHref(),
+                    this.root));
+        }
+
+        return uri;
+    }
+
+    private RequestEntity<?> requestEntity(Object body, HttpMethod method, URI uri) {
+        this.logger.debug("{} {}", method, uri);
+        return new RequestEntity<>(body, method, uri);
     }
 
 }
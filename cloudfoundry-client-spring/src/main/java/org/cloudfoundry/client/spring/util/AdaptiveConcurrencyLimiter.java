@@ -0,0 +1,186 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * A limit on the number of concurrent requests that adapts to the latency of the server, in the style of TCP Vegas.
+ * The lowest latency seen is taken as the latency of an unloaded server, and the number of requests queued at the
+ * server is estimated as {@code limit * (1 - minimumLatency / latency)}.  The limit is raised by one while fewer than
+ * {@code 3 * log10(limit)} requests are estimated to be queued and at least half of the limit is in use, and lowered
+ * by one while more than {@code 6 * log10(limit)} are.  A response that signals overload, such as a {@code 429} or
+ * {@code 5xx}, reduces the limit multiplicatively.  The minimum latency is re-measured periodically so that the limiter
+ * follows a server whose unloaded latency has changed.
+ *
+ * <p>Requests beyond the limit wait in a queue, without holding a thread, until a running request completes.  Waiting
+ * requests are then handed to the executor they were queued with, so the thread that completed the request never
+ * sends them itself.  A single instance can be shared by a number of clients, and its limit, in-flight and queued
+ * requests can be read as metrics.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final int ALPHA = 3;
+
+    private static final int BETA = 6;
+
+    private static final double OVERLOAD_RATIO = 0.9;
+
+    private static final ThreadLocal<Queue<Runnable>> PENDING = new ThreadLocal<>();
+
+    private static final int PROBE_INTERVAL = 1000;
+
+    private int inFlight = 0;
+
+    private int limit;
+
+    private final int maxLimit;
+
+    private long minimumLatency = Long.MAX_VALUE;
+
+    private final int minLimit;
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+
+    private int samples = 0;
+
+    /**
+     * Creates an instance
+     *
+     * @param initialLimit the limit to start with
+     * @param minLimit     the lowest the limit may fall to
+     * @param maxLimit     the highest the limit may rise to
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format(
+                    "Limits must satisfy 0 < minimum <= initial <= maximum, but were %d, %d and %d", minLimit,
+                    initialLimit, maxLimit));
+        }
+
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Returns the number of requests that are in flight
+     *
+     * @return the number of requests that are in flight
+     */
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * Returns the current limit on the number of requests in flight
+     *
+     * @return the current limit
+     */
+    public synchronized int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Returns the number of requests waiting for a request in flight to complete
+     *
+     * @return the number of waiting requests
+     */
+    public synchronized int getQueued() {
+        return this.queue.size();
+    }
+
+    void acquire(Runnable request, Executor executor) {
+        synchronized (this) {
+            if (this.inFlight >= this.limit) {
+                this.queue.offer(() -> executor.execute(request));
+                return;
+            }
+
+            this.inFlight++;
+        }
+
+        request.run();
+    }
+
+    void release() {
+        release(-1, false);
+    }
+
+    void release(long latency, boolean overloaded) {
+        List<Runnable> requests = new ArrayList<>();
+
+        synchronized (this) {
+            if (overloaded) {
+                this.limit = Math.max(this.minLimit, (int) (this.limit * OVERLOAD_RATIO));
+            } else if (latency > 0) {
+                update(latency);
+            }
+
+            this.inFlight--;
+
+            while (this.inFlight < this.limit && !this.queue.isEmpty()) {
+                this.inFlight++;
+                requests.add(this.queue.poll());
+            }
+        }
+
+        run(requests);
+    }
+
+    private static void run(List<Runnable> requests) {
+        Queue<Runnable> pending = PENDING.get();
+        if (pending != null) {
+            pending.addAll(requests);
+            return;
+        }
+
+        pending = new ArrayDeque<>(requests);
+        PENDING.set(pending);
+
+        try {
+            Runnable request;
+            while ((request = pending.poll()) != null) {
+                request.run();
+            }
+        } finally {
+            PENDING.remove();
+        }
+    }
+
+    private void update(long latency) {
+        if (++this.samples % PROBE_INTERVAL == 0) {
+            this.minimumLatency = latency;
+        } else {
+            this.minimumLatency = Math.min(this.minimumLatency, latency);
+        }
+
+        double queued = this.limit * (1 - (double) this.minimumLatency / latency);
+        double scale = Math.log10(Math.max(2, this.limit));
+
+        if (queued < ALPHA * scale && this.inFlight * 2 >= this.limit) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1);
+        } else if (queued > BETA * scale) {
+            this.limit = Math.max(this.minLimit, this.limit - 1);
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestOperations;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Transport} backed by a non-blocking {@link AsyncRestOperations}.  No thread is held while an exchange is in
+ * flight; the returned future is completed by the I/O thread of the underlying HTTP client.  Response extractors may
+ * block, so the body they read is received in full and they are run by an {@link Executor} instead.
+ */
+public final class AsyncRestOperationsTransport implements Transport {
+
+    private final AsyncRestOperations asyncRestOperations;
+
+    private final Executor executor;
+
+    /**
+     * Creates an instance that runs response extractors on a shared pool of daemon threads
+     *
+     * @param asyncRestOperations the {@link AsyncRestOperations} to use to communicate with the server
+     */
+    public AsyncRestOperationsTransport(AsyncRestOperations asyncRestOperations) {
+        this(asyncRestOperations, ReaderThreads.EXECUTOR);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param asyncRestOperations the {@link AsyncRestOperations} to use to communicate with the server
+     * @param executor            the {@link Executor} to run response extractors on
+     */
+    public AsyncRestOperationsTransport(AsyncRestOperations asyncRestOperations, Executor executor) {
+        this.asyncRestOperations = asyncRestOperations;
+        this.executor = executor;
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        HttpEntity<?> httpEntity = new HttpEntity<>(requestEntity.getBody(), requestEntity.getHeaders());
+
+        return this.asyncRestOperations.exchange(requestEntity.getUrl(), requestEntity.getMethod(), httpEntity,
+                responseType);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        ListenableFuture<BufferedResponse> response = this.asyncRestOperations.execute(requestEntity.getUrl(),
+                requestEntity.getMethod(), request -> request.getHeaders().putAll(requestEntity.getHeaders()),
+                BufferedResponse::new);
+
+        return new ExtractingFuture<>(response, responseExtractor, this.executor);
+    }
+
+    private static final class BufferedResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+
+        private final HttpHeaders headers;
+
+        private final int rawStatusCode;
+
+        private final String statusText;
+
+        private BufferedResponse(ClientHttpResponse response) throws IOException {
+            this.body = StreamUtils.copyToByteArray(response.getBody());
+            this.headers = response.getHeaders();
+            this.rawStatusCode = response.getRawStatusCode();
+            this.statusText = response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(this.body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return this.rawStatusCode;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(this.rawStatusCode);
+        }
+
+        @Override
+        public String getStatusText() {
+            return this.statusText;
+        }
+
+    }
+
+    private static final class ExtractingFuture<T> extends SettableListenableFuture<T>
+            implements ListenableFutureCallback<BufferedResponse> {
+
+        private final Executor executor;
+
+        private final ListenableFuture<BufferedResponse> response;
+
+        private final ResponseExtractor<T> responseExtractor;
+
+        private ExtractingFuture(ListenableFuture<BufferedResponse> response, ResponseExtractor<T> responseExtractor,
+                                 Executor executor) {
+            this.executor = executor;
+            this.response = response;
+            this.responseExtractor = responseExtractor;
+
+            response.addCallback(this);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            this.response.cancel(mayInterruptIfRunning);
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            setException(throwable);
+        }
+
+        @Override
+        public void onSuccess(BufferedResponse response) {
+            this.executor.execute(() -> {
+                if (isCancelled()) {
+                    return;
+                }
+
+                try {
+                    set(this.responseExtractor.extractData(response));
+                } catch (IOException | RuntimeException e) {
+                    setException(e);
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Publisher} that groups the items of another publisher into batches.  A batch is closed when it holds the
+ * maximum number of items or when the maximum delay has passed since its first item, whichever comes first.  At most
+ * two batches worth of items are requested ahead of the subscriber's demand.  The source is subscribed to for each
+ * subscriber when it first requests a batch.
+ *
+ * @param <T> the type of the items
+ */
+public final class BatchingPublisher<T> implements Publisher<List<T>> {
+
+    private final long maxDelay;
+
+    private final int maxSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Publisher<T> source;
+
+    private final TimeUnit unit;
+
+    /**
+     * Creates an instance
+     *
+     * @param source    the publisher of the items to batch
+     * @param maxSize   the maximum number of items in a batch
+     * @param maxDelay  the maximum time between the first item of a batch being received and the batch being closed
+     * @param unit      the unit of {@code maxDelay}
+     * @param scheduler the scheduler to close batches on when their delay has passed
+     */
+    public BatchingPublisher(Publisher<T> source, int maxSize, long maxDelay, TimeUnit unit,
+                             ScheduledExecutorService scheduler) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, but was " + maxSize);
+        }
+
+        this.maxDelay = maxDelay;
+        this.maxSize = maxSize;
+        this.scheduler = scheduler;
+        this.source = source;
+        this.unit = unit;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super List<T>> subscriber) {
+        subscriber.onSubscribe(new BatchingSubscription<>(subscriber, this));
+    }
+
+    private static final class BatchingSubscription<T> implements Subscriber<T>, Subscription {
+
+        private List<T> batch;
+
+        private final Queue<List<T>> batches = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private volatile boolean done = false;
+
+        private volatile Throwable error;
+
+        private final BatchingPublisher<T> publisher;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final Subscriber<? super List<T>> subscriber;
+
+        private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        private Future<?> timeout;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private BatchingSubscription(Subscriber<? super List<T>> subscriber, BatchingPublisher<T> publisher) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+
+            Subscription subscription = this.subscription.getAndSet(null);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+
+            synchronized (this) {
+                cancelTimeout();
+                this.batch = null;
+            }
+            this.batches.clear();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                closeBatch();
+            }
+
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (this.done) {
+                return;
+            }
+
+            synchronized (this) {
+                closeBatch();
+            }
+
+            this.error = throwable;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done || this.cancelled) {
+                return;
+            }
+
+            synchronized (this) {
+                if (this.batch == null) {
+                    List<T> batch = new ArrayList<>(this.publisher.maxSize);
+                    this.batch = batch;
+                    this.timeout = this.publisher.scheduler.schedule(() -> onTimeout(batch),
+                            this.publisher.maxDelay, this.publisher.unit);
+                }
+
+                this.batch.add(item);
+
+                if (this.batch.size() == this.publisher.maxSize) {
+                    closeBatch();
+                }
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (!this.subscription.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+
+            if (this.cancelled) {
+                this.subscription.set(null);
+                subscription.cancel();
+                return;
+            }
+
+            subscription.request(2L * this.publisher.maxSize);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.started.set(true);
+
+                Subscription subscription = this.subscription.getAndSet(null);
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+
+                onError(new IllegalArgumentException("Request amount must be positive, but was " + n));
+                return;
+            }
+
+            this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+
+            if (this.started.compareAndSet(false, true)) {
+                this.publisher.source.subscribe(this);
+            }
+
+            drain();
+        }
+
+        private void cancelTimeout() {
+            if (this.timeout != null) {
+                this.timeout.cancel(false);
+                this.timeout = null;
+            }
+        }
+
+        private void closeBatch() {
+            cancelTimeout();
+
+            if (this.batch != null) {
+                this.batches.offer(this.batch);
+                this.batch = null;
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                long requested = this.demand.get();
+                long emitted = 0;
+                long items = 0;
+
+                while (emitted != requested) {
+                    if (this.cancelled) {
+                        this.batches.clear();
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    List<T> batch = this.batches.poll();
+
+                    if (done && batch == null) {
+                        terminate();
+                        return;
+                    }
+
+                    if (batch == null) {
+                        break;
+                    }
+
+                    this.subscriber.onNext(batch);
+                    emitted++;
+                    items += batch.size();
+                }
+
+                if (this.cancelled) {
+                    this.batches.clear();
+                    return;
+                }
+
+                if (this.done && this.batches.isEmpty()) {
+                    terminate();
+                    return;
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.demand.addAndGet(-emitted);
+                }
+
+                Subscription subscription = this.subscription.get();
+                if (items != 0 && subscription != null) {
+                    subscription.request(items);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void onTimeout(List<T> batch) {
+            synchronized (this) {
+                if (this.batch != batch) {
+                    return;
+                }
+
+                closeBatch();
+            }
+
+            drain();
+        }
+
+        private void terminate() {
+            this.cancelled = true;
+            this.subscription.set(null);
+
+            Throwable error = this.error;
+            if (error != null) {
+                this.subscriber.onError(error);
+            } else {
+                this.subscriber.onComplete();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads buffered responses into the requested type with a client's message converters.  Each read returns a new
+ * response, with its own copy of the headers, so a buffered response can be handed to any number of callers.
+ */
+final class BufferedResponseReader {
+
+    private final List<HttpMessageConverter<?>> messageConverters;
+
+    BufferedResponseReader(List<HttpMessageConverter<?>> messageConverters) {
+        this.messageConverters = messageConverters;
+    }
+
+    <T> ResponseEntity<T> read(HttpStatus status, HttpHeaders headers, byte[] body, Class<T> responseType) {
+        HttpHeaders copy = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            copy.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+
+        return new ResponseEntity<>(readBody(copy, body, responseType), copy, status);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readBody(HttpHeaders headers, byte[] body, Class<T> responseType) {
+        if (body == null || body.length == 0 || responseType == Void.class) {
+            return null;
+        }
+
+        MediaType contentType = headers.getContentType() != null ? headers.getContentType() :
+                MediaType.APPLICATION_OCTET_STREAM;
+        HttpInputMessage message = new HttpInputMessage() {
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+        };
+
+        try {
+            for (HttpMessageConverter<?> messageConverter : this.messageConverters) {
+                if (messageConverter.canRead(responseType, contentType)) {
+                    return ((HttpMessageConverter<T>) messageConverter).read(responseType, message);
+                }
+            }
+        } catch (IOException e) {
+            throw new RestClientException(String.format("Could not read response into %s", responseType.getName()), e);
+        }
+
+        throw new RestClientException(String.format("Could not read response into %s: no suitable message converter " +
+                "for content type %s", responseType.getName(), contentType));
+    }
+
+}
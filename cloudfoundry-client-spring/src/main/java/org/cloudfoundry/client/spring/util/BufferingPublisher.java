@@ -0,0 +1,348 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Publisher} for sources that push items without regard to demand, such as WebSocket sessions.  A source is
+ * started for each subscriber when it first requests items, pushed items are buffered until they are requested, and
+ * the source is stopped when the subscriber cancels.  Terminal signals are delivered once all buffered items have
+ * been emitted.  The buffer may be bounded, in which case an {@link OverflowStrategy} decides what happens to items
+ * pushed while it is full.
+ *
+ * @param <T> the type of the items
+ */
+public final class BufferingPublisher<T> implements Publisher<T> {
+
+    private final int capacity;
+
+    private final Consumer<? super T> dropped;
+
+    private final OverflowStrategy overflowStrategy;
+
+    private final Function<Subscriber<T>, Runnable> source;
+
+    /**
+     * Creates an instance with an unbounded buffer
+     *
+     * @param source starts a source that signals the given {@link Subscriber}, returning a callback that stops it
+     */
+    public BufferingPublisher(Function<Subscriber<T>, Runnable> source) {
+        this(source, Integer.MAX_VALUE, OverflowStrategy.BLOCK, item -> {
+        });
+    }
+
+    /**
+     * Creates an instance with a bounded buffer
+     *
+     * @param source           starts a source that signals the given {@link Subscriber}, returning a callback that
+     *                         stops it
+     * @param capacity         the maximum number of items to buffer for each subscriber
+     * @param overflowStrategy the strategy to apply when an item is pushed into a full buffer
+     * @param dropped          called with each item discarded by the overflow strategy
+     */
+    public BufferingPublisher(Function<Subscriber<T>, Runnable> source, int capacity,
+                              OverflowStrategy overflowStrategy, Consumer<? super T> dropped) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.dropped = dropped;
+        this.overflowStrategy = overflowStrategy;
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new BufferingSubscription<>(subscriber, this.source, this.capacity,
+                this.overflowStrategy, this.dropped));
+    }
+
+    private static final class BufferingSubscription<T> implements Subscriber<T>, Subscription {
+
+        private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private volatile boolean done = false;
+
+        private final Consumer<? super T> dropped;
+
+        private volatile Throwable error;
+
+        private final AtomicReference<T> latest = new AtomicReference<>();
+
+        private final OverflowStrategy overflowStrategy;
+
+        private final Semaphore slots;
+
+        private final Function<Subscriber<T>, Runnable> source;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final AtomicReference<Runnable> stop = new AtomicReference<>();
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private BufferingSubscription(Subscriber<? super T> subscriber, Function<Subscriber<T>, Runnable> source,
+                                      int capacity, OverflowStrategy overflowStrategy, Consumer<? super T> dropped) {
+            this.dropped = dropped;
+            this.overflowStrategy = overflowStrategy;
+            this.slots = new Semaphore(capacity);
+            this.source = source;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            stopSource();
+            this.buffer.clear();
+            this.latest.set(null);
+
+            if (this.overflowStrategy == OverflowStrategy.BLOCK && this.slots.availablePermits() == 0) {
+                this.slots.release();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (this.done) {
+                return;
+            }
+
+            this.error = throwable;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done || this.cancelled) {
+                return;
+            }
+
+            if (this.slots.tryAcquire()) {
+                enqueue(item);
+            } else {
+                overflow(item);
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            // The source is controlled by this subscription rather than the one passed in
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                stopSource();
+                this.buffer.clear();
+                onError(new IllegalArgumentException("Request amount must be positive, but was " + n));
+                return;
+            }
+
+            this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+
+            if (this.started.compareAndSet(false, true)) {
+                startSource();
+            }
+
+            drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                long requested = this.demand.get();
+                long emitted = 0;
+
+                while (emitted != requested) {
+                    if (this.cancelled) {
+                        this.buffer.clear();
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    T item = poll();
+
+                    if (done && item == null) {
+                        terminate();
+                        return;
+                    }
+
+                    if (item == null) {
+                        break;
+                    }
+
+                    this.subscriber.onNext(item);
+                    emitted++;
+                }
+
+                if (this.cancelled) {
+                    this.buffer.clear();
+                    return;
+                }
+
+                if (this.done && this.buffer.isEmpty() && this.latest.get() == null) {
+                    terminate();
+                    return;
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.demand.addAndGet(-emitted);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void enqueue(T item) {
+            T latest = this.latest.getAndSet(null);
+            if (latest == null) {
+                this.buffer.offer(item);
+                return;
+            }
+
+            this.buffer.offer(latest);
+            if (this.slots.tryAcquire()) {
+                this.buffer.offer(item);
+            } else {
+                this.latest.set(item);
+            }
+        }
+
+        private void overflow(T item) {
+            switch (this.overflowStrategy) {
+                case BLOCK:
+                    try {
+                        this.slots.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        this.dropped.accept(item);
+                        return;
+                    }
+
+                    if (this.cancelled) {
+                        this.slots.release();
+                    } else {
+                        this.buffer.offer(item);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (true) {
+                        T oldest = this.buffer.poll();
+                        if (oldest != null) {
+                            this.dropped.accept(oldest);
+                            this.buffer.offer(item);
+                            return;
+                        }
+                        if (this.slots.tryAcquire()) {
+                            enqueue(item);
+                            return;
+                        }
+                    }
+                case DROP_NEWEST:
+                    this.dropped.accept(item);
+                    break;
+                case SAMPLE:
+                    T replaced = this.latest.getAndSet(item);
+                    if (replaced != null) {
+                        this.dropped.accept(replaced);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown overflow strategy " + this.overflowStrategy);
+            }
+        }
+
+        private T poll() {
+            T item = this.buffer.poll();
+            if (item != null) {
+                this.slots.release();
+                return item;
+            }
+
+            return this.latest.getAndSet(null);
+        }
+
+        private void startSource() {
+            try {
+                this.stop.set(this.source.apply(this));
+            } catch (RuntimeException e) {
+                onError(e);
+                return;
+            }
+
+            if (this.cancelled) {
+                stopSource();
+            }
+        }
+
+        private void stopSource() {
+            Runnable stop = this.stop.getAndSet(null);
+            if (stop != null) {
+                stop.run();
+            }
+        }
+
+        private void terminate() {
+            this.cancelled = true;
+            stopSource();
+
+            Throwable error = this.error;
+            if (error != null) {
+                this.subscriber.onError(error);
+            } else {
+                this.subscriber.onComplete();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.HEAD;
+import static org.springframework.http.HttpMethod.OPTIONS;
+import static org.springframework.http.HttpMethod.TRACE;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * A {@link Transport} that answers {@code GET} exchanges from a {@link ResponseCache}.  A fresh stored response is
+ * returned without contacting the server.  A stale stored response with validators is revalidated with a conditional
+ * request, and is returned again if the server responds {@code 304 Not Modified}.  Responses are stored as their raw
+ * bodies and read into the requested type with the client's message converters on each exchange, so callers never
+ * share a response instance.  Stored responses are keyed by the principal the requests are made for, so a cache shared
+ * by clients of different users never returns one user's response to another.  Responses marked {@code Cache-Control:
+ * no-store} are not stored, and streamed responses are never cached.  A successful request with an unsafe method, such
+ * as {@code PUT}, {@code POST} or {@code DELETE}, evicts the responses stored for its URI.
+ */
+public final class CachingTransport implements Transport {
+
+    private static final Set<HttpMethod> SAFE_METHODS = EnumSet.of(GET, HEAD, OPTIONS, TRACE);
+
+    private final ResponseCache cache;
+
+    private final Transport delegate;
+
+    private final Object principal;
+
+    private final BufferedResponseReader reader;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate          the {@link Transport} to send requests with
+     * @param cache             the {@link ResponseCache} to store responses in
+     * @param principal         the principal the requests are made for.  Stored responses are only returned to
+     *                          transports with an equal principal.
+     * @param messageConverters the message converters to read responses with
+     */
+    public CachingTransport(Transport delegate, ResponseCache cache, Object principal,
+                            List<HttpMessageConverter<?>> messageConverters) {
+        this.cache = cache;
+        this.delegate = delegate;
+        this.principal = principal;
+        this.reader = new BufferedResponseReader(messageConverters);
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        if (requestEntity.getMethod() != GET) {
+            return invalidating(requestEntity, this.delegate.exchange(requestEntity, responseType));
+        }
+
+        URI uri = requestEntity.getUrl();
+        List<Object> key = Arrays.asList(this.principal, uri, requestEntity.getHeaders());
+        ResponseCache.Entry entry = this.cache.get(key);
+
+        if (entry != null && this.cache.isFresh(entry)) {
+            this.cache.onHit();
+
+            SettableListenableFuture<ResponseEntity<T>> future = new SettableListenableFuture<>();
+            try {
+                future.set(this.reader.read(entry.status, entry.headers, entry.body, responseType));
+            } catch (RestClientException e) {
+                future.setException(e);
+            }
+            return future;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(requestEntity.getHeaders());
+        if (!headers.containsKey(HttpHeaders.ACCEPT)) {
+            headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        }
+
+        ResponseCache.Entry stale = entry != null && (entry.getETag() != null || entry.getLastModified() != null) ?
+                entry : null;
+        if (stale != null) {
+            if (stale.getETag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, stale.getETag());
+            }
+            if (stale.getLastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, stale.getLastModified());
+            }
+        }
+
+        CachedFuture<T> future = new CachedFuture<>(key, uri, stale, responseType);
+        future.send(new RequestEntity<Void>(headers, GET, uri));
+        return future;
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        return invalidating(requestEntity, this.delegate.execute(requestEntity, responseExtractor));
+    }
+
+    /**
+     * Returns the {@link Transport} requests are sent with
+     *
+     * @return the {@link Transport} requests are sent with
+     */
+    public Transport getDelegate() {
+        return this.delegate;
+    }
+
+    private static boolean isError(Object result) {
+        return result instanceof ResponseEntity && (((ResponseEntity<?>) result).getStatusCode().is4xxClientError() ||
+                ((ResponseEntity<?>) result).getStatusCode().is5xxServerError());
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        List<String> cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl == null) {
+            return true;
+        }
+
+        for (String value : cacheControl) {
+            for (String directive : value.split(",")) {
+                if ("no-store".equalsIgnoreCase(directive.trim())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void evict(URI uri) {
+        this.cache.removeIf(key -> this.principal.equals(key.get(0)) && uri.equals(key.get(1)));
+    }
+
+    private <T> ListenableFuture<T> invalidating(RequestEntity<?> requestEntity, ListenableFuture<T> future) {
+        if (SAFE_METHODS.contains(requestEntity.getMethod())) {
+            return future;
+        }
+
+        InvalidatingFuture<T> invalidating = new InvalidatingFuture<>(requestEntity.getUrl());
+        if (invalidating.forward(future)) {
+            future.addCallback(invalidating);
+        }
+        return invalidating;
+    }
+
+    private final class CachedFuture<T> extends SettableListenableFuture<ResponseEntity<T>>
+            implements ListenableFutureCallback<ResponseEntity<byte[]>> {
+
+        private volatile ListenableFuture<ResponseEntity<byte[]>> current;
+
+        private final List<Object> key;
+
+        private final Class<T> responseType;
+
+        private final ResponseCache.Entry stale;
+
+        private final URI uri;
+
+        private CachedFuture(List<Object> key, URI uri, ResponseCache.Entry stale, Class<T> responseType) {
+            this.key = key;
+            this.responseType = responseType;
+            this.stale = stale;
+            this.uri = uri;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            ListenableFuture<ResponseEntity<byte[]>> current = this.current;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            setException(throwable);
+        }
+
+        @Override
+        public void onSuccess(ResponseEntity<byte[]> response) {
+            ResponseCache cache = CachingTransport.this.cache;
+
+            HttpStatus status;
+            HttpHeaders headers;
+            byte[] body;
+
+            if (this.stale != null && response.getStatusCode() == NOT_MODIFIED) {
+                ResponseCache.Entry revalidated = cache.revalidated(this.key, this.uri, this.stale,
+                        response.getHeaders());
+
+                status = revalidated.status;
+                headers = revalidated.headers;
+                body = revalidated.body;
+            } else {
+                cache.onMiss();
+
+                status = response.getStatusCode();
+                headers = response.getHeaders();
+                body = response.getBody() != null ? response.getBody() : new byte[0];
+
+                if (status == OK && isStorable(headers)) {
+                    cache.put(this.key, this.uri, status, headers, body);
+                } else {
+                    cache.remove(this.key);
+                }
+            }
+
+            try {
+                set(CachingTransport.this.reader.read(status, headers, body, this.responseType));
+            } catch (RestClientException e) {
+                setException(e);
+            }
+        }
+
+        private void send(RequestEntity<?> requestEntity) {
+            ListenableFuture<ResponseEntity<byte[]>> future;
+            try {
+                future = CachingTransport.this.delegate.exchange(requestEntity, byte[].class);
+            } catch (RuntimeException e) {
+                setException(e);
+                return;
+            }
+
+            this.current = future;
+            if (isCancelled()) {
+                future.cancel(true);
+                return;
+            }
+
+            future.addCallback(this);
+        }
+
+    }
+
+    private final class InvalidatingFuture<T> extends ForwardingFuture<T> {
+
+        private final URI uri;
+
+        private InvalidatingFuture(URI uri) {
+            this.uri = uri;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            setException(throwable);
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            if (!isError(result)) {
+                evict(this.uri);
+            }
+
+            set(result);
+        }
+
+    }
+
+}
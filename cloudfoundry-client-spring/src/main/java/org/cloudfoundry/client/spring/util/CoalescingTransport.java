@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.http.HttpMethod.GET;
+
+/**
+ * A {@link Transport} that coalesces identical {@code GET} exchanges.  While an exchange is in flight, further
+ * exchanges with the same url and headers share it rather than sending their own request, and its result is delivered
+ * to all of them.  Each caller receives its own future, and the shared exchange is only cancelled when all of its
+ * callers have cancelled.  The shared response is received as its raw body and read into each caller's response type
+ * with the client's message converters, so callers never share a response instance.  Streamed responses are read by
+ * the caller's {@link ResponseExtractor} and are never coalesced.
+ */
+public final class CoalescingTransport implements Transport {
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final Transport delegate;
+
+    private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+
+    private final BufferedResponseReader reader;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate          the {@link Transport} to send requests with
+     * @param messageConverters the message converters to read responses with
+     */
+    public CoalescingTransport(Transport delegate, List<HttpMessageConverter<?>> messageConverters) {
+        this.delegate = delegate;
+        this.reader = new BufferedResponseReader(messageConverters);
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        if (requestEntity.getMethod() != GET) {
+            return this.delegate.exchange(requestEntity, responseType);
+        }
+
+        List<Object> key = Arrays.asList(requestEntity.getUrl(), requestEntity.getHeaders());
+
+        for (; ; ) {
+            Flight flight = this.flights.get(key);
+
+            if (flight != null) {
+                ListenableFuture<ResponseEntity<T>> future = flight.join(responseType);
+                if (future != null) {
+                    this.coalesced.incrementAndGet();
+                    return future;
+                }
+
+                this.flights.remove(key, flight);
+                continue;
+            }
+
+            flight = new Flight(key);
+            if (this.flights.putIfAbsent(key, flight) == null) {
+                ListenableFuture<ResponseEntity<T>> future = flight.join(responseType);
+                flight.start(requestEntity);
+                return future;
+            }
+        }
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        return this.delegate.execute(requestEntity, responseExtractor);
+    }
+
+    /**
+     * Returns the number of exchanges that shared an exchange already in flight, rather than sending their own request
+     *
+     * @return the number of coalesced exchanges
+     */
+    public long getCoalescedExchanges() {
+        return this.coalesced.get();
+    }
+
+    /**
+     * Returns the {@link Transport} requests are sent with
+     *
+     * @return the {@link Transport} requests are sent with
+     */
+    public Transport getDelegate() {
+        return this.delegate;
+    }
+
+    private final class Flight implements ListenableFutureCallback<ResponseEntity<byte[]>> {
+
+        private boolean closed = false;
+
+        private ListenableFuture<ResponseEntity<byte[]>> future;
+
+        private final List<Object> key;
+
+        private final List<Waiter<?>> waiters = new ArrayList<>();
+
+        private Flight(List<Object> key) {
+            this.key = key;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            for (Waiter<?> waiter : close()) {
+                waiter.setException(throwable);
+            }
+        }
+
+        @Override
+        public void onSuccess(ResponseEntity<byte[]> response) {
+            for (Waiter<?> waiter : close()) {
+                waiter.deliver(response);
+            }
+        }
+
+        private synchronized List<Waiter<?>> close() {
+            this.closed = true;
+            CoalescingTransport.this.flights.remove(this.key, this);
+
+            List<Waiter<?>> waiters = new ArrayList<>(this.waiters);
+            this.waiters.clear();
+            return waiters;
+        }
+
+        private synchronized <T> ListenableFuture<ResponseEntity<T>> join(Class<T> responseType) {
+            if (this.closed) {
+                return null;
+            }
+
+            Waiter<T> waiter = new Waiter<>(responseType);
+            this.waiters.add(waiter);
+            return waiter;
+        }
+
+        private void leave(Waiter<?> waiter) {
+            ListenableFuture<ResponseEntity<byte[]>> future;
+
+            synchronized (this) {
+                if (!this.waiters.remove(waiter) || !this.waiters.isEmpty()) {
+                    return;
+                }
+
+                this.closed = true;
+                CoalescingTransport.this.flights.remove(this.key, this);
+                future = this.future;
+            }
+
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        private void start(RequestEntity<?> requestEntity) {
+            ListenableFuture<ResponseEntity<byte[]>> future;
+            try {
+                future = CoalescingTransport.this.delegate.exchange(requestEntity, byte[].class);
+            } catch (RuntimeException e) {
+                onFailure(e);
+                return;
+            }
+
+            boolean cancelled;
+            synchronized (this) {
+                this.future = future;
+                cancelled = this.closed && this.waiters.isEmpty();
+            }
+
+            if (cancelled) {
+                future.cancel(true);
+                return;
+            }
+
+            future.addCallback(this);
+        }
+
+        private final class Waiter<T> extends SettableListenableFuture<ResponseEntity<T>> {
+
+            private final Class<T> responseType;
+
+            private Waiter(Class<T> responseType) {
+                this.responseType = responseType;
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                leave(this);
+                return cancelled;
+            }
+
+            private void deliver(ResponseEntity<byte[]> response) {
+                try {
+                    set(CoalescingTransport.this.reader.read(response.getStatusCode(), response.getHeaders(),
+                            response.getBody(), this.responseType));
+                } catch (RestClientException e) {
+                    setException(e);
+                }
+            }
+
+        }
+
+    }
+
+}
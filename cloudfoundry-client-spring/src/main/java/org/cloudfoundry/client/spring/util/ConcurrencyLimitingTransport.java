@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * A {@link Transport} that limits the number of concurrent requests with an {@link AdaptiveConcurrencyLimiter}.  The
+ * latency of each exchange is reported to the limiter, as is any response that signals overload.  Streamed responses
+ * are not limited: they are read at the pace of their subscriber, and a slow subscriber holding a permit would starve
+ * other requests.
+ */
+public final class ConcurrencyLimitingTransport implements Transport {
+
+    private final Transport delegate;
+
+    private final Executor executor;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate the {@link Transport} to send requests with
+     * @param limiter  the {@link AdaptiveConcurrencyLimiter} to limit requests with.  It may be shared with other
+     *                 transports.
+     * @param executor the {@link Executor} to send queued requests on.  May run tasks inline if sending a request
+     *                 with {@code delegate} does not block.
+     */
+    public ConcurrencyLimitingTransport(Transport delegate, AdaptiveConcurrencyLimiter limiter, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        return send(() -> this.delegate.exchange(requestEntity, responseType));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        return this.delegate.execute(requestEntity, responseExtractor);
+    }
+
+    /**
+     * Returns the {@link Transport} requests are sent with
+     *
+     * @return the {@link Transport} requests are sent with
+     */
+    public Transport getDelegate() {
+        return this.delegate;
+    }
+
+    private static boolean isOverload(Throwable throwable) {
+        if (!(throwable instanceof HttpStatusCodeException)) {
+            return false;
+        }
+
+        HttpStatusCodeException exception = (HttpStatusCodeException) throwable;
+        return exception.getStatusCode() == TOO_MANY_REQUESTS || exception.getStatusCode().is5xxServerError();
+    }
+
+    private <T> ListenableFuture<T> send(Supplier<ListenableFuture<T>> request) {
+        LimitedFuture<T> future = new LimitedFuture<>(request);
+        this.limiter.acquire(future::send, this.executor);
+        return future;
+    }
+
+    private final class LimitedFuture<T> extends ForwardingFuture<T> {
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private final Supplier<ListenableFuture<T>> request;
+
+        private volatile boolean sent;
+
+        private volatile long started;
+
+        private LimitedFuture(Supplier<ListenableFuture<T>> request) {
+            this.request = request;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if (this.sent) {
+                release(-1, false);
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            release(System.nanoTime() - this.started, isOverload(throwable));
+            setException(throwable);
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            release(System.nanoTime() - this.started, false);
+            set(result);
+        }
+
+        private void release(long latency, boolean overloaded) {
+            if (this.released.compareAndSet(false, true)) {
+                ConcurrencyLimitingTransport.this.limiter.release(latency, overloaded);
+            }
+        }
+
+        private void send() {
+            if (isDone()) {
+                release(-1, false);
+                return;
+            }
+
+            this.started = System.nanoTime();
+
+            ListenableFuture<T> future;
+            try {
+                future = this.request.get();
+            } catch (RuntimeException e) {
+                release(-1, false);
+                setException(e);
+                return;
+            }
+
+            this.sent = true;
+            if (!forward(future)) {
+                release(-1, false);
+                return;
+            }
+
+            future.addCallback(this);
+        }
+
+    }
+
+}
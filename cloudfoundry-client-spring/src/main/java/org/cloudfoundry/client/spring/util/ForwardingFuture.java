@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A future that completes with the result of a series of other futures, such as a scheduled task followed by the
+ * request it sends.  Cancelling it cancels the future it currently forwards to.
+ *
+ * @param <T> the type of the result
+ */
+abstract class ForwardingFuture<T> extends SettableListenableFuture<T> implements ListenableFutureCallback<T> {
+
+    private final AtomicReference<Future<?>> current = new AtomicReference<>();
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+        Future<?> current = this.current.getAndSet(null);
+        if (current != null) {
+            current.cancel(mayInterruptIfRunning);
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Forwards to a future in place of the current one
+     *
+     * @param future the future to forward to
+     * @return whether this future forwards to {@code future}.  If this future has been cancelled, {@code future} is
+     * cancelled instead.
+     */
+    final boolean forward(Future<?> future) {
+        return forward(this.current.get(), future);
+    }
+
+    /**
+     * Schedules a task and forwards to it in place of the current future.  If the task runs first and forwards to
+     * another future, this future continues to forward to that one.
+     *
+     * @param scheduler the scheduler to run the task with
+     * @param task      the task
+     * @param delay     the time, in nanoseconds, to wait before running the task
+     */
+    final void schedule(ScheduledExecutorService scheduler, Runnable task, long delay) {
+        Future<?> expected = this.current.get();
+        forward(expected, scheduler.schedule(task, delay, NANOSECONDS));
+    }
+
+    private boolean forward(Future<?> expected, Future<?> future) {
+        if (!this.current.compareAndSet(expected, future)) {
+            if (isCancelled()) {
+                future.cancel(true);
+            }
+            return false;
+        }
+
+        if (isCancelled() && this.current.compareAndSet(future, null)) {
+            future.cancel(true);
+            return false;
+        }
+
+        return true;
+    }
+
+}
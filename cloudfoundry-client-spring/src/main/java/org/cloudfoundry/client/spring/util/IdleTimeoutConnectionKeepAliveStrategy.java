@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A {@link ConnectionKeepAliveStrategy} that keeps idle pooled connections alive for at most a configured timeout.  If
+ * the server advertises a shorter {@code Keep-Alive} timeout, the server's timeout is used instead.
+ */
+public final class IdleTimeoutConnectionKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+    private final long idleTimeout;
+
+    /**
+     * Creates an instance
+     *
+     * @param idleTimeout the maximum time, in milliseconds, to keep an idle connection alive
+     */
+    public IdleTimeoutConnectionKeepAliveStrategy(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, this.idleTimeout) : this.idleTimeout;
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Publisher} that emits the result of a {@link ListenableFuture}.  A new future is obtained for each
+ * subscriber when it first requests an item, and the result is emitted by whichever thread completes the future.
+ * {@code null} results complete the subscriber without emitting an item.  Cancelling the subscription cancels the
+ * future.
+ *
+ * @param <T> the type of the result
+ */
+public final class ListenableFuturePublisher<T> implements Publisher<T> {
+
+    private final Function<Throwable, Throwable> exceptionTranslator;
+
+    private final Supplier<ListenableFuture<T>> futureSupplier;
+
+    /**
+     * Creates an instance
+     *
+     * @param futureSupplier      the supplier of the future to emit the result of
+     * @param exceptionTranslator the translator applied to failures before they are signalled
+     */
+    public ListenableFuturePublisher(Supplier<ListenableFuture<T>> futureSupplier,
+                                     Function<Throwable, Throwable> exceptionTranslator) {
+        this.exceptionTranslator = exceptionTranslator;
+        this.futureSupplier = futureSupplier;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new FutureSubscription<>(subscriber, this.futureSupplier, this.exceptionTranslator));
+    }
+
+    private static final class FutureSubscription<T> implements ListenableFutureCallback<T>, Subscription {
+
+        private volatile boolean cancelled = false;
+
+        private final Function<Throwable, Throwable> exceptionTranslator;
+
+        private final AtomicReference<ListenableFuture<T>> future = new AtomicReference<>();
+
+        private final Supplier<ListenableFuture<T>> futureSupplier;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final Subscriber<? super T> subscriber;
+
+        private FutureSubscription(Subscriber<? super T> subscriber, Supplier<ListenableFuture<T>> futureSupplier,
+                                   Function<Throwable, Throwable> exceptionTranslator) {
+            this.exceptionTranslator = exceptionTranslator;
+            this.futureSupplier = futureSupplier;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            cancelFuture();
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            this.subscriber.onError(this.exceptionTranslator.apply(throwable));
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+
+            if (result != null) {
+                this.subscriber.onNext(result);
+            }
+
+            this.subscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onFailure(new IllegalArgumentException("Request amount must be positive, but was " + n));
+                cancel();
+                return;
+            }
+
+            if (this.cancelled || !this.started.compareAndSet(false, true)) {
+                return;
+            }
+
+            ListenableFuture<T> future;
+            try {
+                future = this.futureSupplier.get();
+            } catch (RuntimeException e) {
+                onFailure(e);
+                return;
+            }
+
+            this.future.set(future);
+            if (this.cancelled) {
+                cancelFuture();
+                return;
+            }
+
+            future.addCallback(this);
+        }
+
+        private void cancelFuture() {
+            ListenableFuture<T> future = this.future.getAndSet(null);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Publisher} that merges several ordered publishers into a single ordered publisher.  An item is emitted once
+ * every source that has not completed has offered its next item, choosing the least of them with a heap so that each
+ * item costs {@code O(log k)} for {@code k} sources.  Items that compare equal are emitted in the order of their
+ * sources.  At most {@code prefetch} items are requested ahead from each source, and the sources are subscribed to for
+ * each subscriber when it first requests an item.  The first error of any source cancels the others.
+ *
+ * @param <T> the type of the items
+ */
+public final class MergingPublisher<T> implements Publisher<T> {
+
+    private final Comparator<? super T> comparator;
+
+    private final int prefetch;
+
+    private final List<? extends Publisher<? extends T>> sources;
+
+    /**
+     * Creates an instance
+     *
+     * @param sources    the publishers to merge, each of which must emit its items in order
+     * @param comparator the order of the items
+     * @param prefetch   the maximum number of items to request ahead from each source
+     */
+    public MergingPublisher(List<? extends Publisher<? extends T>> sources, Comparator<? super T> comparator,
+                            int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Prefetch must be positive, but was " + prefetch);
+        }
+
+        this.comparator = comparator;
+        this.prefetch = prefetch;
+        this.sources = sources;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new MergingSubscription<>(subscriber, this));
+    }
+
+    private static final class MergingSubscription<T> implements Subscription {
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private final List<SourceSubscriber<T>> inners;
+
+        private final MergingPublisher<T> publisher;
+
+        private final PriorityQueue<SourceSubscriber<T>> ready;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final Subscriber<? super T> subscriber;
+
+        private final List<SourceSubscriber<T>> waiting;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private MergingSubscription(Subscriber<? super T> subscriber, MergingPublisher<T> publisher) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+
+            this.inners = new ArrayList<>(publisher.sources.size());
+            for (int i = 0; i < publisher.sources.size(); i++) {
+                this.inners.add(new SourceSubscriber<>(this, i));
+            }
+
+            this.ready = new PriorityQueue<>(Math.max(1, this.inners.size()), (a, b) -> {
+                int result = publisher.comparator.compare(a.head, b.head);
+                return result != 0 ? result : Integer.compare(a.index, b.index);
+            });
+            this.waiting = new ArrayList<>(this.inners);
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.inners.forEach(SourceSubscriber::cancel);
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.started.set(true);
+                this.inners.forEach(SourceSubscriber::cancel);
+                onError(new IllegalArgumentException("Request amount must be positive, but was " + n));
+                return;
+            }
+
+            this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+
+            if (this.started.compareAndSet(false, true)) {
+                for (int i = 0; i < this.inners.size(); i++) {
+                    this.publisher.sources.get(i).subscribe(this.inners.get(i));
+                }
+            }
+
+            drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                long requested = this.demand.get();
+                long emitted = 0;
+
+                for (; ; ) {
+                    if (this.cancelled) {
+                        clear();
+                        return;
+                    }
+
+                    Throwable error = this.error.get();
+                    if (error != null) {
+                        this.cancelled = true;
+                        this.inners.forEach(SourceSubscriber::cancel);
+                        clear();
+                        this.subscriber.onError(error);
+                        return;
+                    }
+
+                    if (!fill()) {
+                        break;
+                    }
+
+                    if (this.ready.isEmpty()) {
+                        this.cancelled = true;
+                        this.subscriber.onComplete();
+                        return;
+                    }
+
+                    if (emitted == requested) {
+                        break;
+                    }
+
+                    SourceSubscriber<T> inner = this.ready.poll();
+                    T item = inner.head;
+                    inner.head = null;
+                    inner.queue.poll();
+                    this.waiting.add(inner);
+
+                    this.subscriber.onNext(item);
+                    emitted++;
+                    inner.consumed();
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.demand.addAndGet(-emitted);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void clear() {
+            this.ready.clear();
+            this.waiting.clear();
+            this.inners.forEach(inner -> inner.queue.clear());
+        }
+
+        private boolean fill() {
+            Iterator<SourceSubscriber<T>> iterator = this.waiting.iterator();
+            while (iterator.hasNext()) {
+                SourceSubscriber<T> inner = iterator.next();
+                boolean done = inner.done;
+                T head = inner.queue.peek();
+
+                if (head != null) {
+                    inner.head = head;
+                    this.ready.offer(inner);
+                    iterator.remove();
+                } else if (done) {
+                    iterator.remove();
+                }
+            }
+
+            return this.waiting.isEmpty();
+        }
+
+        private void onError(Throwable throwable) {
+            this.error.compareAndSet(null, throwable);
+            drain();
+        }
+
+    }
+
+    private static final class SourceSubscriber<T> implements Subscriber<T> {
+
+        private int consumed;
+
+        private volatile boolean done = false;
+
+        private T head;
+
+        private final int index;
+
+        private final MergingSubscription<T> parent;
+
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        private SourceSubscriber(MergingSubscription<T> parent, int index) {
+            this.index = index;
+            this.parent = parent;
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            this.parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.done = true;
+            this.parent.onError(throwable);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done) {
+                return;
+            }
+
+            this.queue.offer(item);
+            this.parent.drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (!this.subscription.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+
+            if (this.parent.cancelled) {
+                cancel();
+                return;
+            }
+
+            subscription.request(this.parent.publisher.prefetch);
+        }
+
+        private void cancel() {
+            Subscription subscription = this.subscription.getAndSet(CancelledSubscription.INSTANCE);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        private void consumed() {
+            int limit = Math.max(1, this.parent.publisher.prefetch / 2);
+
+            if (++this.consumed == limit) {
+                this.consumed = 0;
+
+                Subscription subscription = this.subscription.get();
+                if (subscription != null) {
+                    subscription.request(limit);
+                }
+            }
+        }
+
+    }
+
+    private enum CancelledSubscription implements Subscription {
+
+        INSTANCE;
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void request(long n) {
+        }
+
+    }
+
+}
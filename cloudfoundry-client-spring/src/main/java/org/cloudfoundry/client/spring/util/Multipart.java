@@ -20,26 +20,36 @@ import reactor.Publishers;
 import reactor.rx.Stream;
 import reactor.rx.Streams;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.Arrays;
 
+/**
+ * Utilities for reading {@code multipart} bodies
+ */
 public final class Multipart {
 
     private static final Charset CHARSET = Charset.forName("UTF-8");
 
-    private static final String CRLF = "\r\n";
-
-    private static final String DASHES = "--";
+    private static final int INITIAL_CAPACITY = 8 * 1024;
 
-    public static Stream<byte[]> from(InputStream inputStream, String boundary) {
-        return Streams.wrap(Publishers.create(subscriber -> {
-            byte[] part = new byte[0];
+    private Multipart() {
+    }
 
+    /**
+     * Splits a {@code multipart} body into the content of its parts.  The body is read into a single buffer that is
+     * scanned for boundaries, and each part is emitted as a slice of that buffer.  A slice is only valid until the
+     * next part is requested; consumers that retain a part must copy it.  Part headers and empty parts are discarded.
+     *
+     * @param inputStream the body to read
+     * @param boundary    the boundary separating the parts
+     * @return a {@link Stream} of the parts of the body
+     */
+    public static Stream<ByteBuffer> from(InputStream inputStream, String boundary) {
+        return Streams.wrap(Publishers.<ByteBuffer, PartReader>create(subscriber -> {
             try {
-                part = getPart(inputStream, boundary);
+                ByteBuffer part = subscriber.context().next();
 
                 if (part == null) {
                     subscriber.onComplete();
@@ -49,93 +59,181 @@ public final class Multipart {
             } catch (IOException e) {
                 subscriber.onError(e);
             }
-        }, subscriber -> {
-            try {
-                primeStream(inputStream, boundary);
-            } catch (IOException e) {
-                subscriber.onError(e);
-            }
-
-            return null;
-        }));
+        }, subscriber -> new PartReader(inputStream, boundary)));
     }
 
-    private static void discardHeader(InputStream in) throws IOException {
-        readLine(in);
-    }
+    /**
+     * Reads parts using a Boyer-Moore-Horspool search for the {@code CRLF--boundary} delimiter.  A {@code CRLF} is
+     * placed in front of the body so that a delimiter at the very start of the body is found by the same search.
+     */
+    private static final class PartReader {
 
-    private static void drain(InputStream in) throws IOException {
-        in.skip(in.available());
-    }
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+        private boolean closed = false;
+
+        private final byte[] delimiter;
+
+        private boolean endOfStream = false;
 
-    private static byte[] getPart(InputStream in, String boundary) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final InputStream inputStream;
 
-        discardHeader(in);
+        private final int[] shifts = new int[256];
 
-        byte[] line;
-        while (!isBoundary(boundary, (line = readLine(in)))) {
-            out.write(line);
+        private boolean started = false;
+
+        private PartReader(InputStream inputStream, String boundary) {
+            this.delimiter = ("\r\n--" + boundary).getBytes(CHARSET);
+            this.inputStream = inputStream;
+
+            int last = this.delimiter.length - 1;
+            for (int i = 0; i < this.shifts.length; i++) {
+                this.shifts[i] = this.delimiter.length;
+            }
+            for (int i = 0; i < last; i++) {
+                this.shifts[this.delimiter[i] & 0xFF] = last - i;
+            }
+
+            this.buffer.put((byte) '\r').put((byte) '\n').flip();
         }
 
-        if (isEomBoundary(boundary, line)) {
-            drain(in);
+        private ByteBuffer next() throws IOException {
+            while (!this.closed) {
+                if (!this.started) {
+                    this.started = true;
+
+                    int preamble = indexOfDelimiter();
+                    if (preamble < 0) {
+                        this.closed = true;
+                        return null;
+                    }
+                    this.buffer.position(this.buffer.position() + preamble);
+                }
+
+                if (!skipBoundary()) {
+                    this.closed = true;
+                    return null;
+                }
+
+                int length = indexOfDelimiter();
+                if (length < 0) {
+                    this.closed = true;
+                    length = this.buffer.remaining();
+                    if (length >= 2 && this.buffer.get(this.buffer.limit() - 2) == '\r'
+                            && this.buffer.get(this.buffer.limit() - 1) == '\n') {
+                        length -= 2;
+                    }
+                }
+
+                if (length > 0) {
+                    ByteBuffer part = this.buffer.slice();
+                    part.limit(length);
+                    this.buffer.position(this.buffer.position() + length);
+                    return part;
+                }
+            }
+
+            return null;
         }
 
-        byte[] part = trim(out.toByteArray());
-        return part.length > 0 ? part : null;
-    }
+        private boolean fill() throws IOException {
+            if (this.endOfStream) {
+                return false;
+            }
 
-    private static boolean isBoundary(String boundary, byte[] bytes) {
-        if (bytes.length == 0) {
-            return true;
+            this.buffer.compact();
+            if (!this.buffer.hasRemaining()) {
+                this.buffer.flip();
+                this.buffer = ByteBuffer.allocate(this.buffer.capacity() * 2).put(this.buffer);
+            }
+
+            int read = this.inputStream.read(this.buffer.array(), this.buffer.position(), this.buffer.remaining());
+            if (read < 0) {
+                this.endOfStream = true;
+            } else {
+                this.buffer.position(this.buffer.position() + read);
+            }
+
+            this.buffer.flip();
+            return read >= 0;
         }
 
-        String line = new String(bytes, CHARSET);
-        return line.equals(DASHES + boundary + CRLF) || isEomBoundary(boundary, line);
-    }
+        private int indexOfDelimiter() throws IOException {
+            int last = this.delimiter.length - 1;
+            int from = 0;
+
+            do {
+                byte[] array = this.buffer.array();
+                int i = this.buffer.position() + from;
+                while (i + last < this.buffer.limit()) {
+                    int j = last;
+                    while (array[i + j] == this.delimiter[j]) {
+                        if (j == 0) {
+                            return i - this.buffer.position();
+                        }
+                        j--;
+                    }
+                    i += this.shifts[array[i + last] & 0xFF];
+                }
 
-    private static boolean isEomBoundary(String boundary, byte[] bytes) {
-        if (bytes.length == 0) {
-            return true;
+                from = i - this.buffer.position();
+            } while (fill());
+
+            return -1;
         }
 
-        String line = new String(bytes, CHARSET);
-        return isEomBoundary(boundary, line);
-    }
+        private int indexOfLineEnd() throws IOException {
+            int from = 0;
 
-    private static boolean isEomBoundary(String boundary, String line) {
-        return line.startsWith(DASHES + boundary + DASHES);
-    }
+            do {
+                byte[] array = this.buffer.array();
+                for (int i = this.buffer.position() + from; i + 1 < this.buffer.limit(); i++) {
+                    if (array[i] == '\r' && array[i + 1] == '\n') {
+                        return i - this.buffer.position();
+                    }
+                }
+
+                from = Math.max(0, this.buffer.remaining() - 1);
+            } while (fill());
 
-    private static void primeStream(InputStream in, String boundary) throws IOException {
-        byte[] line;
-        while (!isBoundary(boundary, (line = readLine(in)))) {
-            // discard content
+            return -1;
         }
 
-        if (isEomBoundary(boundary, line)) {
-            drain(in);
+        private boolean require(int length) throws IOException {
+            while (this.buffer.remaining() < length) {
+                if (!fill()) {
+                    return false;
+                }
+            }
+
+            return true;
         }
-    }
 
-    private static byte[] readLine(InputStream in) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private boolean skipBoundary() throws IOException {
+            if (!require(this.delimiter.length + 2)) {
+                return false;
+            }
+
+            int suffix = this.buffer.position() + this.delimiter.length;
+            if (this.buffer.get(suffix) == '-' && this.buffer.get(suffix + 1) == '-') {
+                return false;
+            }
+            this.buffer.position(suffix);
 
-        int value;
-        while ((value = in.read()) != -1) {
-            out.write(value);
+            boolean boundaryLine = true;
+            int length;
+            while ((length = indexOfLineEnd()) >= 0) {
+                this.buffer.position(this.buffer.position() + length + 2);
 
-            if (value == '\n') {
-                break;
+                if (length == 0 && !boundaryLine) {
+                    return true;
+                }
+                boundaryLine = false;
             }
-        }
 
-        return out.toByteArray();
-    }
+            return false;
+        }
 
-    private static byte[] trim(byte[] bytes) {
-        return bytes.length < 2 ? bytes : Arrays.copyOf(bytes, bytes.length - 2);
     }
 
 }
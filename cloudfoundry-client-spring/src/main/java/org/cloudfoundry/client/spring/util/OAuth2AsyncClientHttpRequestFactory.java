@@ -0,0 +1,214 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AsyncClientHttpRequest;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.security.oauth2.client.OAuth2RestOperations;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+import static org.springframework.security.oauth2.common.OAuth2AccessToken.BEARER_TYPE;
+
+/**
+ * An {@link AsyncClientHttpRequestFactory} that adds the OAuth2 access token of an {@link OAuth2RestOperations} to
+ * each request.  A request is sent at once if an unexpired token is held.  Otherwise the token is obtained, or
+ * refreshed, on an {@link Executor}, so that neither the thread sending the request nor an I/O thread waits on the
+ * authorization server.  As with {@link org.springframework.security.oauth2.client.OAuth2RestTemplate}, a request that
+ * is rejected with a {@code 401} for an {@code invalid_token} is retried once with a new token.  Request bodies are
+ * buffered so that they can be sent again.
+ */
+public final class OAuth2AsyncClientHttpRequestFactory implements AsyncClientHttpRequestFactory {
+
+    private static final String INVALID_TOKEN = "invalid_token";
+
+    private final AsyncClientHttpRequestFactory delegate;
+
+    private final Executor executor;
+
+    private final OAuth2RestOperations restOperations;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate       the {@link AsyncClientHttpRequestFactory} to create requests with
+     * @param restOperations the {@link OAuth2RestOperations} to obtain access tokens from
+     * @param executor       the {@link Executor} to obtain access tokens on
+     */
+    public OAuth2AsyncClientHttpRequestFactory(AsyncClientHttpRequestFactory delegate,
+                                               OAuth2RestOperations restOperations, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.restOperations = restOperations;
+    }
+
+    @Override
+    public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) {
+        return new AuthorizedRequest(uri, httpMethod);
+    }
+
+    private static boolean isInvalidToken(ClientHttpResponse response) {
+        try {
+            if (response.getRawStatusCode() != UNAUTHORIZED.value()) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        List<String> challenges = response.getHeaders().get(WWW_AUTHENTICATE);
+        return challenges != null && challenges.stream().anyMatch(challenge -> challenge.contains(INVALID_TOKEN));
+    }
+
+    private final class AuthorizedRequest implements AsyncClientHttpRequest {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final HttpMethod method;
+
+        private final URI uri;
+
+        private AuthorizedRequest(URI uri, HttpMethod method) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        @Override
+        public ListenableFuture<ClientHttpResponse> executeAsync() {
+            AuthorizedFuture future = new AuthorizedFuture(this.body.toByteArray());
+            future.send();
+            return future;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this.body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public URI getURI() {
+            return this.uri;
+        }
+
+        private final class AuthorizedFuture extends ForwardingFuture<ClientHttpResponse> {
+
+            private final byte[] body;
+
+            private volatile boolean retried = false;
+
+            private AuthorizedFuture(byte[] body) {
+                this.body = body;
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                    throwable = throwable.getCause();
+                }
+
+                setException(throwable);
+            }
+
+            @Override
+            public void onSuccess(ClientHttpResponse response) {
+                if (!this.retried && isInvalidToken(response)) {
+                    response.close();
+
+                    this.retried = true;
+                    OAuth2AsyncClientHttpRequestFactory.this.restOperations.getOAuth2ClientContext()
+                            .setAccessToken(null);
+                    send();
+                    return;
+                }
+
+                set(response);
+            }
+
+            private void send() {
+                OAuth2RestOperations restOperations = OAuth2AsyncClientHttpRequestFactory.this.restOperations;
+
+                OAuth2AccessToken accessToken = restOperations.getOAuth2ClientContext().getAccessToken();
+                if (accessToken != null && !accessToken.isExpired()) {
+                    send(accessToken);
+                    return;
+                }
+
+                OAuth2AsyncClientHttpRequestFactory.this.executor.execute(() -> {
+                    if (isDone()) {
+                        return;
+                    }
+
+                    try {
+                        send(restOperations.getAccessToken());
+                    } catch (RuntimeException e) {
+                        setException(e);
+                    }
+                });
+            }
+
+            private void send(OAuth2AccessToken accessToken) {
+                ListenableFuture<ClientHttpResponse> future;
+                try {
+                    AsyncClientHttpRequest request = OAuth2AsyncClientHttpRequestFactory.this.delegate
+                            .createAsyncRequest(AuthorizedRequest.this.uri, AuthorizedRequest.this.method);
+                    request.getHeaders().putAll(AuthorizedRequest.this.headers);
+                    request.getHeaders().set(AUTHORIZATION, String.format("%s %s", BEARER_TYPE,
+                            accessToken.getValue()));
+                    request.getBody().write(this.body);
+
+                    future = request.executeAsync();
+                } catch (IOException | RuntimeException e) {
+                    setException(e);
+                    return;
+                }
+
+                if (forward(future)) {
+                    future.addCallback(this);
+                }
+            }
+
+        }
+
+    }
+
+}
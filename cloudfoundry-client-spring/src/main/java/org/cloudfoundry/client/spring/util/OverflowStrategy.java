@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+/**
+ * The strategies a {@link BufferingPublisher} can apply when a source pushes an item into a full buffer
+ */
+public enum OverflowStrategy {
+
+    /**
+     * Blocks the source until a buffered item has been emitted.  For a network source this pauses reading, pushing
+     * back on the sender.  Sources must not push on a thread that the subscriber relies on to request more items.
+     */
+    BLOCK,
+
+    /**
+     * Discards the oldest buffered item to make room for the new item
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discards the new item
+     */
+    DROP_NEWEST,
+
+    /**
+     * Holds the latest item pushed while the buffer is full, discarding the item it replaces, and emits it once the
+     * buffer has been drained
+     */
+    SAMPLE
+
+}
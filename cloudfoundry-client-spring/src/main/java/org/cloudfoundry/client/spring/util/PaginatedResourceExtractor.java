@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ResponseExtractor} that reads a paginated response incrementally.  Each element of the {@code resources}
+ * array is passed to a consumer as soon as it has been read, so the resources of a page are never held in memory
+ * together.  The remaining fields of the response, such as {@code total_results} and {@code next_url}, are passed to a
+ * second consumer as a response without resources as soon as the {@code resources} field is reached.  If further
+ * fields follow the resources, the complete response without resources is passed to it again once the whole response
+ * has been read.
+ *
+ * @param <U> the type of the response
+ * @param <R> the type of the resources
+ */
+public final class PaginatedResourceExtractor<U, R> implements ResponseExtractor<Void> {
+
+    private static final String RESOURCES = "resources";
+
+    private final ObjectMapper objectMapper;
+
+    private final Consumer<U> pageConsumer;
+
+    private final Consumer<R> resourceConsumer;
+
+    private final Class<R> resourceType;
+
+    private final Class<U> responseType;
+
+    /**
+     * Creates an instance
+     *
+     * @param objectMapper     the {@link ObjectMapper} to read the response with
+     * @param responseType     the type of the response
+     * @param resourceType     the type of the resources
+     * @param resourceConsumer the consumer of each resource
+     * @param pageConsumer     the consumer of the response, without resources
+     */
+    public PaginatedResourceExtractor(ObjectMapper objectMapper, Class<U> responseType, Class<R> resourceType,
+                                      Consumer<R> resourceConsumer, Consumer<U> pageConsumer) {
+        this.objectMapper = objectMapper;
+        this.pageConsumer = pageConsumer;
+        this.resourceConsumer = resourceConsumer;
+        this.resourceType = resourceType;
+        this.responseType = responseType;
+    }
+
+    @Override
+    public Void extractData(ClientHttpResponse response) throws IOException {
+        ObjectNode page = this.objectMapper.createObjectNode();
+        boolean reported = false;
+        boolean trailing = false;
+
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(response.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new HttpMessageNotReadableException("Paginated response is not a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if (!RESOURCES.equals(name)) {
+                    page.set(name, this.objectMapper.readTree(parser));
+                    trailing = reported;
+                    continue;
+                }
+
+                if (!reported) {
+                    this.pageConsumer.accept(this.objectMapper.treeToValue(page, this.responseType));
+                    reported = true;
+                }
+
+                if (token == JsonToken.START_ARRAY) {
+                    readResources(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (!reported || trailing) {
+            this.pageConsumer.accept(this.objectMapper.treeToValue(page, this.responseType));
+        }
+        return null;
+    }
+
+    private void readResources(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new HttpMessageNotReadableException("Paginated response ended within resources");
+            }
+
+            if (token != JsonToken.VALUE_NULL) {
+                this.resourceConsumer.accept(this.objectMapper.readValue(parser, this.resourceType));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Augments a {@link UriComponentsBuilder} with the values returned by the methods of an instance that are annotated
+ * with a given annotation.  The annotated methods of each class are discovered, and an encoder created for each of
+ * them, once, the first time an instance of that class is augmented.  Subsequent instances of the class are encoded
+ * without scanning or sorting methods or looking up annotations, and the methods are invoked through cached
+ * {@link MethodHandle}s rather than reflectively.
+ *
+ * @param <A> the type of the annotation
+ */
+public final class ParameterEncoder<A extends Annotation> {
+
+    private final Class<A> annotationType;
+
+    private final BiFunction<A, Function<Object, Object>, BiConsumer<UriComponentsBuilder, Object>> encoderFactory;
+
+    private final ClassValue<List<BiConsumer<UriComponentsBuilder, Object>>> encoders =
+            new ClassValue<List<BiConsumer<UriComponentsBuilder, Object>>>() {
+
+                @Override
+                protected List<BiConsumer<UriComponentsBuilder, Object>> computeValue(Class<?> type) {
+                    return createEncoders(type);
+                }
+
+            };
+
+    /**
+     * Creates an instance
+     *
+     * @param annotationType the type of the annotation
+     * @param encoderFactory creates an encoder for an annotated method, given its annotation and a function that
+     *                       invokes it on an instance
+     */
+    public ParameterEncoder(Class<A> annotationType,
+                            BiFunction<A, Function<Object, Object>, BiConsumer<UriComponentsBuilder, Object>>
+                                    encoderFactory) {
+        this.annotationType = annotationType;
+        this.encoderFactory = encoderFactory;
+    }
+
+    /**
+     * Augments a {@link UriComponentsBuilder} with the values returned by the annotated methods of an instance, in
+     * method name order
+     *
+     * @param builder  the builder to augment
+     * @param instance the instance to encode
+     */
+    public void encode(UriComponentsBuilder builder, Object instance) {
+        for (BiConsumer<UriComponentsBuilder, Object> encoder : this.encoders.get(instance.getClass())) {
+            encoder.accept(builder, instance);
+        }
+    }
+
+    private List<BiConsumer<UriComponentsBuilder, Object>> createEncoders(Class<?> type) {
+        List<BiConsumer<UriComponentsBuilder, Object>> encoders = new ArrayList<>();
+
+        Arrays.stream(ReflectionUtils.getAllDeclaredMethods(type))
+                .sorted(Comparator.comparing(Method::getName))
+                .forEach(method -> {
+                    A annotation = AnnotationUtils.getAnnotation(method, this.annotationType);
+                    if (annotation == null) {
+                        return;
+                    }
+
+                    encoders.add(this.encoderFactory.apply(annotation, accessor(method)));
+                });
+
+        return Collections.unmodifiableList(encoders);
+    }
+
+    private static Function<Object, Object> accessor(Method method) {
+        MethodHandle handle;
+        try {
+            ReflectionUtils.makeAccessible(method);
+            handle = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            ReflectionUtils.handleReflectionException(e);
+            throw new IllegalStateException(e);
+        }
+
+        return instance -> {
+            try {
+                return handle.invokeExact(instance);
+            } catch (Throwable throwable) {
+                ReflectionUtils.rethrowRuntimeException(throwable);
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+}
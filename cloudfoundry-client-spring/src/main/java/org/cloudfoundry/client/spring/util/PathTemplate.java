@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A precompiled path, relative to the root of a server, made up of literal segments and variable segments written as
+ * {@code {name}}.  The literal segments are encoded once when the template is compiled, so expanding a template only
+ * encodes the variable values and parses the resulting {@link URI}.
+ */
+public final class PathTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String[] literals;
+
+    private final int literalsLength;
+
+    private PathTemplate(String[] literals) {
+        this.literals = literals;
+
+        int literalsLength = 0;
+        for (String literal : literals) {
+            literalsLength += literal.length();
+        }
+        this.literalsLength = literalsLength;
+    }
+
+    /**
+     * Compiles a template from path segments
+     *
+     * @param segments the path segments.  Segments of the form {@code {name}} are variables.
+     * @return the compiled template
+     */
+    public static PathTemplate compile(String... segments) {
+        int variables = 0;
+        for (String segment : segments) {
+            if (isVariable(segment)) {
+                variables++;
+            }
+        }
+
+        String[] literals = new String[variables + 1];
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+
+        for (String segment : segments) {
+            literal.append('/');
+
+            if (isVariable(segment)) {
+                literals[index++] = literal.toString();
+                literal.setLength(0);
+            } else {
+                encodeSegment(segment, literal);
+            }
+        }
+
+        literals[index] = literal.toString();
+        return new PathTemplate(literals);
+    }
+
+    /**
+     * Expands the template against the root of a server
+     *
+     * @param root      the root of the server
+     * @param variables the values of the variables, in the order they appear in the template
+     * @return the expanded {@link URI}
+     * @throws IllegalArgumentException if the number of values does not match the number of variables
+     */
+    public URI expand(URI root, Object... variables) {
+        if (variables.length != this.literals.length - 1) {
+            throw new IllegalArgumentException(String.format("Expected %d variables, but was %d",
+                    this.literals.length - 1, variables.length));
+        }
+
+        String base = root.toString();
+        int baseLength = base.endsWith("/") ? base.length() - 1 : base.length();
+
+        StringBuilder uri = new StringBuilder(baseLength + this.literalsLength + (variables.length * 36));
+        uri.append(base, 0, baseLength);
+
+        for (int i = 0; i < variables.length; i++) {
+            uri.append(this.literals[i]);
+            encodeSegment(String.valueOf(variables[i]), uri);
+        }
+
+        uri.append(this.literals[variables.length]);
+        return URI.create(uri.toString());
+    }
+
+    private static void encodeSegment(String segment, StringBuilder builder) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!isAllowed(segment.charAt(i))) {
+                for (byte b : segment.substring(i).getBytes(StandardCharsets.UTF_8)) {
+                    if (isAllowed((char) b)) {
+                        builder.append((char) b);
+                    } else {
+                        builder.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+                    }
+                }
+                return;
+            }
+
+            builder.append(segment.charAt(i));
+        }
+    }
+
+    private static boolean isAllowed(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+
+        switch (c) {
+            case '-':
+            case '.':
+            case '_':
+            case '~':
+            case '!':
+            case '$':
+            case '&':
+            case '\'':
+            case '(':
+            case ')':
+            case '*':
+            case '+':
+            case ',':
+            case ';':
+            case '=':
+            case ':':
+            case '@':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+}
@@ -17,17 +17,22 @@
 package org.cloudfoundry.client.spring.util;
 
 import org.cloudfoundry.client.QueryParameter;
-import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.Arrays;
-
 /**
  * A builder for Cloud Foundry queries
  */
 public final class QueryBuilder {
 
+    private static final ParameterEncoder<QueryParameter> ENCODER = new ParameterEncoder<>(QueryParameter.class,
+            (queryParameter, getter) -> (builder, instance) -> {
+                Object value = getter.apply(instance);
+
+                if (value != null) {
+                    builder.queryParam(queryParameter.value(), value);
+                }
+            });
+
     private QueryBuilder() {
     }
 
@@ -38,21 +43,7 @@ public final class QueryBuilder {
      * @param instance the instance to inspect and invoke
      */
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Arrays.stream(ReflectionUtils.getAllDeclaredMethods(instance.getClass()))
-                .sorted((a, b) -> a.getName().compareTo(b.getName()))
-                .forEach(method -> {
-                    QueryParameter queryParameter = AnnotationUtils.getAnnotation(method, QueryParameter.class);
-                    if (queryParameter == null) {
-                        return;
-                    }
-
-                    ReflectionUtils.makeAccessible(method);
-                    Object value = ReflectionUtils.invokeMethod(method, instance);
-
-                    if (value != null) {
-                        builder.queryParam(queryParameter.value(), value);
-                    }
-                });
+        ENCODER.encode(builder, instance);
     }
 
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.HEAD;
+import static org.springframework.http.HttpMethod.OPTIONS;
+
+/**
+ * A token-bucket rate limiter for requests to a number of hosts.  Each host has a bucket for reads ({@code GET},
+ * {@code HEAD} and {@code OPTIONS} requests) and a bucket for writes (all other requests), each of which holds up to a
+ * burst of permits and is refilled at a steady rate.  Rather than blocking, a request reserves a permit and is told how
+ * long to wait before using it, so that waiting requests are spaced out at the rate of the bucket in the order they
+ * reserved.  A single instance can be shared by any number of clients to keep all of them under a quota.
+ */
+public final class RateLimiter {
+
+    private static final Set<HttpMethod> READ_METHODS = EnumSet.of(GET, HEAD, OPTIONS);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    private final int readBurst;
+
+    private final double readInterval;
+
+    private final int writeBurst;
+
+    private final double writeInterval;
+
+    /**
+     * Creates an instance
+     *
+     * @param readsPerSecond  the steady rate of reads permitted to each host
+     * @param readBurst       the maximum number of reads permitted to each host at once
+     * @param writesPerSecond the steady rate of writes permitted to each host
+     * @param writeBurst      the maximum number of writes permitted to each host at once
+     */
+    public RateLimiter(double readsPerSecond, int readBurst, double writesPerSecond, int writeBurst) {
+        this(readsPerSecond, readBurst, writesPerSecond, writeBurst, System::nanoTime);
+    }
+
+    RateLimiter(double readsPerSecond, int readBurst, double writesPerSecond, int writeBurst, LongSupplier clock) {
+        if (readsPerSecond <= 0 || writesPerSecond <= 0) {
+            throw new IllegalArgumentException(String.format("Rates must be positive, but were %s and %s",
+                    readsPerSecond, writesPerSecond));
+        }
+        if (readBurst <= 0 || writeBurst <= 0) {
+            throw new IllegalArgumentException(String.format("Bursts must be positive, but were %d and %d", readBurst,
+                    writeBurst));
+        }
+
+        this.clock = clock;
+        this.readBurst = readBurst;
+        this.readInterval = TimeUnit.SECONDS.toNanos(1) / readsPerSecond;
+        this.writeBurst = writeBurst;
+        this.writeInterval = TimeUnit.SECONDS.toNanos(1) / writesPerSecond;
+    }
+
+    /**
+     * Reserves a permit for a request
+     *
+     * @param host   the host the request is sent to
+     * @param method the method of the request
+     * @return the time, in nanoseconds, to wait before sending the request
+     */
+    public long reserve(String host, HttpMethod method) {
+        boolean read = READ_METHODS.contains(method);
+
+        return this.buckets
+                .computeIfAbsent((read ? "read:" : "write:") + host, key -> read ?
+                        new Bucket(this.readBurst, this.readInterval, this.clock.getAsLong()) :
+                        new Bucket(this.writeBurst, this.writeInterval, this.clock.getAsLong()))
+                .reserve(this.clock.getAsLong());
+    }
+
+    /**
+     * Returns a permit reserved for a request that was not sent, so that it can be reserved by another request
+     *
+     * @param host   the host the request was to be sent to
+     * @param method the method of the request
+     */
+    public void release(String host, HttpMethod method) {
+        Bucket bucket = this.buckets.get((READ_METHODS.contains(method) ? "read:" : "write:") + host);
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    private static final class Bucket {
+
+        private final int burst;
+
+        private final double interval;
+
+        private double permits;
+
+        private long updated;
+
+        private Bucket(int burst, double interval, long now) {
+            this.burst = burst;
+            this.interval = interval;
+            this.permits = burst;
+            this.updated = now;
+        }
+
+        private synchronized long reserve(long now) {
+            if (now > this.updated) {
+                this.permits = Math.min(this.burst, this.permits + (now - this.updated) / this.interval);
+                this.updated = now;
+            }
+
+            this.permits--;
+            return this.permits >= 0 ? 0 : (long) Math.ceil(-this.permits * this.interval);
+        }
+
+        private synchronized void release() {
+            this.permits = Math.min(this.burst, this.permits + 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@link Transport} that limits the rate of requests with a {@link RateLimiter}.  A request that must wait for a
+ * permit is handed by a scheduler to an executor once the permit is available, so no thread is held while it waits
+ * and the scheduler never sends a request itself.  Cancelling a request before it is sent returns its permit.
+ */
+public final class RateLimitingTransport implements Transport {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Transport delegate;
+
+    private final Executor executor;
+
+    private final RateLimiter rateLimiter;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate    the {@link Transport} to send requests with
+     * @param rateLimiter the {@link RateLimiter} to reserve permits from.  It may be shared with other transports.
+     * @param scheduler   the scheduler to wait for permits with
+     * @param executor    the {@link Executor} to send delayed requests on.  May run tasks inline if sending a request
+     *                    with {@code delegate} does not block.
+     */
+    public RateLimitingTransport(Transport delegate, RateLimiter rateLimiter, ScheduledExecutorService scheduler,
+                                 Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.rateLimiter = rateLimiter;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        return send(requestEntity, () -> this.delegate.exchange(requestEntity, responseType));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        return send(requestEntity, () -> this.delegate.execute(requestEntity, responseExtractor));
+    }
+
+    /**
+     * Returns the {@link Transport} requests are sent with
+     *
+     * @return the {@link Transport} requests are sent with
+     */
+    public Transport getDelegate() {
+        return this.delegate;
+    }
+
+    private <T> ListenableFuture<T> send(RequestEntity<?> requestEntity, Supplier<ListenableFuture<T>> request) {
+        long delay = this.rateLimiter.reserve(requestEntity.getUrl().getHost(), requestEntity.getMethod());
+        if (delay == 0) {
+            return request.get();
+        }
+
+        this.logger.debug("Delaying {} {} by {} ms", requestEntity.getMethod(), requestEntity.getUrl(),
+                NANOSECONDS.toMillis(delay));
+
+        DelayedFuture<T> future = new DelayedFuture<>(requestEntity, request);
+        future.schedule(this.scheduler, () -> this.executor.execute(future::send), delay);
+        return future;
+    }
+
+    private final class DelayedFuture<T> extends ForwardingFuture<T> {
+
+        private final Supplier<ListenableFuture<T>> request;
+
+        private final RequestEntity<?> requestEntity;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private DelayedFuture(RequestEntity<?> requestEntity, Supplier<ListenableFuture<T>> request) {
+            this.request = request;
+            this.requestEntity = requestEntity;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if (this.started.compareAndSet(false, true)) {
+                release();
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            setException(throwable);
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            set(result);
+        }
+
+        private void release() {
+            RateLimitingTransport.this.rateLimiter.release(this.requestEntity.getUrl().getHost(),
+                    this.requestEntity.getMethod());
+        }
+
+        private void send() {
+            if (!this.started.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (isDone()) {
+                release();
+                return;
+            }
+
+            ListenableFuture<T> future;
+            try {
+                future = this.request.get();
+            } catch (RuntimeException e) {
+                onFailure(e);
+                return;
+            }
+
+            if (forward(future)) {
+                future.addCallback(this);
+            }
+        }
+
+    }
+
+}
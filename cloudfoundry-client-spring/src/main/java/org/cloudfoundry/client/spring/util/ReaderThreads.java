@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The shared, bounded pool of daemon threads that read streamed responses.  A reader blocks while the subscriber to a
+ * stream has no outstanding demand, so reading never happens on a subscriber's thread.  Streams started while every
+ * reader is blocked wait for one to become free, so a subscriber must not wait on another stream before requesting
+ * more items of its own.
+ */
+final class ReaderThreads {
+
+    private static final int MAX_READERS = 32;
+
+    static final ExecutorService EXECUTOR = executor();
+
+    private ReaderThreads() {
+    }
+
+    private static ExecutorService executor() {
+        AtomicInteger count = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_READERS, MAX_READERS, 60, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "cloudfoundry-client-reader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, in-memory store of responses to {@code GET} requests, used by a {@link CachingTransport}.  The store holds
+ * up to a number of entries and a number of bytes of response bodies, evicting the least recently used entries when
+ * either is exceeded.  Each entry is fresh for a time-to-live chosen by the path of its request, after which it is
+ * revalidated with the server if the response carried an {@code ETag} or {@code Last-Modified} validator, and
+ * requested again if it did not.  A single instance can be shared by any number of clients, as a {@link
+ * CachingTransport} keys the responses it stores by the principal its requests are made for.
+ */
+public final class ResponseCache {
+
+    private static final List<String> REVALIDATED_HEADERS = Arrays.asList(HttpHeaders.CACHE_CONTROL, HttpHeaders.DATE,
+            HttpHeaders.ETAG, HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED);
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final LongSupplier clock;
+
+    private final long defaultTtl;
+
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final long maxBytes;
+
+    private final int maxEntries;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong revalidations = new AtomicLong();
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an instance
+     *
+     * @param maxEntries the maximum number of responses to store
+     * @param maxBytes   the maximum total size, in bytes, of the bodies of the stored responses
+     * @param defaultTtl the time a response is fresh for, unless its path has a time-to-live of its own
+     * @param unit       the unit of {@code defaultTtl}
+     */
+    public ResponseCache(int maxEntries, long maxBytes, long defaultTtl, TimeUnit unit) {
+        this(maxEntries, maxBytes, defaultTtl, unit, System::nanoTime);
+    }
+
+    ResponseCache(int maxEntries, long maxBytes, long defaultTtl, TimeUnit unit, LongSupplier clock) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException(String.format("Bounds must be positive, but were %d and %d",
+                    maxEntries, maxBytes));
+        }
+        if (defaultTtl < 0) {
+            throw new IllegalArgumentException(String.format("Time-to-live must not be negative, but was %d",
+                    defaultTtl));
+        }
+
+        this.clock = clock;
+        this.defaultTtl = unit.toNanos(defaultTtl);
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Configure the time-to-live of responses to requests for a path.  Paths are matched against rules in the order
+     * they were added, and the first match applies.  A time-to-live of zero revalidates every request.
+     *
+     * @param ttl      the time a response is fresh for
+     * @param unit     the unit of {@code ttl}
+     * @param segments the path segments to match.  Segments of the form {@code {name}} match any segment.
+     * @return {@code this}
+     */
+    public ResponseCache withTtl(long ttl, TimeUnit unit, String... segments) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException(String.format("Time-to-live must not be negative, but was %d", ttl));
+        }
+
+        this.rules.add(new Rule(segments, unit.toNanos(ttl)));
+        return this;
+    }
+
+    /**
+     * Returns the total size, in bytes, of the bodies of the stored responses
+     *
+     * @return the size of the stored responses
+     */
+    public long getBytes() {
+        return this.bytes.get();
+    }
+
+    /**
+     * Returns the number of stored responses
+     *
+     * @return the number of stored responses
+     */
+    public synchronized int getEntries() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of requests answered with a fresh stored response, without contacting the server
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of requests that had no usable stored response and were sent to the server
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the number of requests answered with a stored response after the server confirmed it was not modified
+     *
+     * @return the number of revalidations
+     */
+    public long getRevalidations() {
+        return this.revalidations.get();
+    }
+
+    synchronized Entry get(List<Object> key) {
+        return this.entries.get(key);
+    }
+
+    boolean isFresh(Entry entry) {
+        return this.clock.getAsLong() - entry.expires < 0;
+    }
+
+    void onHit() {
+        this.hits.incrementAndGet();
+    }
+
+    void onMiss() {
+        this.misses.incrementAndGet();
+    }
+
+    Entry put(List<Object> key, URI uri, HttpStatus status, HttpHeaders headers, byte[] body) {
+        Entry entry = new Entry(status, headers, body, this.clock.getAsLong() + ttl(uri));
+
+        if (body.length > this.maxBytes) {
+            remove(key);
+            return entry;
+        }
+
+        synchronized (this) {
+            Entry previous = this.entries.put(key, entry);
+            if (previous != null) {
+                this.bytes.addAndGet(-previous.body.length);
+            }
+            this.bytes.addAndGet(body.length);
+
+            Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.entries.size() > this.maxEntries || this.bytes.get() > this.maxBytes) {
+                this.bytes.addAndGet(-eldest.next().body.length);
+                eldest.remove();
+            }
+        }
+
+        return entry;
+    }
+
+    synchronized void remove(List<Object> key) {
+        Entry previous = this.entries.remove(key);
+        if (previous != null) {
+            this.bytes.addAndGet(-previous.body.length);
+        }
+    }
+
+    synchronized void removeIf(Predicate<List<Object>> predicate) {
+        Iterator<Map.Entry<List<Object>, Entry>> entries = this.entries.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<List<Object>, Entry> entry = entries.next();
+            if (predicate.test(entry.getKey())) {
+                this.bytes.addAndGet(-entry.getValue().body.length);
+                entries.remove();
+            }
+        }
+    }
+
+    Entry revalidated(List<Object> key, URI uri, Entry entry, HttpHeaders headers) {
+        this.revalidations.incrementAndGet();
+
+        HttpHeaders merged = new HttpHeaders();
+        merged.putAll(entry.headers);
+        for (String name : REVALIDATED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                merged.put(name, values);
+            }
+        }
+
+        return put(key, uri, entry.status, merged, entry.body);
+    }
+
+    private long ttl(URI uri) {
+        String path = uri.getRawPath();
+        String[] segments = path == null || path.isEmpty() ? new String[0] :
+                (path.startsWith("/") ? path.substring(1) : path).split("/");
+
+        for (Rule rule : this.rules) {
+            if (rule.matches(segments)) {
+                return rule.ttl;
+            }
+        }
+
+        return this.defaultTtl;
+    }
+
+    static final class Entry {
+
+        final byte[] body;
+
+        final long expires;
+
+        final HttpHeaders headers;
+
+        final HttpStatus status;
+
+        private Entry(HttpStatus status, HttpHeaders headers, byte[] body, long expires) {
+            this.body = body;
+            this.expires = expires;
+            this.headers = headers;
+            this.status = status;
+        }
+
+        String getETag() {
+            return this.headers.getFirst(HttpHeaders.ETAG);
+        }
+
+        String getLastModified() {
+            return this.headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        }
+
+    }
+
+    private static final class Rule {
+
+        private final String[] segments;
+
+        private final long ttl;
+
+        private Rule(String[] segments, long ttl) {
+            this.segments = segments;
+            this.ttl = ttl;
+        }
+
+        private boolean matches(String[] segments) {
+            if (segments.length != this.segments.length) {
+                return false;
+            }
+
+            for (int i = 0; i < segments.length; i++) {
+                String segment = this.segments[i];
+                boolean variable = segment.length() > 2 && segment.charAt(0) == '{' &&
+                        segment.charAt(segment.length() - 1) == '}';
+
+                if (!variable && !segment.equals(segments[i])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestOperations;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Transport} backed by a blocking {@link RestOperations}.  Each exchange is executed by an {@link Executor},
+ * which by default runs it on the calling thread.
+ */
+public final class RestOperationsTransport implements Transport {
+
+    private final Executor executor;
+
+    private final RestOperations restOperations;
+
+    /**
+     * Creates an instance that executes exchanges on the calling thread
+     *
+     * @param restOperations the {@link RestOperations} to use to communicate with the server
+     */
+    public RestOperationsTransport(RestOperations restOperations) {
+        this(restOperations, Runnable::run);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param restOperations the {@link RestOperations} to use to communicate with the server
+     * @param executor       the {@link Executor} to execute exchanges on.  A bounded executor limits the number of
+     *                       threads blocked waiting on the server.
+     */
+    public RestOperationsTransport(RestOperations restOperations, Executor executor) {
+        this.executor = executor;
+        this.restOperations = restOperations;
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        ListenableFutureTask<ResponseEntity<T>> task = new ListenableFutureTask<>(
+                () -> this.restOperations.exchange(requestEntity, responseType));
+
+        this.executor.execute(task);
+        return task;
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        ListenableFutureTask<T> task = new ListenableFutureTask<>(() -> this.restOperations.execute(
+                requestEntity.getUrl(), requestEntity.getMethod(),
+                request -> request.getHeaders().putAll(requestEntity.getHeaders()), responseExtractor));
+
+        this.executor.execute(task);
+        return task;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A budget that limits retries across all of the requests made by a client.  The budget holds a number of tokens,
+ * starting full.  Each retry withdraws a token and each success deposits a fraction of a token.  Retries are only
+ * permitted while more than half of the tokens remain, so that when most requests are failing the client stops retrying
+ * until requests start succeeding again.
+ */
+public final class RetryBudget {
+
+    private static final int SCALE = 1000;
+
+    private final int maxTokens;
+
+    private final int tokenRatio;
+
+    private final AtomicInteger tokens;
+
+    /**
+     * Creates an instance
+     *
+     * @param maxTokens  the number of tokens in a full budget
+     * @param tokenRatio the fraction of a token deposited by each success
+     */
+    public RetryBudget(int maxTokens, double tokenRatio) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("Maximum tokens must be positive, but was " + maxTokens);
+        }
+        if (tokenRatio <= 0) {
+            throw new IllegalArgumentException("Token ratio must be positive, but was " + tokenRatio);
+        }
+
+        this.maxTokens = maxTokens * SCALE;
+        this.tokenRatio = (int) (tokenRatio * SCALE);
+        this.tokens = new AtomicInteger(this.maxTokens);
+    }
+
+    /**
+     * Withdraws a token for a retry, if the budget permits one.  No token is withdrawn when the retry is not permitted.
+     *
+     * @return whether the retry is permitted
+     */
+    public boolean onRetry() {
+        int threshold = this.maxTokens / 2;
+
+        for (; ; ) {
+            int current = this.tokens.get();
+            if (current - SCALE <= threshold) {
+                return false;
+            }
+            if (this.tokens.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records a success, depositing a fraction of a token
+     */
+    public void onSuccess() {
+        this.tokens.updateAndGet(current -> Math.min(this.maxTokens, current + this.tokenRatio));
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PUT;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * A {@link Transport} that retries idempotent requests that fail transiently.  {@code GET}, {@code PUT} and {@code
+ * DELETE} requests are retried when the server responds {@code 429}, {@code 502}, {@code 503} or {@code 504}, and
+ * exchanges are also retried when the connection fails.  Streamed responses are not retried after a connection failure,
+ * as part of the response may already have been consumed.
+ *
+ * <p>Retries are delayed by an exponential backoff with full jitter, or by the server's {@code Retry-After} when it
+ * gives one.  A request is not retried when {@code Retry-After} is longer than the maximum backoff, when it has been
+ * attempted the maximum number of times, or when the {@link RetryBudget} shared by all requests is exhausted.  The
+ * scheduler only waits out the delay, and hands each retry to an executor to send.
+ */
+public final class RetryingTransport implements Transport {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(DELETE, GET, PUT);
+
+    private static final Set<HttpStatus> RETRYABLE_STATUSES = EnumSet.of(BAD_GATEWAY, GATEWAY_TIMEOUT,
+            SERVICE_UNAVAILABLE, TOO_MANY_REQUESTS);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final RetryBudget budget;
+
+    private final Transport delegate;
+
+    private final Executor executor;
+
+    private final long initialBackoff;
+
+    private final int maxAttempts;
+
+    private final long maxBackoff;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an instance
+     *
+     * @param delegate       the {@link Transport} to send requests with
+     * @param maxAttempts    the maximum number of times to attempt a request, including the first attempt
+     * @param initialBackoff the maximum delay before the first retry.  The maximum doubles for each further retry.
+     * @param maxBackoff     the maximum delay before any retry
+     * @param unit           the unit of {@code initialBackoff} and {@code maxBackoff}
+     * @param budget         the budget limiting retries across all requests
+     * @param scheduler      the scheduler to delay retries with
+     * @param executor       the {@link Executor} to send retries on.  May run tasks inline if sending a request with
+     *                       {@code delegate} does not block.
+     */
+    public RetryingTransport(Transport delegate, int maxAttempts, long initialBackoff, long maxBackoff,
+                             TimeUnit unit, RetryBudget budget, ScheduledExecutorService scheduler,
+                             Executor executor) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Maximum attempts must be positive, but was " + maxAttempts);
+        }
+
+        this.budget = budget;
+        this.delegate = delegate;
+        this.executor = executor;
+        this.initialBackoff = unit.toNanos(initialBackoff);
+        this.maxAttempts = maxAttempts;
+        this.maxBackoff = unit.toNanos(maxBackoff);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+        if (!IDEMPOTENT_METHODS.contains(requestEntity.getMethod())) {
+            return this.delegate.exchange(requestEntity, responseType);
+        }
+
+        return new RetryFuture<>(requestEntity, () -> this.delegate.exchange(requestEntity, responseType),
+                throwable -> isRetryableStatus(throwable) || isConnectionFailure(throwable)).attempt();
+    }
+
+    @Override
+    public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+        if (!IDEMPOTENT_METHODS.contains(requestEntity.getMethod())) {
+            return this.delegate.execute(requestEntity, responseExtractor);
+        }
+
+        return new RetryFuture<>(requestEntity, () -> this.delegate.execute(requestEntity, responseExtractor),
+                RetryingTransport::isRetryableStatus).attempt();
+    }
+
+    /**
+     * Returns the {@link Transport} requests are sent with
+     *
+     * @return the {@link Transport} requests are sent with
+     */
+    public Transport getDelegate() {
+        return this.delegate;
+    }
+
+    private static boolean isConnectionFailure(Throwable throwable) {
+        return throwable instanceof ResourceAccessException || throwable instanceof IOException;
+    }
+
+    private static boolean isRetryableStatus(Throwable throwable) {
+        return throwable instanceof HttpStatusCodeException &&
+                RETRYABLE_STATUSES.contains(((HttpStatusCodeException) throwable).getStatusCode());
+    }
+
+    private static long retryAfter(Throwable throwable) {
+        if (!(throwable instanceof HttpStatusCodeException)) {
+            return -1;
+        }
+
+        HttpHeaders headers = ((HttpStatusCodeException) throwable).getResponseHeaders();
+        String retryAfter = headers != null ? headers.getFirst("Retry-After") : null;
+        if (retryAfter == null) {
+            return -1;
+        }
+
+        try {
+            return SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            // fall through to HTTP-date
+        }
+
+        try {
+            long delay = ZonedDateTime.parse(retryAfter.trim(), RFC_1123_DATE_TIME).toInstant().toEpochMilli() -
+                    System.currentTimeMillis();
+            return MILLISECONDS.toNanos(Math.max(0, delay));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private long backoff(int retry) {
+        long ceiling = retry >= Long.numberOfLeadingZeros(this.initialBackoff) - 1 ? this.maxBackoff :
+                Math.min(this.maxBackoff, this.initialBackoff << retry);
+
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private final class RetryFuture<T> extends ForwardingFuture<T> {
+
+        private int attempts = 0;
+
+        private final Supplier<ListenableFuture<T>> request;
+
+        private final RequestEntity<?> requestEntity;
+
+        private final Predicate<Throwable> retryable;
+
+        private RetryFuture(RequestEntity<?> requestEntity, Supplier<ListenableFuture<T>> request,
+                            Predicate<Throwable> retryable) {
+            this.request = request;
+            this.requestEntity = requestEntity;
+            this.retryable = retryable;
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (throwable instanceof ExecutionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            if (isDone()) {
+                return;
+            }
+
+            long delay = delay(throwable);
+            if (delay < 0) {
+                setException(throwable);
+                return;
+            }
+
+            RetryingTransport.this.logger.debug("Retrying {} {} in {} ms after {}", this.requestEntity.getMethod(),
+                    this.requestEntity.getUrl(), NANOSECONDS.toMillis(delay), throwable.toString());
+
+            schedule(RetryingTransport.this.scheduler, () -> RetryingTransport.this.executor.execute(this::attempt),
+                    delay);
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            RetryingTransport.this.budget.onSuccess();
+            set(result);
+        }
+
+        private RetryFuture<T> attempt() {
+            if (isDone()) {
+                return this;
+            }
+
+            this.attempts++;
+
+            ListenableFuture<T> future;
+            try {
+                future = this.request.get();
+            } catch (RuntimeException e) {
+                onFailure(e);
+                return this;
+            }
+
+            if (forward(future)) {
+                future.addCallback(this);
+            }
+            return this;
+        }
+
+        private long delay(Throwable throwable) {
+            if (!this.retryable.test(throwable)) {
+                return -1;
+            }
+
+            if (this.attempts >= RetryingTransport.this.maxAttempts) {
+                return -1;
+            }
+
+            long retryAfter = retryAfter(throwable);
+            if (retryAfter > RetryingTransport.this.maxBackoff) {
+                return -1;
+            }
+
+            if (!RetryingTransport.this.budget.onRetry()) {
+                return -1;
+            }
+
+            return retryAfter >= 0 ? retryAfter : backoff(this.attempts - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A {@link Publisher} that emits the items of another publisher in order, for sources that interleave several
+ * partitions that are each mostly in order.  Items are split into ascending runs by partition as they arrive, and the
+ * runs are merged with a heap while the source is still emitting.  An item is emitted once it is less than the last
+ * item received from every partition, so that no later item of those partitions can precede it, or once {@code
+ * window} items are held back.  At most {@code window} items are requested from the source ahead of the subscriber.
+ * Items displaced by fewer than {@code window} positions are emitted in order; an item that arrives after a greater
+ * item has been emitted, because its partition was out of order or first appeared late, is emitted as soon as
+ * possible instead.  Items that compare equal are emitted in the order they were received.  The source is subscribed
+ * to for each subscriber when it first requests an item.
+ *
+ * @param <T> the type of the items
+ */
+public final class RunMergingPublisher<T> implements Publisher<T> {
+
+    private final Comparator<? super T> comparator;
+
+    private final Function<? super T, ?> partitioner;
+
+    private final Publisher<T> source;
+
+    private final int window;
+
+    /**
+     * Creates an instance
+     *
+     * @param source      the publisher of the items to order
+     * @param partitioner returns the partition of an item.  Items of the same partition are expected to be received in
+     *                    order.
+     * @param comparator  the order of the items
+     * @param window      the maximum number of items to hold back while waiting for earlier items
+     */
+    public RunMergingPublisher(Publisher<T> source, Function<? super T, ?> partitioner,
+                               Comparator<? super T> comparator, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive, but was " + window);
+        }
+
+        this.comparator = comparator;
+        this.partitioner = partitioner;
+        this.source = source;
+        this.window = window;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new RunMergingSubscription<>(subscriber, this));
+    }
+
+    private static final class Run<T> {
+
+        private final Queue<T> items = new ArrayDeque<>();
+
+        private T last;
+
+        private boolean queued = false;
+
+        private final int sequence;
+
+        private Run(int sequence) {
+            this.sequence = sequence;
+        }
+
+    }
+
+    private static final class RunMergingSubscription<T> implements Subscriber<T>, Subscription {
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private volatile boolean done = false;
+
+        private volatile Throwable error;
+
+        private final PriorityQueue<Run<T>> heap;
+
+        private int held = 0;
+
+        private final Map<Object, Run<T>> open = new HashMap<>();
+
+        private final RunMergingPublisher<T> publisher;
+
+        private int sequence = 0;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private RunMergingSubscription(Subscriber<? super T> subscriber, RunMergingPublisher<T> publisher) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+
+            this.heap = new PriorityQueue<>((a, b) -> {
+                int result = publisher.comparator.compare(a.items.peek(), b.items.peek());
+                return result != 0 ? result : Integer.compare(a.sequence, b.sequence);
+            });
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+
+            Subscription subscription = this.subscription.getAndSet(null);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (this.done) {
+                return;
+            }
+
+            this.error = throwable;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done || this.cancelled) {
+                return;
+            }
+
+            synchronized (this) {
+                Object partition = this.publisher.partitioner.apply(item);
+                Run<T> run = this.open.get(partition);
+
+                if (run == null || this.publisher.comparator.compare(run.last, item) > 0) {
+                    run = new Run<>(this.sequence++);
+                    this.open.put(partition, run);
+                }
+
+                run.items.offer(item);
+                run.last = item;
+                this.held++;
+
+                if (!run.queued) {
+                    run.queued = true;
+                    this.heap.offer(run);
+                }
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (!this.subscription.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+
+            if (this.cancelled) {
+                this.subscription.set(null);
+                subscription.cancel();
+                return;
+            }
+
+            subscription.request(this.publisher.window);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.started.set(true);
+
+                Subscription subscription = this.subscription.getAndSet(null);
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+
+                onError(new IllegalArgumentException("Request amount must be positive, but was " + n));
+                return;
+            }
+
+            this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+
+            if (this.started.compareAndSet(false, true)) {
+                this.publisher.source.subscribe(this);
+            }
+
+            drain();
+        }
+
+        private void clear() {
+            synchronized (this) {
+                this.heap.clear();
+                this.open.clear();
+                this.held = 0;
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                long requested = this.demand.get();
+                long emitted = 0;
+
+                for (; ; ) {
+                    if (this.cancelled) {
+                        clear();
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    if (done && this.error != null) {
+                        terminate();
+                        return;
+                    }
+
+                    T item;
+                    synchronized (this) {
+                        if (done && this.heap.isEmpty()) {
+                            item = null;
+                        } else if (emitted == requested) {
+                            break;
+                        } else if ((item = poll(done)) == null) {
+                            break;
+                        }
+                    }
+
+                    if (item == null) {
+                        terminate();
+                        return;
+                    }
+
+                    this.subscriber.onNext(item);
+                    emitted++;
+                }
+
+                if (emitted != 0) {
+                    if (requested != Long.MAX_VALUE) {
+                        this.demand.addAndGet(-emitted);
+                    }
+
+                    Subscription subscription = this.subscription.get();
+                    if (subscription != null) {
+                        subscription.request(emitted);
+                    }
+                }
+
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean isBelowWatermark(T item) {
+            for (Run<T> run : this.open.values()) {
+                if (this.publisher.comparator.compare(item, run.last) >= 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private T poll(boolean done) {
+            Run<T> run = this.heap.peek();
+            if (run == null) {
+                return null;
+            }
+
+            T item = run.items.peek();
+            if (!done && this.held < this.publisher.window && !isBelowWatermark(item)) {
+                return null;
+            }
+
+            this.heap.poll();
+            run.items.poll();
+            this.held--;
+
+            if (run.items.isEmpty()) {
+                run.queued = false;
+            } else {
+                this.heap.offer(run);
+            }
+
+            return item;
+        }
+
+        private void terminate() {
+            this.cancelled = true;
+            this.subscription.set(null);
+            clear();
+
+            Throwable error = this.error;
+            if (error != null) {
+                this.subscriber.onError(error);
+            } else {
+                this.subscriber.onComplete();
+            }
+        }
+
+    }
+
+}
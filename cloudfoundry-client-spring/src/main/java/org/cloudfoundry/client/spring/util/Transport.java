@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+
+/**
+ * The transport used by {@link AbstractSpringOperations} to exchange requests and responses with a server
+ */
+public interface Transport {
+
+    /**
+     * Exchanges a request with the server.  Implementations may complete the returned future before returning.
+     *
+     * @param requestEntity the request to send
+     * @param responseType  the type of the response body
+     * @param <T>           the type of the response body
+     * @return a future that is completed with the response, or failed with the cause of the failure
+     */
+    <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType);
+
+    /**
+     * Executes a bodiless request, reading the response with a {@link ResponseExtractor} as it is received from the
+     * server.  Implementations may complete the returned future before returning.
+     *
+     * @param requestEntity     the request to send
+     * @param responseExtractor the extractor that reads the response
+     * @param <T>               the type returned by the extractor
+     * @return a future that is completed with the value returned by the extractor, or failed with the cause of the
+     * failure
+     */
+    <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor);
+
+}
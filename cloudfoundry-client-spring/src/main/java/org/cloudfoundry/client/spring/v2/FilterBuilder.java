@@ -16,14 +16,11 @@
 
 package org.cloudfoundry.client.spring.v2;
 
+import org.cloudfoundry.client.spring.util.ParameterEncoder;
 import org.cloudfoundry.client.v2.FilterParameter;
-import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -32,6 +29,19 @@ import java.util.stream.Collectors;
  */
 public final class FilterBuilder {
 
+    private static final ParameterEncoder<FilterParameter> ENCODER = new ParameterEncoder<>(FilterParameter.class,
+            (filterParameter, getter) -> {
+                String prefix = getFilter(filterParameter) + filterParameter.operation();
+
+                return (builder, instance) -> {
+                    Object value = getValue(getter.apply(instance));
+
+                    if (value != null) {
+                        builder.queryParam("q", prefix + value);
+                    }
+                };
+            });
+
     private FilterBuilder() {
     }
 
@@ -42,20 +52,7 @@ public final class FilterBuilder {
      * @param instance the instance to inspect and invoke
      */
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Arrays.stream(ReflectionUtils.getAllDeclaredMethods(instance.getClass()))
-                .sorted((a, b) -> a.getName().compareTo(b.getName()))
-                .forEach(method -> {
-                    FilterParameter filterParameter = AnnotationUtils.getAnnotation(method, FilterParameter.class);
-                    if (filterParameter == null) {
-                        return;
-                    }
-
-                    Object value = getValue(method, instance);
-
-                    if (value != null) {
-                        builder.queryParam("q", getFilter(filterParameter) + filterParameter.operation() + value);
-                    }
-                });
+        ENCODER.encode(builder, instance);
     }
 
     private static String getFilter(FilterParameter filterParameter) {
@@ -69,10 +66,7 @@ public final class FilterBuilder {
     }
 
     @SuppressWarnings("unchecked")
-    private static Object getValue(Method method, Object instance) {
-        ReflectionUtils.makeAccessible(method);
-        Object value = ReflectionUtils.invokeMethod(method, instance);
-
+    private static Object getValue(Object value) {
         if (!(value instanceof Collection)) {
             return value;
         }
@@ -17,7 +17,10 @@
 package org.cloudfoundry.client.spring.v2.events;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v2.FilterBuilder;
 import org.cloudfoundry.client.v2.events.Events;
 import org.cloudfoundry.client.v2.events.GetEventRequest;
@@ -28,12 +31,15 @@ import org.reactivestreams.Publisher;
 import org.springframework.web.client.RestOperations;
 
 import java.net.URI;
+import java.util.function.Consumer;
 
 /**
  * The Spring-based implementation of {@link Events}
  */
 public final class SpringEvents extends AbstractSpringOperations implements Events {
 
+    private static final PathTemplate EVENT = PathTemplate.compile("v2", "events", "{id}");
+
     /**
      * Creates an instance
      *
@@ -41,13 +47,22 @@ public final class SpringEvents extends AbstractSpringOperations implements Even
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringEvents(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringEvents(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<GetEventResponse> get(GetEventRequest request) {
-        return get(request, GetEventResponse.class,
-                builder -> builder.pathSegment("v2", "events", request.getId()));
+        return get(request, GetEventResponse.class, EVENT, request.getId());
     }
 
     @Override
@@ -59,4 +74,15 @@ public final class SpringEvents extends AbstractSpringOperations implements Even
         });
     }
 
+    @Override
+    public Publisher<ListEventsResponse.ListEventsResponseResource> listResources(
+            ListEventsRequest request, Consumer<ListEventsResponse> pageConsumer) {
+        return getResources(request, ListEventsResponse.class, ListEventsResponse.ListEventsResponseResource.class,
+                pageConsumer, builder -> {
+                    builder.pathSegment("v2", "events");
+                    FilterBuilder.augment(builder, request);
+                    QueryBuilder.augment(builder, request);
+                });
+    }
+
 }
@@ -18,6 +18,9 @@ package org.cloudfoundry.client.spring.v2.info;
 
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.v2.info.GetInfoResponse;
 import org.cloudfoundry.client.v2.info.Info;
 import org.reactivestreams.Publisher;
@@ -30,6 +33,8 @@ import java.net.URI;
  */
 public final class SpringInfo extends AbstractSpringOperations implements Info {
 
+    private static final PathTemplate INFO = PathTemplate.compile("v2", "info");
+
     /**
      * Creates an instance
      *
@@ -37,12 +42,22 @@ public final class SpringInfo extends AbstractSpringOperations implements Info {
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringInfo(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringInfo(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<GetInfoResponse> get() {
-        return get(null, GetInfoResponse.class, builder -> builder.pathSegment("v2", "info"));
+        return get(null, GetInfoResponse.class, INFO);
     }
 
 }
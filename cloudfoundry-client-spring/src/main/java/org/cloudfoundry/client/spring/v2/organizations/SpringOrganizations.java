@@ -18,6 +18,8 @@ package org.cloudfoundry.client.spring.v2.organizations;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v2.FilterBuilder;
 import org.cloudfoundry.client.spring.v2.organizations.auditors.SpringAuditors;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
@@ -43,8 +45,18 @@ public final class SpringOrganizations extends AbstractSpringOperations implemen
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringOrganizations(RestOperations restOperations, URI root) {
-        super(restOperations, root);
-        this.auditors = new SpringAuditors(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringOrganizations(Transport transport, URI root) {
+        super(transport, root);
+        this.auditors = new SpringAuditors(transport, root);
     }
 
     @Override
@@ -17,6 +17,9 @@
 package org.cloudfoundry.client.spring.v2.organizations.auditors;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.v2.organizations.auditors.Auditors;
 import org.cloudfoundry.client.v2.organizations.auditors.CreateAuditorRequest;
 import org.cloudfoundry.client.v2.organizations.auditors.CreateAuditorResponse;
@@ -30,6 +33,9 @@ import java.net.URI;
  */
 public final class SpringAuditors extends AbstractSpringOperations implements Auditors {
 
+    private static final PathTemplate ORGANIZATION_AUDITOR = PathTemplate.compile("v2", "organizations",
+            "{organizationId}", "auditors", "{auditorId}");
+
     /**
      * Creates an instance
      *
@@ -37,14 +43,23 @@ public final class SpringAuditors extends AbstractSpringOperations implements Au
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringAuditors(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringAuditors(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<CreateAuditorResponse> create(CreateAuditorRequest request) {
-        return put(request, CreateAuditorResponse.class,
-                builder -> builder.pathSegment("v2", "organizations", request.getOrganizationId(), "auditors",
-                        request.getAuditorId()));
+        return put(request, CreateAuditorResponse.class, ORGANIZATION_AUDITOR, request.getOrganizationId(),
+                request.getAuditorId());
     }
 
 }
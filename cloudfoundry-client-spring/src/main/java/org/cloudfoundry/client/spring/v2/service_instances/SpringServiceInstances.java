@@ -18,6 +18,8 @@ package org.cloudfoundry.client.spring.v2.service_instances;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v2.FilterBuilder;
 import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesRequest;
 import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesResponse;
@@ -26,6 +28,7 @@ import org.reactivestreams.Publisher;
 import org.springframework.web.client.RestOperations;
 
 import java.net.URI;
+import java.util.function.Consumer;
 
 /**
  * The Spring-based implementation of {@link ServiceInstances}
@@ -39,7 +42,17 @@ public final class SpringServiceInstances extends AbstractSpringOperations imple
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringServiceInstances(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringServiceInstances(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
@@ -51,4 +64,15 @@ public final class SpringServiceInstances extends AbstractSpringOperations imple
         });
     }
 
+    @Override
+    public Publisher<ListServiceInstancesResponse.ListServiceInstancesResponseResource> listResources(
+            ListServiceInstancesRequest request, Consumer<ListServiceInstancesResponse> pageConsumer) {
+        return getResources(request, ListServiceInstancesResponse.class,
+                ListServiceInstancesResponse.ListServiceInstancesResponseResource.class, pageConsumer, builder -> {
+                    builder.pathSegment("v2", "service_instances");
+                    FilterBuilder.augment(builder, request);
+                    QueryBuilder.augment(builder, request);
+                });
+    }
+
 }
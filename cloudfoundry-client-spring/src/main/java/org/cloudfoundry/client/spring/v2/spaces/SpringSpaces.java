@@ -17,7 +17,10 @@
 package org.cloudfoundry.client.spring.v2.spaces;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v2.FilterBuilder;
 import org.cloudfoundry.client.v2.spaces.AssociateSpaceAuditorRequest;
 import org.cloudfoundry.client.v2.spaces.AssociateSpaceAuditorResponse;
@@ -49,6 +52,24 @@ import java.net.URI;
  */
 public final class SpringSpaces extends AbstractSpringOperations implements Spaces {
 
+    private static final PathTemplate SPACE = PathTemplate.compile("v2", "spaces", "{id}");
+
+    private static final PathTemplate SPACES = PathTemplate.compile("v2", "spaces");
+
+    private static final PathTemplate SPACE_AUDITOR = PathTemplate.compile("v2", "spaces", "{id}", "auditors",
+            "{auditorId}");
+
+    private static final PathTemplate SPACE_DEVELOPER = PathTemplate.compile("v2", "spaces", "{id}", "developers",
+            "{developerId}");
+
+    private static final PathTemplate SPACE_MANAGER = PathTemplate.compile("v2", "spaces", "{id}", "managers",
+            "{managerId}");
+
+    private static final PathTemplate SPACE_SECURITY_GROUP = PathTemplate.compile("v2", "spaces", "{id}",
+            "security_groups", "{securityGroupId}");
+
+    private static final PathTemplate SPACE_SUMMARY = PathTemplate.compile("v2", "spaces", "{id}", "summary");
+
     /**
      * Creates an instance
      *
@@ -56,46 +77,47 @@ public final class SpringSpaces extends AbstractSpringOperations implements Spac
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringSpaces(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringSpaces(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<AssociateSpaceAuditorResponse> associateAuditor(AssociateSpaceAuditorRequest request) {
-        return put(request, AssociateSpaceAuditorResponse.class,
-                builder -> builder.pathSegment("v2",
-                        "spaces", request.getId(),
-                        "auditors", request.getAuditorId()));
+        return put(request, AssociateSpaceAuditorResponse.class, SPACE_AUDITOR, request.getId(),
+                request.getAuditorId());
     }
 
     @Override
     public Publisher<AssociateSpaceDeveloperResponse> associateDeveloper(AssociateSpaceDeveloperRequest request) {
-        return put(request, AssociateSpaceDeveloperResponse.class,
-                builder -> builder.pathSegment("v2",
-                        "spaces", request.getId(),
-                        "developers", request.getDeveloperId()));
+        return put(request, AssociateSpaceDeveloperResponse.class, SPACE_DEVELOPER, request.getId(),
+                request.getDeveloperId());
     }
 
     @Override
     public Publisher<AssociateSpaceManagerResponse> associateManager(AssociateSpaceManagerRequest request) {
-        return put(request, AssociateSpaceManagerResponse.class,
-                builder -> builder.pathSegment("v2",
-                        "spaces", request.getId(),
-                        "managers", request.getManagerId()));
+        return put(request, AssociateSpaceManagerResponse.class, SPACE_MANAGER, request.getId(),
+                request.getManagerId());
     }
 
     @Override
     public Publisher<AssociateSpaceSecurityGroupResponse> associateSecurityGroup(
             AssociateSpaceSecurityGroupRequest request) {
-        return put(request, AssociateSpaceSecurityGroupResponse.class,
-                builder -> builder.pathSegment("v2",
-                        "spaces", request.getId(),
-                        "security_groups", request.getSecurityGroupId()));
+        return put(request, AssociateSpaceSecurityGroupResponse.class, SPACE_SECURITY_GROUP, request.getId(),
+                request.getSecurityGroupId());
     }
 
     @Override
     public Publisher<CreateSpaceResponse> create(CreateSpaceRequest request) {
-        return post(request, CreateSpaceResponse.class,
-                builder -> builder.pathSegment("v2", "spaces"));
+        return post(request, CreateSpaceResponse.class, SPACES);
     }
 
     @Override
@@ -108,14 +130,12 @@ public final class SpringSpaces extends AbstractSpringOperations implements Spac
 
     @Override
     public Publisher<GetSpaceResponse> get(GetSpaceRequest request) {
-        return get(request, GetSpaceResponse.class,
-                builder -> builder.pathSegment("v2", "spaces", request.getId()));
+        return get(request, GetSpaceResponse.class, SPACE, request.getId());
     }
 
     @Override
     public Publisher<GetSpaceSummaryResponse> getSummary(GetSpaceSummaryRequest request) {
-        return get(request, GetSpaceSummaryResponse.class,
-                builder -> builder.pathSegment("v2", "spaces", request.getId(), "summary"));
+        return get(request, GetSpaceSummaryResponse.class, SPACE_SUMMARY, request.getId());
     }
 
     @Override
@@ -16,57 +16,47 @@
 
 package org.cloudfoundry.client.spring.v3;
 
+import org.cloudfoundry.client.spring.util.ParameterEncoder;
 import org.cloudfoundry.client.v3.FilterParameter;
-import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.Collection;
 
 public final class FilterBuilder {
 
-    private FilterBuilder() {
-    }
-
-    /**
-     * Augments a {@link UriComponentsBuilder} with queries based on the methods annotated with {@link FilterParameter}
-     *
-     * @param builder  the builder to augment
-     * @param instance the instance to inspect and invoke
-     */
-    @SuppressWarnings("unchecked")
-    public static void augment(UriComponentsBuilder builder, Object instance) {
-        Arrays.stream(ReflectionUtils.getAllDeclaredMethods(instance.getClass()))
-                .sorted((a, b) -> a.getName().compareTo(b.getName()))
-                .forEach(method -> {
-                    FilterParameter filterParameter = AnnotationUtils.getAnnotation(method, FilterParameter.class);
-                    if (filterParameter == null) {
-                        return;
-                    }
+    private static final ParameterEncoder<FilterParameter> ENCODER = new ParameterEncoder<>(FilterParameter.class,
+            (filterParameter, getter) -> {
+                String name = filterParameter.value();
+                String collectionName = String.format("%s[]", name);
 
-                    Object value = getValue(method, instance);
+                return (builder, instance) -> {
+                    Object value = getter.apply(instance);
                     if (value == null) {
                         return;
                     }
 
                     if (!(value instanceof Collection)) {
-                        builder.queryParam(filterParameter.value(), value);
+                        builder.queryParam(name, value);
                         return;
                     }
 
-                    String name = String.format("%s[]", filterParameter.value());
-                    ((Collection) value).stream().forEach(item -> {
-                        builder.queryParam(name, item);
-                    });
-                });
+                    for (Object item : (Collection<?>) value) {
+                        builder.queryParam(collectionName, item);
+                    }
+                };
+            });
+
+    private FilterBuilder() {
     }
 
-    @SuppressWarnings("unchecked")
-    private static Object getValue(Method method, Object instance) {
-        ReflectionUtils.makeAccessible(method);
-        return ReflectionUtils.invokeMethod(method, instance);
+    /**
+     * Augments a {@link UriComponentsBuilder} with queries based on the methods annotated with {@link FilterParameter}
+     *
+     * @param builder  the builder to augment
+     * @param instance the instance to inspect and invoke
+     */
+    public static void augment(UriComponentsBuilder builder, Object instance) {
+        ENCODER.encode(builder, instance);
     }
 
 }
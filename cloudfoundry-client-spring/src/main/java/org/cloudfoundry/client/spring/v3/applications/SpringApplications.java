@@ -17,7 +17,10 @@
 package org.cloudfoundry.client.spring.v3.applications;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.spring.v3.FilterBuilder;
 import org.cloudfoundry.client.v3.applications.Applications;
 import org.cloudfoundry.client.v3.applications.AssignApplicationDropletRequest;
@@ -62,6 +65,33 @@ import java.net.URI;
  */
 public final class SpringApplications extends AbstractSpringOperations implements Applications {
 
+    private static final PathTemplate APP = PathTemplate.compile("v3", "apps", "{id}");
+
+    private static final PathTemplate APPS = PathTemplate.compile("v3", "apps");
+
+    private static final PathTemplate APP_CURRENT_DROPLET = PathTemplate.compile("v3", "apps", "{id}",
+            "current_droplet");
+
+    private static final PathTemplate APP_ENV = PathTemplate.compile("v3", "apps", "{id}", "env");
+
+    private static final PathTemplate APP_PACKAGES = PathTemplate.compile("v3", "apps", "{id}", "packages");
+
+    private static final PathTemplate APP_PROCESS = PathTemplate.compile("v3", "apps", "{id}", "processes", "{type}");
+
+    private static final PathTemplate APP_PROCESSES = PathTemplate.compile("v3", "apps", "{id}", "processes");
+
+    private static final PathTemplate APP_PROCESS_INSTANCE = PathTemplate.compile("v3", "apps", "{id}", "processes",
+            "{type}", "instances", "{index}");
+
+    private static final PathTemplate APP_PROCESS_SCALE = PathTemplate.compile("v3", "apps", "{id}", "processes",
+            "{type}", "scale");
+
+    private static final PathTemplate APP_ROUTES = PathTemplate.compile("v3", "apps", "{id}", "routes");
+
+    private static final PathTemplate APP_START = PathTemplate.compile("v3", "apps", "{id}", "start");
+
+    private static final PathTemplate APP_STOP = PathTemplate.compile("v3", "apps", "{id}", "stop");
+
     /**
      * Creates an instance
      *
@@ -69,47 +99,52 @@ public final class SpringApplications extends AbstractSpringOperations implement
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringApplications(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringApplications(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<AssignApplicationDropletResponse> assignDroplet(AssignApplicationDropletRequest request) {
-        return put(request, AssignApplicationDropletResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "current_droplet"));
+        return put(request, AssignApplicationDropletResponse.class, APP_CURRENT_DROPLET, request.getId());
     }
 
     @Override
     public Publisher<CreateApplicationResponse> create(CreateApplicationRequest request) {
-        return post(request, CreateApplicationResponse.class, builder -> builder.pathSegment("v3", "apps"));
+        return post(request, CreateApplicationResponse.class, APPS);
     }
 
     @Override
     public Publisher<Void> delete(DeleteApplicationRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "apps", request.getId()));
+        return delete(request, APP, request.getId());
     }
 
     @Override
     public Publisher<Void> deleteInstance(DeleteApplicationInstanceRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "apps", request.getId(), "processes",
-                request.getType(), "instances", request.getIndex()));
+        return delete(request, APP_PROCESS_INSTANCE, request.getId(), request.getType(), request.getIndex());
     }
 
     @Override
     public Publisher<GetApplicationResponse> get(GetApplicationRequest request) {
-        return get(request, GetApplicationResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId()));
+        return get(request, GetApplicationResponse.class, APP, request.getId());
     }
 
     @Override
     public Publisher<GetApplicationEnvironmentResponse> getEnvironment(GetApplicationEnvironmentRequest request) {
-        return get(request, GetApplicationEnvironmentResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "env"));
+        return get(request, GetApplicationEnvironmentResponse.class, APP_ENV, request.getId());
     }
 
     @Override
     public Publisher<GetApplicationProcessResponse> getProcess(GetApplicationProcessRequest request) {
-        return get(request, GetApplicationProcessResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "processes", request.getType()));
+        return get(request, GetApplicationProcessResponse.class, APP_PROCESS, request.getId(), request.getType());
     }
 
     @Override
@@ -134,54 +169,47 @@ public final class SpringApplications extends AbstractSpringOperations implement
 
     @Override
     public Publisher<ListApplicationPackagesResponse> listPackages(ListApplicationPackagesRequest request) {
-        return get(request, ListApplicationPackagesResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "packages"));
+        return get(request, ListApplicationPackagesResponse.class, APP_PACKAGES, request.getId());
     }
 
     @Override
     public Publisher<ListApplicationProcessesResponse> listProcesses(ListApplicationProcessesRequest request) {
-        return get(request, ListApplicationProcessesResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "processes"));
+        return get(request, ListApplicationProcessesResponse.class, APP_PROCESSES, request.getId());
     }
 
     @Override
     public Publisher<ListApplicationRoutesResponse> listRoutes(ListApplicationRoutesRequest request) {
-        return get(request, ListApplicationRoutesResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "routes"));
+        return get(request, ListApplicationRoutesResponse.class, APP_ROUTES, request.getId());
     }
 
     @Override
     public Publisher<Void> mapRoute(MapApplicationRouteRequest request) {
-        return put(request, Void.class, builder -> builder.pathSegment("v3", "apps", request.getId(), "routes"));
+        return put(request, Void.class, APP_ROUTES, request.getId());
     }
 
     @Override
     public Publisher<ScaleApplicationResponse> scale(ScaleApplicationRequest request) {
-        return put(request, ScaleApplicationResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "processes", request.getType(), "scale"));
+        return put(request, ScaleApplicationResponse.class, APP_PROCESS_SCALE, request.getId(), request.getType());
     }
 
     @Override
     public Publisher<StartApplicationResponse> start(StartApplicationRequest request) {
-        return put(request, StartApplicationResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "start"));
+        return put(request, StartApplicationResponse.class, APP_START, request.getId());
     }
 
     @Override
     public Publisher<StopApplicationResponse> stop(StopApplicationRequest request) {
-        return put(request, StopApplicationResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId(), "stop"));
+        return put(request, StopApplicationResponse.class, APP_STOP, request.getId());
     }
 
     @Override
     public Publisher<Void> unmapRoute(UnmapApplicationRouteRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "apps", request.getId(), "routes"));
+        return delete(request, APP_ROUTES, request.getId());
     }
 
     @Override
     public Publisher<UpdateApplicationResponse> update(UpdateApplicationRequest request) {
-        return patch(request, UpdateApplicationResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getId()));
+        return patch(request, UpdateApplicationResponse.class, APP, request.getId());
     }
 
 }
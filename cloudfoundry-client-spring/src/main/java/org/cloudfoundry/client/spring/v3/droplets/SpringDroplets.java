@@ -17,6 +17,9 @@
 package org.cloudfoundry.client.spring.v3.droplets;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.v3.droplets.DeleteDropletRequest;
 import org.cloudfoundry.client.v3.droplets.Droplets;
 import org.cloudfoundry.client.v3.droplets.GetDropletRequest;
@@ -33,6 +36,10 @@ import java.net.URI;
  */
 public final class SpringDroplets extends AbstractSpringOperations implements Droplets {
 
+    private static final PathTemplate DROPLET = PathTemplate.compile("v3", "droplets", "{id}");
+
+    private static final PathTemplate DROPLETS = PathTemplate.compile("v3", "droplets");
+
     /**
      * Creates an instance
      *
@@ -40,23 +47,32 @@ public final class SpringDroplets extends AbstractSpringOperations implements Dr
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringDroplets(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringDroplets(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<Void> delete(DeleteDropletRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "droplets", request.getId()));
+        return delete(request, DROPLET, request.getId());
     }
 
     @Override
     public Publisher<GetDropletResponse> get(GetDropletRequest request) {
-        return get(request, GetDropletResponse.class,
-                builder -> builder.pathSegment("v3", "droplets", request.getId()));
+        return get(request, GetDropletResponse.class, DROPLET, request.getId());
     }
 
     @Override
     public Publisher<ListDropletsResponse> list(ListDropletsRequest request) {
-        return get(request, ListDropletsResponse.class, builder -> builder.pathSegment("v3", "droplets"));
+        return get(request, ListDropletsResponse.class, DROPLETS);
     }
 
 }
@@ -17,8 +17,11 @@
 package org.cloudfoundry.client.spring.v3.packages;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
 import org.cloudfoundry.client.spring.util.CollectionUtils;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.v3.packages.CopyPackageRequest;
 import org.cloudfoundry.client.v3.packages.CopyPackageResponse;
 import org.cloudfoundry.client.v3.packages.CreatePackageRequest;
@@ -38,17 +41,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.RequestEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 
+import static org.springframework.http.HttpMethod.POST;
+
 /**
  * The Spring-based implementation of {@link Packages}
  */
 public final class SpringPackages extends AbstractSpringOperations implements Packages {
 
+    private static final PathTemplate APP_PACKAGES = PathTemplate.compile("v3", "apps", "{applicationId}", "packages");
+
+    private static final PathTemplate PACKAGE = PathTemplate.compile("v3", "packages", "{id}");
+
+    private static final PathTemplate PACKAGES = PathTemplate.compile("v3", "packages");
+
+    private static final PathTemplate PACKAGE_DROPLETS = PathTemplate.compile("v3", "packages", "{id}", "droplets");
+
+    private static final PathTemplate PACKAGE_UPLOAD = PathTemplate.compile("v3", "packages", "{id}", "upload");
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -58,7 +73,17 @@ public final class SpringPackages extends AbstractSpringOperations implements Pa
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringPackages(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringPackages(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
@@ -72,45 +97,39 @@ public final class SpringPackages extends AbstractSpringOperations implements Pa
 
     @Override
     public Publisher<CreatePackageResponse> create(CreatePackageRequest request) {
-        return post(request, CreatePackageResponse.class,
-                builder -> builder.pathSegment("v3", "apps", request.getApplicationId(), "packages"));
+        return post(request, CreatePackageResponse.class, APP_PACKAGES, request.getApplicationId());
     }
 
     @Override
     public Publisher<Void> delete(DeletePackageRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "packages", request.getId()));
+        return delete(request, PACKAGE, request.getId());
     }
 
     @Override
     public Publisher<GetPackageResponse> get(GetPackageRequest request) {
-        return get(request, GetPackageResponse.class,
-                builder -> builder.pathSegment("v3", "packages", request.getId()));
+        return get(request, GetPackageResponse.class, PACKAGE, request.getId());
     }
 
     @Override
     public Publisher<ListPackagesResponse> list(ListPackagesRequest request) {
-        return get(request, ListPackagesResponse.class,
-                builder -> builder.pathSegment("v3", "packages"));
+        return get(request, ListPackagesResponse.class, PACKAGES);
     }
 
     @Override
     public Publisher<StagePackageResponse> stage(StagePackageRequest request) {
-        return post(request, StagePackageResponse.class,
-                builder -> builder.pathSegment("v3", "packages", request.getId(), "droplets"));
+        return post(request, StagePackageResponse.class, PACKAGE_DROPLETS, request.getId());
     }
 
     @Override
     public Publisher<UploadPackageResponse> upload(UploadPackageRequest request) {
-        return exchange(request, () -> {
-            URI uri = UriComponentsBuilder.fromUri(this.root)
-                    .pathSegment("v3", "packages", request.getId(), "upload")
-                    .build().toUri();
+        return exchange(request, UploadPackageResponse.class, () -> {
+            URI uri = PACKAGE_UPLOAD.expand(this.root, request.getId());
 
             MultiValueMap<String, Resource> body = CollectionUtils.singletonMultiValueMap("bits",
                     new FileSystemResource(request.getFile()));
 
             this.logger.debug("POST {}", uri);
-            return this.restOperations.postForObject(uri, body, UploadPackageResponse.class);
+            return new RequestEntity<>(body, POST, uri);
         });
     }
 
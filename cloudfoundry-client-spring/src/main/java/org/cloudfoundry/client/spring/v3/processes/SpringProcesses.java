@@ -17,7 +17,10 @@
 package org.cloudfoundry.client.spring.v3.processes;
 
 import org.cloudfoundry.client.spring.util.AbstractSpringOperations;
+import org.cloudfoundry.client.spring.util.PathTemplate;
 import org.cloudfoundry.client.spring.util.QueryBuilder;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.Transport;
 import org.cloudfoundry.client.v3.processes.DeleteProcessInstanceRequest;
 import org.cloudfoundry.client.v3.processes.GetProcessRequest;
 import org.cloudfoundry.client.v3.processes.GetProcessResponse;
@@ -38,6 +41,13 @@ import java.net.URI;
  */
 public final class SpringProcesses extends AbstractSpringOperations implements Processes {
 
+    private static final PathTemplate PROCESS = PathTemplate.compile("v3", "processes", "{id}");
+
+    private static final PathTemplate PROCESS_INSTANCE = PathTemplate.compile("v3", "processes", "{id}", "instances",
+            "{index}");
+
+    private static final PathTemplate PROCESS_SCALE = PathTemplate.compile("v3", "processes", "{id}", "scale");
+
     /**
      * Creates an instance
      *
@@ -45,19 +55,27 @@ public final class SpringProcesses extends AbstractSpringOperations implements P
      * @param root           the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
      */
     public SpringProcesses(RestOperations restOperations, URI root) {
-        super(restOperations, root);
+        this(new RestOperationsTransport(restOperations), root);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param transport the {@link Transport} to use to communicate with the server
+     * @param root      the root URI of the server.  Typically something like {@code https://api.run.pivotal.io}.
+     */
+    public SpringProcesses(Transport transport, URI root) {
+        super(transport, root);
     }
 
     @Override
     public Publisher<Void> deleteInstance(DeleteProcessInstanceRequest request) {
-        return delete(request, builder -> builder.pathSegment("v3", "processes", request.getId(),
-                "instances", request.getIndex()));
+        return delete(request, PROCESS_INSTANCE, request.getId(), request.getIndex());
     }
 
     @Override
     public Publisher<GetProcessResponse> get(GetProcessRequest request) {
-        return get(request, GetProcessResponse.class,
-                builder -> builder.pathSegment("v3", "processes", request.getId()));
+        return get(request, GetProcessResponse.class, PROCESS, request.getId());
     }
 
     @Override
@@ -69,14 +87,12 @@ public final class SpringProcesses extends AbstractSpringOperations implements P
     }
 
     public Publisher<ScaleProcessResponse> scale(ScaleProcessRequest request) {
-        return put(request, ScaleProcessResponse.class,
-                builder -> builder.pathSegment("v3", "processes", request.getId(), "scale"));
+        return put(request, ScaleProcessResponse.class, PROCESS_SCALE, request.getId());
     }
 
     @Override
     public Publisher<UpdateProcessResponse> update(UpdateProcessRequest request) {
-        return patch(request, UpdateProcessResponse.class,
-                builder -> builder.pathSegment("v3", "processes", request.getId()));
+        return patch(request, UpdateProcessResponse.class, PROCESS, request.getId());
     }
 
 }
@@ -16,17 +16,31 @@
 
 package org.cloudfoundry.client.spring;
 
+import org.cloudfoundry.client.spring.util.AdaptiveConcurrencyLimiter;
+import org.cloudfoundry.client.spring.util.AsyncRestOperationsTransport;
+import org.cloudfoundry.client.spring.util.CachingTransport;
+import org.cloudfoundry.client.spring.util.CoalescingTransport;
+import org.cloudfoundry.client.spring.util.ConcurrencyLimitingTransport;
+import org.cloudfoundry.client.spring.util.RateLimiter;
+import org.cloudfoundry.client.spring.util.RateLimitingTransport;
+import org.cloudfoundry.client.spring.util.ResponseCache;
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
+import org.cloudfoundry.client.spring.util.RetryingTransport;
 import org.cloudfoundry.client.spring.util.SslCertificateTruster;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 import org.springframework.security.oauth2.client.resource.OAuth2ProtectedResourceDetails;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.springframework.http.HttpMethod.GET;
@@ -61,6 +75,83 @@ public final class SpringCloudFoundryClientBuilderTest extends AbstractRestTest
         verify();
     }
 
+    @Test
+    public void connectionPool() {
+        mockRequest(new RequestContext()
+                .method(GET).path("/info")
+                .status(OK)
+                .responsePayload("info_GET_response.json"));
+
+        SpringCloudFoundryClient client = this.builder
+                .withApi("api.run.pivotal.io")
+                .withCredentials("test-username", "test-password")
+                .withConnectionPool(20, 10, 1L, MINUTES)
+                .build();
+
+        OAuth2RestTemplate restTemplate = (OAuth2RestTemplate) client.getRestOperations();
+
+        assertTrue(restTemplate.getRequestFactory() instanceof HttpComponentsClientHttpRequestFactory);
+        verify();
+    }
+
+    @Test
+    public void decoratorOrder() throws IOException {
+        mockRequest(new RequestContext()
+                .method(GET).path("/info")
+                .status(OK)
+                .responsePayload("info_GET_response.json"));
+
+        SpringCloudFoundryClient client = this.builder
+                .withApi("api.run.pivotal.io")
+                .withCredentials("test-username", "test-password")
+                .withConcurrencyLimiter(new AdaptiveConcurrencyLimiter(10, 1, 100))
+                .withRateLimiter(new RateLimiter(10, 20, 1, 5))
+                .withRequestCoalescing(true)
+                .withResponseCache(new ResponseCache(100, 1024 * 1024, 30, SECONDS))
+                .withRetry(3, 100L, 10000L, MILLISECONDS)
+                .withRetryBudget(10, 0.2)
+                .build();
+
+        CoalescingTransport coalescing = (CoalescingTransport) client.getTransport();
+        CachingTransport caching = (CachingTransport) coalescing.getDelegate();
+        RetryingTransport retrying = (RetryingTransport) caching.getDelegate();
+        RateLimitingTransport rateLimiting = (RateLimitingTransport) retrying.getDelegate();
+        ConcurrencyLimitingTransport concurrencyLimiting = (ConcurrencyLimitingTransport) rateLimiting.getDelegate();
+
+        assertTrue(concurrencyLimiting.getDelegate() instanceof RestOperationsTransport);
+        verify();
+
+        client.close();
+    }
+
+    @Test
+    public void nonBlockingTransport() throws IOException {
+        mockRequest(new RequestContext()
+                .method(GET).path("/info")
+                .status(OK)
+                .responsePayload("info_GET_response.json"));
+
+        SpringCloudFoundryClient client = this.builder
+                .withApi("api.run.pivotal.io")
+                .withCredentials("test-username", "test-password")
+                .withNonBlockingTransport(true)
+                .build();
+
+        assertTrue(client.getTransport() instanceof AsyncRestOperationsTransport);
+        verify();
+
+        client.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void retryBudgetWithoutRetry() {
+        this.builder
+                .withApi("api.run.pivotal.io")
+                .withCredentials("test-username", "test-password")
+                .withRetryBudget(10, 0.2)
+                .build();
+    }
+
     @Test
     public void skipSslValidationTrue() throws GeneralSecurityException, IOException {
         mockRequest(new RequestContext()
@@ -16,9 +16,18 @@
 
 package org.cloudfoundry.client.spring;
 
+import org.cloudfoundry.client.spring.util.RestOperationsTransport;
 import org.junit.Test;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public final class SpringCloudFoundryClientTest extends AbstractRestTest {
 
@@ -29,6 +38,28 @@ public final class SpringCloudFoundryClientTest extends AbstractRestTest {
         assertNotNull(this.client.applications());
     }
 
+    @Test
+    public void close() {
+        AtomicInteger closed = new AtomicInteger();
+        IOException exception = new IOException("test-exception");
+
+        Closeable failing = () -> {
+            throw exception;
+        };
+        SpringCloudFoundryClient client = new SpringCloudFoundryClient(this.restTemplate,
+                new RestOperationsTransport(this.restTemplate), this.root,
+                Arrays.asList(closed::incrementAndGet, failing, closed::incrementAndGet));
+
+        try {
+            client.close();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertSame(exception, e);
+        }
+
+        assertEquals(2, closed.get());
+    }
+
     @Test
     public void droplets() {
         assertNotNull(this.client.droplets());
@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.client.spring;
 
+import org.cloudfoundry.client.spring.util.OverflowStrategy;
 import org.junit.Test;
 
 import javax.websocket.WebSocketContainer;
@@ -41,7 +42,9 @@ public final class SpringLoggregatorClientBuilderTest extends AbstractRestTest {
                 .responsePayload("v2/info/GET_response.json"));
 
         this.builder
+                .withBufferSize(16)
                 .withCloudFoundryClient(this.cloudFoundryClient)
+                .withOverflowStrategy(OverflowStrategy.DROP_NEWEST)
                 .build();
 
         verify();
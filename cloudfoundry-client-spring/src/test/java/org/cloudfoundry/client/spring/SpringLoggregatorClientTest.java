@@ -17,17 +17,34 @@
 package org.cloudfoundry.client.spring;
 
 import org.cloudfoundry.client.RequestValidationException;
+import org.cloudfoundry.client.ValidationResult;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
 import org.cloudfoundry.client.loggregator.RecentLogsRequest;
+import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+import org.cloudfoundry.client.spring.loggregator.ReactiveEndpoint;
 import org.cloudfoundry.client.v2.CloudFoundryException;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.springframework.http.MediaType;
 import reactor.rx.Streams;
 
 import javax.websocket.ClientEndpointConfig;
+import javax.websocket.DeploymentException;
+import javax.websocket.Session;
 import javax.websocket.WebSocketContainer;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -38,11 +55,45 @@ public final class SpringLoggregatorClientTest extends AbstractRestTest {
 
     private final ClientEndpointConfig clientEndpointConfig = mock(ClientEndpointConfig.class);
 
+    private final Session session = mock(Session.class);
+
     private final WebSocketContainer webSocketContainer = mock(WebSocketContainer.class);
 
     private final SpringLoggregatorClient client = new SpringLoggregatorClient(this.clientEndpointConfig,
             this.webSocketContainer, this.restTemplate, this.root);
 
+    @Test
+    public void isTransientConnectionFailure() {
+        assertTrue(SpringLoggregatorClient.isTransient(new DeploymentException("The HTTP request to initiate the " +
+                "WebSocket connection failed", new ExecutionException(new ConnectException("Connection refused")))));
+    }
+
+    @Test
+    public void isTransientHandshakeException() {
+        assertFalse(SpringLoggregatorClient.isTransient(new DeploymentException("test-message",
+                new HandshakeException(403))));
+        assertTrue(SpringLoggregatorClient.isTransient(new DeploymentException("test-message",
+                new HandshakeException(502))));
+    }
+
+    @Test
+    public void isTransientInvalidRequest() {
+        assertFalse(SpringLoggregatorClient.isTransient(new RequestValidationException(
+                new ValidationResult().invalid("test-message"))));
+    }
+
+    @Test
+    public void isTransientServiceUnavailable() {
+        assertTrue(SpringLoggregatorClient.isTransient(new DeploymentException("The HTTP response from the server " +
+                "[503] did not permit the HTTP upgrade to WebSocket")));
+    }
+
+    @Test
+    public void isTransientUnauthorized() {
+        assertFalse(SpringLoggregatorClient.isTransient(new DeploymentException("The HTTP response from the server " +
+                "[401] did not permit the HTTP upgrade to WebSocket")));
+    }
+
     @Test
     public void recent() {
         mockRequest(new RequestContext()
@@ -75,4 +126,66 @@ public final class SpringLoggregatorClientTest extends AbstractRestTest {
     public void recentInvalidRequest() {
         Streams.wrap(this.client.recent(new RecentLogsRequest())).next().get();
     }
+
+    @Test
+    public void recentOrdered() {
+        mockRequest(new RequestContext()
+                .method(GET).path("/recent?app=test-id")
+                .status(OK)
+                .contentType(MEDIA_TYPE).responsePayload("loggregator_response.bin"));
+
+        RecentLogsRequest request = new RecentLogsRequest()
+                .withId("test-id");
+
+        List<LoggregatorMessage> messages = Streams.wrap(this.client.recentOrdered(request)).toList().get();
+
+        assertEquals(14, messages.size());
+        for (int i = 1; i < messages.size(); i++) {
+            assertFalse(messages.get(i).getTimestamp().before(messages.get(i - 1).getTimestamp()));
+        }
+        verify();
+    }
+
+    @Test
+    public void stream() throws DeploymentException, IOException {
+        when(this.webSocketContainer.connectToServer(any(ReactiveEndpoint.class), any(ClientEndpointConfig.class),
+                any(URI.class))).thenReturn(this.session);
+
+        StreamLogsRequest request = new StreamLogsRequest()
+                .withId("test-id");
+
+        TestSubscriber<LoggregatorMessage> subscriber = new TestSubscriber<>();
+        this.client.stream(request).subscribe(subscriber);
+
+        verifyZeroInteractions(this.webSocketContainer);
+
+        subscriber.getOnSubscribeEvents().get(0).request(1);
+        subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        Mockito.verify(this.session).close();
+    }
+
+    @Test
+    public void streamInvalidRequest() {
+        TestSubscriber<LoggregatorMessage> subscriber = new TestSubscriber<>();
+        this.client.stream(new StreamLogsRequest()).subscribe(subscriber);
+        subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(subscriber.getOnErrorEvents().get(0) instanceof RequestValidationException);
+    }
+
+    private static final class HandshakeException extends Exception {
+
+        private final int httpStatusCode;
+
+        private HandshakeException(int httpStatusCode) {
+            this.httpStatusCode = httpStatusCode;
+        }
+
+        public int getHttpStatusCode() {
+            return this.httpStatusCode;
+        }
+
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import com.google.protobuf.ByteString;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
+import org.cloudfoundry.client.loggregator.RecentLogsRequest;
+import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+import org.junit.Test;
+
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.ERR;
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.OUT;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class LogMessageFilterTest {
+
+    private final LogMessage logMessage = LogMessage.newBuilder()
+            .setAppId("test-app-id")
+            .setMessage(ByteString.copyFromUtf8("GET /test-path HTTP/1.1 200 \u00e9"))
+            .setMessageType(LogMessage.MessageType.OUT)
+            .setSourceId("0")
+            .setSourceName("RTR")
+            .setTimestamp(0)
+            .build();
+
+    @Test
+    public void empty() {
+        assertTrue(LogMessageFilter.from(new StreamLogsRequest()).test(this.logMessage));
+    }
+
+    @Test
+    public void messageContains() {
+        assertTrue(LogMessageFilter.from(new StreamLogsRequest().withMessageContains("/test-path"))
+                .test(this.logMessage));
+        assertTrue(LogMessageFilter.from(new StreamLogsRequest().withMessageContains("200 \u00e9"))
+                .test(this.logMessage));
+        assertFalse(LogMessageFilter.from(new StreamLogsRequest().withMessageContains("POST"))
+                .test(this.logMessage));
+    }
+
+    @Test
+    public void messagePattern() {
+        assertTrue(LogMessageFilter.from(new RecentLogsRequest().withMessagePattern("HTTP/1\\.1 2\\d\\d"))
+                .test(this.logMessage));
+        assertFalse(LogMessageFilter.from(new RecentLogsRequest().withMessagePattern("HTTP/1\\.1 5\\d\\d"))
+                .test(this.logMessage));
+    }
+
+    @Test
+    public void messageType() {
+        assertTrue(LogMessageFilter.from(new RecentLogsRequest().withMessageType(OUT)).test(this.logMessage));
+        assertFalse(LogMessageFilter.from(new RecentLogsRequest().withMessageType(ERR)).test(this.logMessage));
+    }
+
+    @Test
+    public void source() {
+        assertTrue(LogMessageFilter.from(new StreamLogsRequest().withSourceId("0").withSourceName("RTR"))
+                .test(this.logMessage));
+        assertFalse(LogMessageFilter.from(new StreamLogsRequest().withSourceId("1").withSourceName("RTR"))
+                .test(this.logMessage));
+        assertFalse(LogMessageFilter.from(new StreamLogsRequest().withSourceName("APP")).test(this.logMessage));
+    }
+
+}
@@ -22,6 +22,8 @@ import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers;
 import org.cloudfoundry.client.spring.TestSubscriber;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 
@@ -29,6 +31,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public final class LoggregatorMessageHandlerTest {
 
@@ -51,7 +54,7 @@ public final class LoggregatorMessageHandlerTest {
                 .build();
 
 
-        this.messageHandler.onMessage(logMessage.toByteArray());
+        this.messageHandler.onMessage(ByteBuffer.wrap(logMessage.toByteArray()), true);
 
         LoggregatorMessage message = this.subscriber.getOnNextEvents().get(0);
         assertEquals("test-app-id", message.getApplicationId());
@@ -65,8 +68,52 @@ public final class LoggregatorMessageHandlerTest {
 
     @Test
     public void onMessageError() {
-        this.messageHandler.onMessage(new byte[0]);
+        this.messageHandler.onMessage(ByteBuffer.wrap(new byte[0]), true);
 
         assertFalse(this.subscriber.getOnErrorEvents().isEmpty());
     }
+
+    @Test
+    public void onMessagePartial() {
+        byte[] frame = LoggregatorProtocolBuffers.LogMessage.newBuilder()
+                .setAppId("test-app-id")
+                .setMessage(ByteString.copyFromUtf8("test-message"))
+                .setMessageType(LoggregatorProtocolBuffers.LogMessage.MessageType.OUT)
+                .setTimestamp(0)
+                .build()
+                .toByteArray();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(frame.length - 4);
+        direct.put(frame, 4, frame.length - 4).flip();
+
+        this.messageHandler.onMessage(ByteBuffer.wrap(Arrays.copyOf(frame, 4)), false);
+        this.messageHandler.onMessage(direct, true);
+        this.messageHandler.onMessage(ByteBuffer.wrap(frame), true);
+
+        assertEquals(2, this.subscriber.getOnNextEvents().size());
+        assertEquals("test-message", this.subscriber.getOnNextEvents().get(0).getMessage());
+        assertEquals(OUT, this.subscriber.getOnNextEvents().get(0).getMessageType());
+        assertEquals("test-message", this.subscriber.getOnNextEvents().get(1).getMessage());
+    }
+
+    @Test
+    public void onMessageFiltered() {
+        LoggregatorMessageHandler messageHandler = new LoggregatorMessageHandler(this.subscriber,
+                logMessage -> "RTR".equals(logMessage.getSourceName()));
+
+        byte[] frame = LoggregatorProtocolBuffers.LogMessage.newBuilder()
+                .setAppId("test-app-id")
+                .setMessage(ByteString.copyFromUtf8("test-message"))
+                .setMessageType(LoggregatorProtocolBuffers.LogMessage.MessageType.OUT)
+                .setSourceName("APP")
+                .setTimestamp(0)
+                .build()
+                .toByteArray();
+
+        messageHandler.onMessage(ByteBuffer.wrap(frame), true);
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+        assertTrue(this.subscriber.getOnErrorEvents().isEmpty());
+    }
+
 }
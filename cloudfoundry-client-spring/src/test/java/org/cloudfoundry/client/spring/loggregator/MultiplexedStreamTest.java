@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import org.cloudfoundry.client.RequestValidationException;
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.loggregator.StreamLogsRequest;
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.cloudfoundry.client.spring.util.OverflowStrategy;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class MultiplexedStreamTest {
+
+    private final Map<String, Subscriber<LoggregatorMessage>> connections = new HashMap<>();
+
+    private final List<String> disconnections = new ArrayList<>();
+
+    private final List<LoggregatorMessage> dropped = new ArrayList<>();
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final MultiplexedStream stream = new MultiplexedStream(request -> subscriber -> {
+        if ("test-id-invalid".equals(request.getId())) {
+            throw new IllegalArgumentException();
+        }
+
+        this.connections.put(request.getId(), subscriber);
+        return () -> this.disconnections.add(request.getId());
+    }, this.tasks::add, 2, OverflowStrategy.DROP_NEWEST, this.dropped::add);
+
+    private final TestSubscriber<LoggregatorMessage> subscriber = new TestSubscriber<>();
+
+    @Test
+    public void addAfterSubscribe() {
+        this.stream.add(new StreamLogsRequest().withId("test-id-1"));
+        this.stream.subscribe(this.subscriber);
+        request(Long.MAX_VALUE);
+
+        this.stream.add(new StreamLogsRequest().withId("test-id-2"));
+        runTasks();
+
+        this.connections.get("test-id-1").onNext(new LoggregatorMessage().withMessage("test-message-1"));
+        this.connections.get("test-id-2").onNext(new LoggregatorMessage().withMessage("test-message-2"));
+
+        assertEquals(2, this.subscriber.getOnNextEvents().size());
+        assertEquals("test-id-1", this.subscriber.getOnNextEvents().get(0).getApplicationId());
+        assertEquals("test-id-2", this.subscriber.getOnNextEvents().get(1).getApplicationId());
+    }
+
+    @Test
+    public void cancel() {
+        this.stream
+                .add(new StreamLogsRequest().withId("test-id-1"))
+                .add(new StreamLogsRequest().withId("test-id-2"));
+        this.stream.subscribe(this.subscriber);
+        request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        assertEquals(new HashSet<>(Arrays.asList("test-id-1", "test-id-2")), new HashSet<>(this.disconnections));
+    }
+
+    @Test
+    public void connectFailure() {
+        this.stream
+                .add(new StreamLogsRequest().withId("test-id-1"))
+                .add(new StreamLogsRequest().withId("test-id-invalid"));
+        this.stream.subscribe(this.subscriber);
+        request(Long.MAX_VALUE);
+
+        assertEquals(Collections.singleton("test-id-1"), this.stream.getApplicationIds());
+        assertTrue(this.stream.getFailures().get("test-id-invalid") instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void connectOnExecutor() {
+        this.stream.add(new StreamLogsRequest().withId("test-id"));
+        this.stream.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(this.connections.isEmpty());
+        assertEquals(1, this.tasks.size());
+
+        runTasks();
+
+        assertEquals(Collections.singleton("test-id"), this.connections.keySet());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.stream.add(new StreamLogsRequest().withId("test-id"));
+        this.stream.subscribe(this.subscriber);
+        runTasks();
+
+        assertTrue(this.connections.isEmpty());
+
+        request(1);
+
+        assertEquals(Collections.singleton("test-id"), this.connections.keySet());
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void invalidRequest() {
+        this.stream.add(new StreamLogsRequest());
+    }
+
+    @Test
+    public void remove() {
+        this.stream
+                .add(new StreamLogsRequest().withId("test-id-1"))
+                .add(new StreamLogsRequest().withId("test-id-2"));
+        this.stream.subscribe(this.subscriber);
+        request(Long.MAX_VALUE);
+
+        this.stream.remove("test-id-1");
+        this.connections.get("test-id-1").onNext(new LoggregatorMessage().withMessage("test-message-1"));
+
+        assertEquals(Collections.singletonList("test-id-1"), this.disconnections);
+        assertEquals(Collections.singleton("test-id-2"), this.stream.getApplicationIds());
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+    }
+
+    @Test
+    public void sessionFailure() {
+        this.stream
+                .add(new StreamLogsRequest().withId("test-id-1"))
+                .add(new StreamLogsRequest().withId("test-id-2"));
+        this.stream.subscribe(this.subscriber);
+        request(Long.MAX_VALUE);
+
+        IllegalStateException exception = new IllegalStateException();
+        this.connections.get("test-id-1").onError(exception);
+        this.connections.get("test-id-2").onNext(new LoggregatorMessage().withMessage("test-message-2"));
+
+        assertEquals(Collections.singleton("test-id-2"), this.stream.getApplicationIds());
+        assertEquals(Collections.singletonMap("test-id-1", exception), this.stream.getFailures());
+        assertEquals(1, this.subscriber.getOnNextEvents().size());
+        assertTrue(this.subscriber.getOnErrorEvents().isEmpty());
+    }
+
+    @Test
+    public void sharedBuffer() {
+        this.stream
+                .add(new StreamLogsRequest().withId("test-id-1"))
+                .add(new StreamLogsRequest().withId("test-id-2"));
+        this.stream.subscribe(this.subscriber);
+        request(1);
+
+        this.connections.get("test-id-1").onNext(new LoggregatorMessage().withMessage("test-message-1"));
+        this.connections.get("test-id-2").onNext(new LoggregatorMessage().withMessage("test-message-2"));
+        this.connections.get("test-id-1").onNext(new LoggregatorMessage().withMessage("test-message-3"));
+        this.connections.get("test-id-2").onNext(new LoggregatorMessage().withMessage("test-message-4"));
+
+        assertEquals(1, this.subscriber.getOnNextEvents().size());
+        assertEquals(1, this.dropped.size());
+        assertEquals("test-message-4", this.dropped.get(0).getMessage());
+    }
+
+    @Test
+    public void singleSubscriber() {
+        TestSubscriber<LoggregatorMessage> second = new TestSubscriber<>();
+
+        this.stream.subscribe(this.subscriber);
+        this.stream.subscribe(second);
+
+        assertTrue(second.getOnErrorEvents().get(0) instanceof IllegalStateException);
+    }
+
+    private void request(long n) {
+        this.subscriber.getOnSubscribeEvents().get(0).request(n);
+        runTasks();
+    }
+
+    private void runTasks() {
+        List<Runnable> tasks = new ArrayList<>(this.tasks);
+        this.tasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class ReconnectingSourceTest {
+
+    private final List<Subscriber<LoggregatorMessage>> connections = new ArrayList<>();
+
+    private final AtomicInteger disconnections = new AtomicInteger();
+
+    private volatile RuntimeException connectError;
+
+    private volatile boolean deferRecent = false;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final List<LoggregatorMessage> recent = new ArrayList<>();
+
+    private volatile RuntimeException recentError;
+
+    private final List<Subscriber<? super LoggregatorMessage>> recentSubscribers = new ArrayList<>();
+
+    private final TestScheduler scheduler = new TestScheduler();
+
+    private final ReconnectingSource source = new ReconnectingSource(subscriber -> {
+        this.connections.add(subscriber);
+        if (this.connectError != null) {
+            subscriber.onError(this.connectError);
+        }
+        return this.disconnections::incrementAndGet;
+    }, this::recent, this.scheduler, runnable -> {
+        this.executions.incrementAndGet();
+        runnable.run();
+    }, 1, 4, SECONDS, 5, throwable -> !(throwable instanceof UnsupportedOperationException));
+
+    private final TestSubscriber<LoggregatorMessage> subscriber = new TestSubscriber<>();
+
+    @Test
+    public void backoff() {
+        this.source.apply(this.subscriber);
+
+        connection().onError(new IllegalStateException());
+        this.scheduler.runPending();
+        connection().onError(new IllegalStateException());
+        this.scheduler.runPending();
+        connection().onError(new IllegalStateException());
+        this.scheduler.runPending();
+        connection().onError(new IllegalStateException());
+        this.scheduler.runPending();
+
+        connection().onNext(message(1, "test-message-1"));
+        connection().onError(new IllegalStateException());
+
+        assertEquals(Arrays.asList(1L, 2L, 4L, 4L, 1L), this.scheduler.delays);
+        assertTrue(this.subscriber.getOnErrorEvents().isEmpty());
+    }
+
+    @Test
+    public void completeWhileFilling() {
+        this.source.apply(this.subscriber);
+
+        connection().onNext(message(1, "test-message-1"));
+        connection().onError(new IllegalStateException());
+
+        this.deferRecent = true;
+        this.scheduler.runPending();
+
+        connection().onNext(message(3, "test-message-3"));
+        connection().onComplete();
+
+        assertTrue(this.subscriber.getOnCompleteEvents().isEmpty());
+
+        recentSubscriber().onNext(message(2, "test-message-2"));
+        recentSubscriber().onComplete();
+
+        assertEquals(Arrays.asList("test-message-1", "test-message-2", "test-message-3"), messages());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void completeWhileFillingFailure() {
+        this.source.apply(this.subscriber);
+
+        connection().onError(new IllegalStateException());
+
+        this.deferRecent = true;
+        this.scheduler.runPending();
+
+        connection().onNext(message(3, "test-message-3"));
+        connection().onComplete();
+        recentSubscriber().onError(new IllegalStateException());
+
+        assertEquals(Collections.singletonList("test-message-3"), messages());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+        assertTrue(this.scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void connectFailure() {
+        IllegalStateException exception = new IllegalStateException();
+        this.connectError = exception;
+
+        this.source.apply(this.subscriber);
+
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+        assertTrue(this.scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void complete() {
+        this.source.apply(this.subscriber);
+
+        connection().onComplete();
+
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+        assertTrue(this.scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void fillGap() {
+        this.source.apply(this.subscriber);
+
+        connection().onNext(message(1, "test-message-1"));
+        connection().onNext(message(2, "test-message-2"));
+        connection().onError(new IllegalStateException());
+
+        assertEquals(1, this.disconnections.get());
+
+        this.recent.addAll(Arrays.asList(message(4, "test-message-4"), message(0, "test-message-0"),
+                message(2, "test-message-2"), message(3, "test-message-3"), message(2, "test-message-2a")));
+        this.scheduler.runPending();
+
+        connection().onNext(message(4, "test-message-4"));
+        connection().onNext(message(5, "test-message-5"));
+
+        assertEquals(2, this.connections.size());
+        assertEquals(Arrays.asList("test-message-1", "test-message-2", "test-message-2a", "test-message-3",
+                "test-message-4", "test-message-5"), messages());
+    }
+
+    @Test
+    public void fillGapFailure() {
+        this.source.apply(this.subscriber);
+
+        connection().onNext(message(1, "test-message-1"));
+        connection().onError(new IllegalStateException());
+
+        this.recentError = new IllegalStateException();
+        this.scheduler.runPending();
+        connection().onNext(message(3, "test-message-3"));
+
+        assertEquals(2, this.disconnections.get());
+        assertEquals(1, this.scheduler.tasks.size());
+
+        this.recentError = null;
+        this.recent.addAll(Arrays.asList(message(2, "test-message-2"), message(3, "test-message-3")));
+        this.scheduler.runPending();
+
+        assertEquals(Arrays.asList("test-message-1", "test-message-2", "test-message-3"), messages());
+        assertTrue(this.subscriber.getOnErrorEvents().isEmpty());
+    }
+
+    @Test
+    public void maxAttempts() {
+        this.source.apply(this.subscriber);
+
+        for (int i = 0; i < 5; i++) {
+            connection().onError(new IllegalStateException());
+            this.scheduler.runPending();
+        }
+
+        IllegalStateException exception = new IllegalStateException();
+        connection().onError(exception);
+
+        assertEquals(6, this.connections.size());
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+        assertTrue(this.scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void notRetryable() {
+        this.source.apply(this.subscriber);
+
+        UnsupportedOperationException exception = new UnsupportedOperationException();
+        connection().onError(exception);
+
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+        assertEquals(1, this.disconnections.get());
+        assertTrue(this.scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void reconnectOnExecutor() {
+        this.source.apply(this.subscriber);
+
+        connection().onError(new IllegalStateException());
+
+        assertEquals(0, this.executions.get());
+
+        this.scheduler.runPending();
+
+        assertEquals(1, this.executions.get());
+        assertEquals(2, this.connections.size());
+    }
+
+    @Test
+    public void staleConnection() {
+        this.source.apply(this.subscriber);
+
+        Subscriber<LoggregatorMessage> stale = connection();
+        stale.onError(new IllegalStateException());
+        this.scheduler.runPending();
+
+        stale.onNext(message(1, "test-message-1"));
+        stale.onComplete();
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+        assertTrue(this.subscriber.getOnCompleteEvents().isEmpty());
+    }
+
+    @Test
+    public void staleFill() {
+        this.source.apply(this.subscriber);
+
+        connection().onError(new IllegalStateException());
+        this.deferRecent = true;
+        this.scheduler.runPending();
+
+        Subscriber<? super LoggregatorMessage> stale = recentSubscriber();
+        connection().onError(new IllegalStateException());
+        this.scheduler.runPending();
+
+        connection().onNext(message(5, "test-message-5"));
+        stale.onNext(message(4, "test-message-4"));
+        stale.onComplete();
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+
+        recentSubscriber().onComplete();
+
+        assertEquals(Collections.singletonList("test-message-5"), messages());
+    }
+
+    @Test
+    public void stop() {
+        Runnable stop = this.source.apply(this.subscriber);
+
+        connection().onError(new IllegalStateException());
+        stop.run();
+        this.scheduler.runPending();
+
+        assertEquals(1, this.connections.size());
+        assertEquals(1, this.disconnections.get());
+    }
+
+    private static LoggregatorMessage message(long timestamp, String message) {
+        return new LoggregatorMessage()
+                .withMessage(message)
+                .withSourceId("test-source-id")
+                .withTimestamp(new Date(timestamp));
+    }
+
+    private Subscriber<LoggregatorMessage> connection() {
+        return this.connections.get(this.connections.size() - 1);
+    }
+
+    private List<String> messages() {
+        return this.subscriber.getOnNextEvents().stream()
+                .map(LoggregatorMessage::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    private Publisher<LoggregatorMessage> recent() {
+        if (!this.deferRecent) {
+            return new ListPublisher(this.recent, this.recentError);
+        }
+
+        return subscriber -> {
+            this.recentSubscribers.add(subscriber);
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public void request(long n) {
+                }
+
+            });
+        };
+    }
+
+    private Subscriber<? super LoggregatorMessage> recentSubscriber() {
+        return this.recentSubscribers.get(this.recentSubscribers.size() - 1);
+    }
+
+    private static final class ListPublisher implements Publisher<LoggregatorMessage> {
+
+        private final RuntimeException error;
+
+        private final List<LoggregatorMessage> messages;
+
+        private ListPublisher(List<LoggregatorMessage> messages, RuntimeException error) {
+            this.error = error;
+            this.messages = messages;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super LoggregatorMessage> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public void request(long n) {
+                }
+
+            });
+
+            if (this.error != null) {
+                subscriber.onError(this.error);
+                return;
+            }
+
+            this.messages.forEach(subscriber::onNext);
+            subscriber.onComplete();
+        }
+
+    }
+
+    private static final class TestScheduler extends ScheduledThreadPoolExecutor {
+
+        private final List<Long> delays = new ArrayList<>();
+
+        private final List<TestFuture> tasks = new ArrayList<>();
+
+        private TestScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            TestFuture future = new TestFuture(command);
+
+            this.delays.add(delay);
+            this.tasks.add(future);
+            return future;
+        }
+
+        private void runPending() {
+            List<TestFuture> tasks = new ArrayList<>(this.tasks);
+            this.tasks.clear();
+
+            tasks.stream()
+                    .filter(task -> !task.isCancelled())
+                    .forEach(task -> task.command.run());
+        }
+
+    }
+
+    private static final class TestFuture implements ScheduledFuture<Object> {
+
+        private volatile boolean cancelled = false;
+
+        private final Runnable command;
+
+        private TestFuture(Runnable command) {
+            this.command = command;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            this.cancelled = true;
+            return true;
+        }
+
+        @Override
+        public int compareTo(Delayed delayed) {
+            return 0;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.cancelled;
+        }
+
+    }
+
+}
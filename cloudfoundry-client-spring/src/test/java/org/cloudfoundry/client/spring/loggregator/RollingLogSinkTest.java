@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.loggregator;
+
+import org.cloudfoundry.client.loggregator.LoggregatorMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.ERR;
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.OUT;
+import static org.junit.Assert.assertEquals;
+
+public final class RollingLogSinkTest {
+
+    private final Path directory;
+
+    public RollingLogSinkTest() throws IOException {
+        this.directory = Files.createTempDirectory("rolling-log-sink");
+    }
+
+    @After
+    public void clean() throws IOException {
+        for (Path segment : RollingLogReader.segments(this.directory, "test")) {
+            Files.delete(segment);
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void continueIndex() throws IOException {
+        RollingLogSink sink = new RollingLogSink(this.directory, "test", 1024, 1, HOURS);
+        sink.write(message("test-message-1", 1000));
+        sink.close();
+
+        sink = new RollingLogSink(this.directory, "test", 1024, 1, HOURS);
+        sink.write(message("test-message-2", 2000));
+        sink.close();
+
+        assertEquals(Arrays.asList(this.directory.resolve("test-0000000000.log"),
+                this.directory.resolve("test-0000000001.log")), RollingLogReader.segments(this.directory, "test"));
+        assertEquals(Arrays.asList("test-message-1", "test-message-2"), messages());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void messageLargerThanSegment() throws IOException {
+        RollingLogSink sink = new RollingLogSink(this.directory, "test", 16, 1, HOURS);
+        sink.write(message("test-message-larger-than-a-segment", 1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveSegmentSize() throws IOException {
+        new RollingLogSink(this.directory, "test", 0, 1, HOURS);
+    }
+
+    @Test
+    public void rollByAge() throws IOException {
+        RollingLogSink sink = new RollingLogSink(this.directory, "test", 1024, 0, NANOSECONDS);
+        sink.write(message("test-message-1", 1000));
+        sink.write(message("test-message-2", 2000));
+        sink.close();
+
+        assertEquals(2, RollingLogReader.segments(this.directory, "test").size());
+        assertEquals(Arrays.asList("test-message-1", "test-message-2"), messages());
+    }
+
+    @Test
+    public void rollBySize() throws IOException {
+        RollingLogSink sink = new RollingLogSink(this.directory, "test", 128, 1, HOURS);
+        for (int i = 0; i < 4; i++) {
+            sink.write(message("test-message-" + i, 1000 + i));
+        }
+        sink.close();
+
+        assertEquals(4, RollingLogReader.segments(this.directory, "test").size());
+        assertEquals(Arrays.asList("test-message-0", "test-message-1", "test-message-2", "test-message-3"),
+                messages());
+    }
+
+    @Test
+    public void write() throws IOException {
+        RollingLogSink sink = new RollingLogSink(this.directory, "test", 1024, 1, HOURS);
+        sink.write(message("test-message-1", 1000));
+        sink.write(message("test-message-2", 2000).withMessageType(ERR));
+        sink.close();
+
+        List<LoggregatorMessage> messages = RollingLogReader.replay(this.directory, "test").toList().get();
+
+        assertEquals(2, messages.size());
+        assertEquals("test-id", messages.get(0).getApplicationId());
+        assertEquals("test-message-1", messages.get(0).getMessage());
+        assertEquals(OUT, messages.get(0).getMessageType());
+        assertEquals("test-source-id", messages.get(0).getSourceId());
+        assertEquals("test-source-name", messages.get(0).getSourceName());
+        assertEquals(new Date(1000), messages.get(0).getTimestamp());
+        assertEquals("test-message-2", messages.get(1).getMessage());
+        assertEquals(ERR, messages.get(1).getMessageType());
+    }
+
+    private static LoggregatorMessage message(String message, long timestamp) {
+        return new LoggregatorMessage()
+                .withApplicationId("test-id")
+                .withMessage(message)
+                .withMessageType(OUT)
+                .withSourceId("test-source-id")
+                .withSourceName("test-source-name")
+                .withTimestamp(new Date(timestamp));
+    }
+
+    private List<String> messages() {
+        return RollingLogReader.replay(this.directory, "test")
+                .map(LoggregatorMessage::getMessage)
+                .toList().get();
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public final class AdaptiveConcurrencyLimiterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    public void decrease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+
+        limiter.acquire(() -> this.started.add("test-request-1"), Runnable::run);
+        limiter.release(100, false);
+
+        assertEquals(4, limiter.getLimit());
+
+        limiter.acquire(() -> this.started.add("test-request-2"), Runnable::run);
+        limiter.release(10000, false);
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void increase() {
+        this.limiter.acquire(() -> this.started.add("test-request-1"), Runnable::run);
+        this.limiter.acquire(() -> this.started.add("test-request-2"), Runnable::run);
+        this.limiter.release(100, false);
+        this.limiter.release(100, false);
+
+        assertEquals(3, this.limiter.getLimit());
+    }
+
+    @Test
+    public void increaseOnlyWhenUsed() {
+        for (int i = 0; i < 10; i++) {
+            this.limiter.acquire(() -> this.started.add("test-request"), Runnable::run);
+            this.limiter.release(100, false);
+        }
+
+        assertEquals(3, this.limiter.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimits() {
+        new AdaptiveConcurrencyLimiter(5, 1, 4);
+    }
+
+    @Test
+    public void overload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 40);
+
+        limiter.acquire(() -> this.started.add("test-request"), Runnable::run);
+        limiter.release(100, true);
+
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    public void queue() {
+        this.limiter.acquire(() -> this.started.add("test-request-1"), Runnable::run);
+        this.limiter.acquire(() -> this.started.add("test-request-2"), Runnable::run);
+        this.limiter.acquire(() -> this.started.add("test-request-3"), Runnable::run);
+
+        assertEquals(2, this.limiter.getInFlight());
+        assertEquals(1, this.limiter.getQueued());
+
+        this.limiter.release();
+
+        assertEquals(2, this.limiter.getInFlight());
+        assertEquals(0, this.limiter.getQueued());
+        assertEquals(3, this.started.size());
+    }
+
+    @Test
+    public void queueNotRecursive() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        List<Integer> depths = new ArrayList<>();
+
+        limiter.acquire(() -> {
+        }, Runnable::run);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(() -> {
+                depths.add(Thread.currentThread().getStackTrace().length);
+                limiter.release();
+            }, Runnable::run);
+        }
+        limiter.release();
+
+        assertEquals(3, depths.size());
+        assertEquals(depths.get(0), depths.get(2));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void queueOnExecutor() {
+        List<Runnable> executed = new ArrayList<>();
+
+        this.limiter.acquire(() -> this.started.add("test-request-1"), executed::add);
+        this.limiter.acquire(() -> this.started.add("test-request-2"), executed::add);
+        this.limiter.acquire(() -> this.started.add("test-request-3"), executed::add);
+        this.limiter.release();
+
+        assertEquals(2, this.started.size());
+        assertEquals(1, executed.size());
+
+        executed.get(0).run();
+
+        assertEquals("test-request-3", this.started.get(2));
+    }
+
+}
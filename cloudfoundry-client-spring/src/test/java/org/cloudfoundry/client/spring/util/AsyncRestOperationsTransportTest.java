@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.RequestEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRequestCallback;
+import org.springframework.web.client.AsyncRestOperations;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class AsyncRestOperationsTransportTest {
+
+    private final AsyncRestOperations asyncRestOperations = mock(AsyncRestOperations.class);
+
+    private final RequestEntity<?> requestEntity = new RequestEntity<>(GET, URI.create("https://test-host"));
+
+    @Test
+    public void execute() throws ExecutionException, InterruptedException {
+        respond("test-body");
+
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> extracted = new ArrayList<>();
+        ListenableFuture<String> future = new AsyncRestOperationsTransport(this.asyncRestOperations, tasks::add)
+                .execute(this.requestEntity, response -> {
+                    String body = new String(StreamUtils.copyToByteArray(response.getBody()), StandardCharsets.UTF_8);
+                    extracted.add(body);
+                    return body;
+                });
+
+        assertFalse(future.isDone());
+        assertTrue(extracted.isEmpty());
+
+        tasks.forEach(Runnable::run);
+
+        assertTrue(future.isDone());
+        assertEquals("test-body", future.get());
+    }
+
+    @Test
+    public void executeFailure() throws InterruptedException {
+        respond("test-body");
+
+        IllegalStateException exception = new IllegalStateException();
+        ListenableFuture<String> future = new AsyncRestOperationsTransport(this.asyncRestOperations, Runnable::run)
+                .execute(this.requestEntity, response -> {
+                    throw exception;
+                });
+
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(String body) {
+        when(this.asyncRestOperations.execute(eq(URI.create("https://test-host")), eq(GET),
+                any(AsyncRequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    SettableListenableFuture<Object> response = new SettableListenableFuture<>();
+                    response.set(invocation.getArgumentAt(3, ResponseExtractor.class)
+                            .extractData(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), OK)));
+                    return response;
+                });
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class BatchingPublisherTest {
+
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+
+    private final AtomicReference<Subscriber<String>> source = new AtomicReference<>();
+
+    private final AtomicInteger stopped = new AtomicInteger();
+
+    private final BatchingPublisher<String> publisher = new BatchingPublisher<>(
+            new BufferingPublisher<String>(subscriber -> {
+                this.source.set(subscriber);
+                return this.stopped::incrementAndGet;
+            }), 3, 100, MILLISECONDS, this.scheduler);
+
+    private final TestSubscriber<List<String>> subscriber = new TestSubscriber<>();
+
+    @After
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void cancel() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        assertEquals(1, this.stopped.get());
+    }
+
+    @Test
+    public void complete() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onComplete();
+
+        assertEquals(Collections.singletonList(Collections.singletonList("test-value-1")),
+                this.subscriber.getOnNextEvents());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.publisher.subscribe(this.subscriber);
+
+        assertNull(this.source.get());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(this.source.get() != null);
+    }
+
+    @Test
+    public void maxDelay() throws InterruptedException {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (this.subscriber.getOnNextEvents().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Collections.singletonList(Arrays.asList("test-value-1", "test-value-2")),
+                this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void maxSize() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+        this.source.get().onNext("test-value-4");
+        this.source.get().onNext("test-value-5");
+        this.source.get().onNext("test-value-6");
+        this.source.get().onNext("test-value-7");
+
+        assertEquals(Collections.singletonList(Arrays.asList("test-value-1", "test-value-2", "test-value-3")),
+                this.subscriber.getOnNextEvents());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(Arrays.asList(Arrays.asList("test-value-1", "test-value-2", "test-value-3"),
+                Arrays.asList("test-value-4", "test-value-5", "test-value-6")), this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void nonPositiveRequest() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(0);
+
+        assertTrue(this.subscriber.getOnErrorEvents().get(0) instanceof IllegalArgumentException);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveSize() {
+        new BatchingPublisher<>(new BufferingPublisher<String>(subscriber -> () -> {
+        }), 0, 100, MILLISECONDS, this.scheduler);
+    }
+
+}
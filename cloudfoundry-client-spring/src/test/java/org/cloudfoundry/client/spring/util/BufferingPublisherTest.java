@@ -0,0 +1,234 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class BufferingPublisherTest {
+
+    private final AtomicInteger started = new AtomicInteger();
+
+    private final AtomicInteger stopped = new AtomicInteger();
+
+    private final AtomicReference<Subscriber<String>> source = new AtomicReference<>();
+
+    private final BufferingPublisher<String> publisher = new BufferingPublisher<>(subscriber -> {
+        this.started.incrementAndGet();
+        this.source.set(subscriber);
+        return this.stopped::incrementAndGet;
+    });
+
+    private final TestSubscriber<String> subscriber = new TestSubscriber<>();
+
+    private final List<String> dropped = new ArrayList<>();
+
+    @Test
+    public void block() throws InterruptedException {
+        bounded(OverflowStrategy.BLOCK).subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+
+        CountDownLatch pushed = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            this.source.get().onNext("test-value-4");
+            pushed.countDown();
+        });
+        producer.start();
+
+        assertFalse(pushed.await(100, TimeUnit.MILLISECONDS));
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(pushed.await(5, TimeUnit.SECONDS));
+        producer.join();
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(2);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3", "test-value-4"),
+                this.subscriber.getOnNextEvents());
+        assertTrue(this.dropped.isEmpty());
+    }
+
+    @Test
+    public void buffersUntilRequested() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+
+        assertEquals(Collections.singletonList("test-value-1"), this.subscriber.getOnNextEvents());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(2);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3"),
+                this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void cancel() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        this.source.get().onNext("test-value");
+
+        assertEquals(1, this.stopped.get());
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+    }
+
+    @Test
+    public void completeAfterBuffer() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onComplete();
+
+        assertTrue(this.subscriber.getOnCompleteEvents().isEmpty());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2"), this.subscriber.getOnNextEvents());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.publisher.subscribe(this.subscriber);
+
+        assertEquals(0, this.started.get());
+        assertNull(this.source.get());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(1, this.started.get());
+    }
+
+    @Test
+    public void dropNewest() {
+        bounded(OverflowStrategy.DROP_NEWEST).subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+        this.source.get().onNext("test-value-4");
+        this.source.get().onNext("test-value-5");
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3"),
+                this.subscriber.getOnNextEvents());
+        assertEquals(Arrays.asList("test-value-4", "test-value-5"), this.dropped);
+    }
+
+    @Test
+    public void dropOldest() {
+        bounded(OverflowStrategy.DROP_OLDEST).subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+        this.source.get().onNext("test-value-4");
+        this.source.get().onNext("test-value-5");
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-4", "test-value-5"),
+                this.subscriber.getOnNextEvents());
+        assertEquals(Arrays.asList("test-value-2", "test-value-3"), this.dropped);
+    }
+
+    @Test
+    public void error() {
+        IllegalStateException exception = new IllegalStateException();
+
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.source.get().onError(exception);
+
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+        assertEquals(1, this.stopped.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveCapacity() {
+        new BufferingPublisher<String>(subscriber -> () -> {
+        }, 0, OverflowStrategy.BLOCK, this.dropped::add);
+    }
+
+    @Test
+    public void nonPositiveRequest() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(0);
+
+        assertTrue(this.subscriber.getOnErrorEvents().get(0) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void sample() {
+        bounded(OverflowStrategy.SAMPLE).subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("test-value-1");
+        this.source.get().onNext("test-value-2");
+        this.source.get().onNext("test-value-3");
+        this.source.get().onNext("test-value-4");
+        this.source.get().onNext("test-value-5");
+        this.source.get().onComplete();
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3", "test-value-5"),
+                this.subscriber.getOnNextEvents());
+        assertEquals(Collections.singletonList("test-value-4"), this.dropped);
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    private BufferingPublisher<String> bounded(OverflowStrategy overflowStrategy) {
+        return new BufferingPublisher<>(subscriber -> {
+            this.source.set(subscriber);
+            return this.stopped::incrementAndGet;
+        }, 2, overflowStrategy, this.dropped::add);
+    }
+
+}
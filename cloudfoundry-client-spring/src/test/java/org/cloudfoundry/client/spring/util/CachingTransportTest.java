@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PUT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class CachingTransportTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ResponseCache cache = new ResponseCache(10, 1024, 30, SECONDS, this.clock::get);
+
+    private final StubTransport delegate = new StubTransport();
+
+    private final CachingTransport transport = transport("test-principal");
+
+    @Test
+    public void cancel() {
+        this.transport.exchange(request(GET, "test-1"), String.class).cancel(true);
+
+        assertTrue(this.delegate.responses.get(0).isCancelled());
+    }
+
+    @Test
+    public void hit() throws Exception {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "test-body");
+
+        assertEquals("test-body", first.get().getBody());
+
+        ResponseEntity<String> second = this.transport.exchange(request(GET, "test-1"), String.class).get();
+
+        assertEquals("test-body", second.getBody());
+        assertEquals(OK, second.getStatusCode());
+        assertEquals(1, this.delegate.requests.size());
+        assertEquals(1, this.cache.getHits());
+        assertEquals(1, this.cache.getMisses());
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "test-body-1");
+        this.transport.exchange(request(GET, "test-2"), String.class);
+        this.delegate.respond(1, OK, new HttpHeaders(), "test-body-2");
+
+        ListenableFuture<ResponseEntity<String>> put = this.transport.exchange(request(PUT, "test-1"), String.class);
+        this.delegate.respond(2, OK, new HttpHeaders(), null);
+        put.get();
+
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+        this.delegate.respond(3, OK, new HttpHeaders(), "test-body-3");
+
+        assertEquals("test-body-3", future.get().getBody());
+        assertEquals("test-body-2", this.transport.exchange(request(GET, "test-2"), String.class).get().getBody());
+        assertEquals(4, this.delegate.requests.size());
+    }
+
+    @Test
+    public void invalidateError() throws Exception {
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "test-body");
+
+        ListenableFuture<ResponseEntity<String>> put = this.transport.exchange(request(PUT, "test-1"), String.class);
+        this.delegate.respond(1, NOT_FOUND, new HttpHeaders(), null);
+        put.get();
+
+        assertEquals("test-body", this.transport.exchange(request(GET, "test-1"), String.class).get().getBody());
+        assertEquals(2, this.delegate.requests.size());
+    }
+
+    @Test
+    public void noMessageConverter() throws Exception {
+        ListenableFuture<ResponseEntity<Integer>> future = this.transport.exchange(request(GET, "test-1"),
+                Integer.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "1");
+
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RestClientException);
+        }
+    }
+
+    @Test
+    public void noStore() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CACHE_CONTROL, "private, no-store");
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, headers, "test-body");
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.requests.size());
+        assertEquals(0, this.cache.getEntries());
+    }
+
+    @Test
+    public void nonGet() {
+        this.transport.exchange(request(PUT, "test-1"), String.class);
+
+        assertEquals(PUT, this.delegate.requests.get(0).getMethod());
+        assertEquals(0, this.cache.getMisses());
+    }
+
+    @Test
+    public void notOk() throws Exception {
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+        this.delegate.respond(0, NOT_FOUND, new HttpHeaders(), "test-body");
+
+        assertEquals(NOT_FOUND, future.get().getStatusCode());
+        assertEquals(0, this.cache.getEntries());
+    }
+
+    @Test
+    public void revalidateModified() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, headers, "test-body-1");
+
+        this.clock.addAndGet(SECONDS.toNanos(30));
+
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT",
+                this.delegate.requests.get(1).getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+
+        this.delegate.respond(1, OK, new HttpHeaders(), "test-body-2");
+
+        assertEquals("test-body-2", future.get().getBody());
+        assertEquals(0, this.cache.getRevalidations());
+
+        assertEquals("test-body-2", this.transport.exchange(request(GET, "test-1"), String.class).get().getBody());
+    }
+
+    @Test
+    public void revalidateNotModified() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ETAG, "\"test-etag\"");
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, headers, "test-body");
+
+        this.clock.addAndGet(SECONDS.toNanos(30));
+
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+
+        assertEquals("\"test-etag\"", this.delegate.requests.get(1).getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        this.delegate.respond(1, NOT_MODIFIED, new HttpHeaders(), null);
+
+        assertEquals("test-body", future.get().getBody());
+        assertEquals(OK, future.get().getStatusCode());
+        assertEquals(1, this.cache.getRevalidations());
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.requests.size());
+    }
+
+    @Test
+    public void staleWithoutValidators() throws Exception {
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "test-body");
+
+        this.clock.addAndGet(SECONDS.toNanos(30));
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.requests.size());
+        assertNull(this.delegate.requests.get(1).getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertNull(this.delegate.requests.get(1).getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    public void principals() throws Exception {
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(0, OK, new HttpHeaders(), "test-body-1");
+
+        transport("test-principal-2").exchange(request(GET, "test-1"), String.class);
+        this.delegate.respond(1, OK, new HttpHeaders(), "test-body-2");
+
+        assertEquals("test-body-1", this.transport.exchange(request(GET, "test-1"), String.class).get().getBody());
+        assertEquals("test-body-2", transport("test-principal-2").exchange(request(GET, "test-1"), String.class).get()
+                .getBody());
+        assertEquals(2, this.delegate.requests.size());
+    }
+
+    private static RequestEntity<?> request(HttpMethod method, String path) {
+        return new RequestEntity<>(method, URI.create("https://api.run.pivotal.io/v2/" + path));
+    }
+
+    private CachingTransport transport(String principal) {
+        return new CachingTransport(this.delegate, this.cache, principal,
+                Collections.singletonList(new StringHttpMessageConverter()));
+    }
+
+    private static final class StubTransport implements Transport {
+
+        private final List<RequestEntity<?>> requests = new ArrayList<>();
+
+        private final List<SettableListenableFuture<Object>> responses = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+            SettableListenableFuture<Object> future = new SettableListenableFuture<>();
+            this.requests.add(requestEntity);
+            this.responses.add(future);
+            return (ListenableFuture<ResponseEntity<T>>) (ListenableFuture<?>) future;
+        }
+
+        @Override
+        public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void respond(int index, HttpStatus status, HttpHeaders headers, String body) {
+            this.responses.get(index).set(new ResponseEntity<>(body != null ?
+                    body.getBytes(StandardCharsets.UTF_8) : null, headers, status));
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PUT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+public final class CoalescingTransportTest {
+
+    private final StubTransport delegate = new StubTransport();
+
+    private final CoalescingTransport transport = new CoalescingTransport(this.delegate,
+            Collections.singletonList(new StringHttpMessageConverter()));
+
+    @Test
+    public void cancelAll() {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(request(GET, "test-1"), String.class);
+        ListenableFuture<ResponseEntity<String>> second = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+
+        first.cancel(true);
+
+        assertFalse(this.delegate.responses.get(0).isCancelled());
+
+        second.cancel(true);
+
+        assertTrue(this.delegate.responses.get(0).isCancelled());
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.responses.size());
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(request(GET, "test-1"), String.class);
+        ListenableFuture<ResponseEntity<String>> second = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+
+        assertEquals(1, this.delegate.responses.size());
+        assertEquals(1, this.transport.getCoalescedExchanges());
+
+        this.delegate.respond(0, "test-body");
+
+        assertEquals("test-body", first.get().getBody());
+        assertEquals("test-body", second.get().getBody());
+        assertEquals(OK, second.get().getStatusCode());
+        assertNotSame(first.get(), second.get());
+        assertNotSame(first.get().getHeaders(), second.get().getHeaders());
+
+        this.transport.exchange(request(GET, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.responses.size());
+    }
+
+    @Test
+    public void differentResponseTypes() throws Exception {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(request(GET, "test-1"), String.class);
+        ListenableFuture<ResponseEntity<Integer>> second = this.transport.exchange(request(GET, "test-1"),
+                Integer.class);
+
+        assertEquals(1, this.delegate.responses.size());
+
+        this.delegate.respond(0, "test-body");
+
+        assertEquals("test-body", first.get().getBody());
+        assertTrue(failure(second) instanceof RestClientException);
+    }
+
+    @Test
+    public void differentUrls() {
+        this.transport.exchange(request(GET, "test-1"), String.class);
+        this.transport.exchange(request(GET, "test-2"), String.class);
+
+        assertEquals(2, this.delegate.responses.size());
+    }
+
+    @Test
+    public void failure() throws InterruptedException {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(request(GET, "test-1"), String.class);
+        ListenableFuture<ResponseEntity<String>> second = this.transport.exchange(request(GET, "test-1"),
+                String.class);
+
+        HttpServerErrorException exception = new HttpServerErrorException(SERVICE_UNAVAILABLE);
+        this.delegate.responses.get(0).setException(exception);
+
+        assertSame(exception, failure(first));
+        assertSame(exception, failure(second));
+    }
+
+    @Test
+    public void nonGet() {
+        this.transport.exchange(request(PUT, "test-1"), String.class);
+        this.transport.exchange(request(PUT, "test-1"), String.class);
+
+        assertEquals(2, this.delegate.responses.size());
+    }
+
+    private static Throwable failure(ListenableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        throw new AssertionError("Expected failure");
+    }
+
+    private static RequestEntity<?> request(HttpMethod method, String path) {
+        return new RequestEntity<>(method, URI.create("https://api.run.pivotal.io/v2/" + path));
+    }
+
+    private static final class StubTransport implements Transport {
+
+        private final List<SettableListenableFuture<Object>> responses = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+            SettableListenableFuture<Object> future = new SettableListenableFuture<>();
+            this.responses.add(future);
+            return (ListenableFuture<ResponseEntity<T>>) (ListenableFuture<?>) future;
+        }
+
+        @Override
+        public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void respond(int index, String body) {
+            this.responses.get(index).set(new ResponseEntity<>(body.getBytes(StandardCharsets.UTF_8), OK));
+        }
+
+    }
+
+}
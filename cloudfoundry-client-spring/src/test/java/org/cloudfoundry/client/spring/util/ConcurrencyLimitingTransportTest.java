@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+public final class ConcurrencyLimitingTransportTest {
+
+    private final StubTransport delegate = new StubTransport();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+
+    private final RequestEntity<?> request = new RequestEntity<>(GET, URI.create("https://api.run.pivotal.io/v2/test"));
+
+    private final ConcurrencyLimitingTransport transport = new ConcurrencyLimitingTransport(this.delegate,
+            this.limiter, Runnable::run);
+
+    @Test
+    public void cancelInFlight() {
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(this.request, String.class);
+        this.transport.exchange(this.request, String.class);
+
+        future.cancel(true);
+
+        assertTrue(this.delegate.responses.get(0).isCancelled());
+        assertEquals(2, this.delegate.responses.size());
+    }
+
+    @Test
+    public void cancelQueued() {
+        this.transport.exchange(this.request, String.class);
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(this.request, String.class);
+
+        future.cancel(true);
+        this.delegate.responses.get(0).set(new ResponseEntity<>("test-body", OK));
+
+        assertEquals(1, this.delegate.responses.size());
+        assertEquals(0, this.limiter.getInFlight());
+    }
+
+    @Test
+    public void execute() {
+        this.transport.exchange(this.request, String.class);
+        ListenableFuture<String> future = this.transport.execute(this.request, response -> "");
+        this.delegate.responses.get(1).set("test-body");
+
+        assertTrue(future.isDone());
+        assertEquals(1, this.limiter.getInFlight());
+        assertEquals(0, this.limiter.getQueued());
+    }
+
+    @Test
+    public void limit() {
+        ListenableFuture<ResponseEntity<String>> first = this.transport.exchange(this.request, String.class);
+        ListenableFuture<ResponseEntity<String>> second = this.transport.exchange(this.request, String.class);
+
+        assertEquals(1, this.delegate.responses.size());
+        assertEquals(1, this.limiter.getQueued());
+
+        this.delegate.responses.get(0).set(new ResponseEntity<>("test-body", OK));
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(2, this.delegate.responses.size());
+        assertEquals(1, this.limiter.getInFlight());
+    }
+
+    @Test
+    public void overload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10);
+        ConcurrencyLimitingTransport transport = new ConcurrencyLimitingTransport(this.delegate, limiter,
+                Runnable::run);
+
+        transport.exchange(this.request, String.class);
+        this.delegate.responses.get(0).setException(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static final class StubTransport implements Transport {
+
+        private final List<SettableListenableFuture<Object>> responses = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+            return (ListenableFuture<ResponseEntity<T>>) (ListenableFuture<?>) respond();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+            return (ListenableFuture<T>) (ListenableFuture<?>) respond();
+        }
+
+        private ListenableFuture<Object> respond() {
+            SettableListenableFuture<Object> future = new SettableListenableFuture<>();
+            this.responses.add(future);
+            return future;
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public final class IdleTimeoutConnectionKeepAliveStrategyTest {
+
+    private final IdleTimeoutConnectionKeepAliveStrategy strategy = new IdleTimeoutConnectionKeepAliveStrategy(10_000);
+
+    @Test
+    public void noServerTimeout() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+
+        assertEquals(10_000, this.strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void longerServerTimeout() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.addHeader("Keep-Alive", "timeout=60");
+
+        assertEquals(10_000, this.strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void shorterServerTimeout() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.addHeader("Keep-Alive", "timeout=5");
+
+        assertEquals(5_000, this.strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.Test;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class ListenableFuturePublisherTest {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final SettableListenableFuture<String> future = new SettableListenableFuture<>();
+
+    private final ListenableFuturePublisher<String> publisher = new ListenableFuturePublisher<>(() -> {
+        this.count.incrementAndGet();
+        return this.future;
+    }, Function.identity());
+
+    private final TestSubscriber<String> subscriber = new TestSubscriber<>();
+
+    @Test
+    public void cancel() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        assertTrue(this.future.isCancelled());
+        assertTrue(this.subscriber.getOnErrorEvents().isEmpty());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.publisher.subscribe(this.subscriber);
+
+        assertEquals(0, this.count.get());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(1, this.count.get());
+    }
+
+    @Test
+    public void failure() {
+        IllegalStateException exception = new IllegalStateException();
+        this.future.setException(exception);
+
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+    }
+
+    @Test
+    public void nonPositiveRequest() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(-1);
+
+        assertEquals(0, this.count.get());
+        assertTrue(this.subscriber.getOnErrorEvents().get(0) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void nullResult() {
+        this.future.set(null);
+
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void success() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.future.set("test-value");
+
+        assertEquals(Collections.singletonList("test-value"), this.subscriber.getOnNextEvents());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class MergingPublisherTest {
+
+    private final AtomicReference<Subscriber<Integer>> source1 = new AtomicReference<>();
+
+    private final AtomicReference<Subscriber<Integer>> source2 = new AtomicReference<>();
+
+    private final AtomicInteger stopped = new AtomicInteger();
+
+    private final MergingPublisher<Integer> publisher = new MergingPublisher<>(Arrays.asList(
+            source(this.source1), source(this.source2)), Comparator.naturalOrder(), 4);
+
+    private final TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+    @Test
+    public void cancel() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        assertEquals(2, this.stopped.get());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.publisher.subscribe(this.subscriber);
+
+        assertNull(this.source1.get());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(this.source1.get() != null);
+        assertTrue(this.source2.get() != null);
+    }
+
+    @Test
+    public void error() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        IllegalStateException exception = new IllegalStateException();
+        this.source1.get().onError(exception);
+
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+        assertEquals(2, this.stopped.get());
+    }
+
+    @Test
+    public void merge() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source1.get().onNext(1);
+        this.source1.get().onNext(4);
+        this.source2.get().onNext(2);
+        this.source2.get().onNext(3);
+        this.source2.get().onNext(5);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), this.subscriber.getOnNextEvents());
+
+        this.source1.get().onComplete();
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), this.subscriber.getOnNextEvents());
+        assertTrue(this.subscriber.getOnCompleteEvents().isEmpty());
+
+        this.source2.get().onComplete();
+
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void mergeEqual() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        Integer first = new Integer(1000);
+        Integer second = new Integer(1000);
+
+        this.source2.get().onNext(second);
+        this.source1.get().onNext(first);
+        this.source1.get().onComplete();
+        this.source2.get().onComplete();
+
+        assertSame(first, this.subscriber.getOnNextEvents().get(0));
+        assertSame(second, this.subscriber.getOnNextEvents().get(1));
+    }
+
+    @Test
+    public void mergeRequested() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source1.get().onNext(2);
+        this.source2.get().onNext(1);
+        this.source2.get().onNext(3);
+
+        assertEquals(Collections.singletonList(1), this.subscriber.getOnNextEvents());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(Arrays.asList(1, 2), this.subscriber.getOnNextEvents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositivePrefetch() {
+        new MergingPublisher<>(Collections.<BufferingPublisher<Integer>>emptyList(), Comparator.<Integer>naturalOrder(),
+                0);
+    }
+
+    @Test
+    public void nonPositiveRequest() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(0);
+
+        assertTrue(this.subscriber.getOnErrorEvents().get(0) instanceof IllegalArgumentException);
+    }
+
+    private BufferingPublisher<Integer> source(AtomicReference<Subscriber<Integer>> reference) {
+        return new BufferingPublisher<>(subscriber -> {
+            reference.set(subscriber);
+            return this.stopped::incrementAndGet;
+        });
+    }
+
+}
@@ -20,7 +20,14 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 import static org.junit.Assert.assertEquals;
@@ -29,12 +36,45 @@ public final class MultipartTest {
 
     private static final String BOUNDARY = "90ad9060c87222ee30ddcffe751393a7c5734c48e070a623121abf82eb3c";
 
+    @Test
+    public void compaction() {
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            parts.add(content(i, 200));
+        }
+
+        assertEquals(parts, read(new ChunkedInputStream(body(parts), 1000)));
+    }
+
+    @Test
+    public void delimiterSplitAcrossReads() {
+        List<String> parts = Arrays.asList("test-part-1", "test-part-2", "test-part-3");
+
+        assertEquals(parts, read(new ChunkedInputStream(body(parts), 1)));
+    }
+
+    @Test
+    public void growth() {
+        List<String> parts = Arrays.asList(content(0, 20 * 1024), "test-part", content(1, 30 * 1024));
+
+        assertEquals(parts, read(new ChunkedInputStream(body(parts), 7)));
+    }
+
+    @Test
+    public void smallReads() throws IOException {
+        ChunkedInputStream inputStream = new ChunkedInputStream(
+                new ClassPathResource("loggregator_response.bin").getInputStream(), 3);
+
+        assertEquals(14, read(inputStream).size());
+    }
+
     @Test
     public void test() throws IOException {
         Long count = Multipart.from(new ClassPathResource("loggregator_response.bin").getInputStream(), BOUNDARY)
                 .map(part -> {
                     try {
-                        return LogMessage.parseFrom(part);
+                        return LogMessage.PARSER.parseFrom(part.array(), part.arrayOffset() + part.position(),
+                                part.remaining());
                     } catch (InvalidProtocolBufferException e) {
                         throw new RuntimeException(e);
                     }
@@ -44,4 +84,51 @@ public final class MultipartTest {
 
         assertEquals(Long.valueOf(14), count);
     }
+
+    private static InputStream body(List<String> parts) {
+        StringBuilder body = new StringBuilder("test-preamble");
+        parts.forEach(part -> body.append("\r\n--").append(BOUNDARY).append("\r\n")
+                .append("Content-Type: text/plain\r\n\r\n")
+                .append(part));
+        body.append("\r\n--").append(BOUNDARY).append("--\r\ntest-epilogue");
+
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String content(int seed, int length) {
+        StringBuilder content = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            content.append((char) ('a' + (seed + i) % 26));
+        }
+
+        return content.toString();
+    }
+
+    private static List<String> read(InputStream inputStream) {
+        return Multipart.from(inputStream, BOUNDARY)
+                .map(part -> {
+                    byte[] bytes = new byte[part.remaining()];
+                    part.get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                })
+                .toList()
+                .get();
+    }
+
+    private static final class ChunkedInputStream extends FilterInputStream {
+
+        private final int chunkSize;
+
+        private ChunkedInputStream(InputStream in, int chunkSize) {
+            super(in);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, this.chunkSize));
+        }
+
+    }
+
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AsyncClientHttpRequest;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2RestOperations;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+public final class OAuth2AsyncClientHttpRequestFactoryTest {
+
+    private final OAuth2ClientContext clientContext = new DefaultOAuth2ClientContext();
+
+    private final StubRequestFactory delegate = new StubRequestFactory();
+
+    private final List<Runnable> fetches = new ArrayList<>();
+
+    private final OAuth2RestOperations restOperations = mock(OAuth2RestOperations.class);
+
+    private final URI uri = URI.create("https://api.run.pivotal.io/v2/apps");
+
+    private final OAuth2AsyncClientHttpRequestFactory requestFactory = new OAuth2AsyncClientHttpRequestFactory(
+            this.delegate, this.restOperations, this.fetches::add);
+
+    @Test
+    public void executeAsync() throws Exception {
+        when(this.restOperations.getOAuth2ClientContext()).thenReturn(this.clientContext);
+        this.clientContext.setAccessToken(new DefaultOAuth2AccessToken("test-access-token"));
+
+        ListenableFuture<ClientHttpResponse> future = execute("test-body");
+        ClientHttpResponse response = respond(0, new MockClientHttpResponse(new byte[0], OK));
+
+        assertTrue(this.fetches.isEmpty());
+        assertEquals("Bearer test-access-token", this.delegate.requests.get(0).getHeaders().getFirst(AUTHORIZATION));
+        assertEquals("test-value", this.delegate.requests.get(0).getHeaders().getFirst("test-header"));
+        assertEquals("test-body", this.delegate.requests.get(0).body.toString("UTF-8"));
+        assertSame(response, future.get(1, SECONDS));
+    }
+
+    @Test
+    public void executeAsyncInvalidToken() throws Exception {
+        when(this.restOperations.getOAuth2ClientContext()).thenReturn(this.clientContext);
+        when(this.restOperations.getAccessToken()).thenReturn(new DefaultOAuth2AccessToken("test-new-access-token"));
+        this.clientContext.setAccessToken(new DefaultOAuth2AccessToken("test-access-token"));
+
+        ListenableFuture<ClientHttpResponse> future = execute("test-body");
+        MockClientHttpResponse unauthorized = new MockClientHttpResponse(new byte[0], UNAUTHORIZED);
+        unauthorized.getHeaders().add(WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        respond(0, unauthorized);
+
+        assertFalse(future.isDone());
+        runFetches();
+        ClientHttpResponse response = respond(1, new MockClientHttpResponse(new byte[0], OK));
+
+        assertEquals("Bearer test-new-access-token",
+                this.delegate.requests.get(1).getHeaders().getFirst(AUTHORIZATION));
+        assertEquals("test-body", this.delegate.requests.get(1).body.toString("UTF-8"));
+        assertSame(response, future.get(1, SECONDS));
+    }
+
+    @Test
+    public void executeAsyncNoToken() throws Exception {
+        when(this.restOperations.getOAuth2ClientContext()).thenReturn(this.clientContext);
+        when(this.restOperations.getAccessToken()).thenReturn(new DefaultOAuth2AccessToken("test-access-token"));
+
+        ListenableFuture<ClientHttpResponse> future = execute("test-body");
+
+        assertTrue(this.delegate.requests.isEmpty());
+        runFetches();
+        ClientHttpResponse response = respond(0, new MockClientHttpResponse(new byte[0], OK));
+
+        assertEquals("Bearer test-access-token", this.delegate.requests.get(0).getHeaders().getFirst(AUTHORIZATION));
+        assertSame(response, future.get(1, SECONDS));
+    }
+
+    @Test
+    public void executeAsyncUnauthorized() throws Exception {
+        when(this.restOperations.getOAuth2ClientContext()).thenReturn(this.clientContext);
+        this.clientContext.setAccessToken(new DefaultOAuth2AccessToken("test-access-token"));
+
+        ListenableFuture<ClientHttpResponse> future = execute("test-body");
+        ClientHttpResponse response = respond(0, new MockClientHttpResponse(new byte[0], UNAUTHORIZED));
+
+        assertEquals(1, this.delegate.requests.size());
+        assertSame(response, future.get(1, SECONDS));
+    }
+
+    private ListenableFuture<ClientHttpResponse> execute(String body) throws Exception {
+        AsyncClientHttpRequest request = this.requestFactory.createAsyncRequest(this.uri, POST);
+        request.getHeaders().set("test-header", "test-value");
+        request.getBody().write(body.getBytes(StandardCharsets.UTF_8));
+
+        return request.executeAsync();
+    }
+
+    private ClientHttpResponse respond(int index, ClientHttpResponse response) {
+        this.delegate.requests.get(index).response.set(response);
+        return response;
+    }
+
+    private void runFetches() {
+        List<Runnable> fetches = new ArrayList<>(this.fetches);
+        this.fetches.clear();
+        fetches.forEach(Runnable::run);
+    }
+
+    private static final class StubRequest implements AsyncClientHttpRequest {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final HttpMethod method;
+
+        private final SettableListenableFuture<ClientHttpResponse> response = new SettableListenableFuture<>();
+
+        private final URI uri;
+
+        private StubRequest(URI uri, HttpMethod method) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        @Override
+        public ListenableFuture<ClientHttpResponse> executeAsync() {
+            return this.response;
+        }
+
+        @Override
+        public ByteArrayOutputStream getBody() {
+            return this.body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public URI getURI() {
+            return this.uri;
+        }
+
+    }
+
+    private static final class StubRequestFactory implements AsyncClientHttpRequestFactory {
+
+        private final List<StubRequest> requests = new ArrayList<>();
+
+        @Override
+        public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) {
+            StubRequest request = new StubRequest(uri, httpMethod);
+            this.requests.add(request);
+            return request;
+        }
+
+    }
+
+}
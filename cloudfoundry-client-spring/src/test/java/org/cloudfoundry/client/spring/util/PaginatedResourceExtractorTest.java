@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cloudfoundry.client.v2.events.ListEventsResponse;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.junit.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class PaginatedResourceExtractorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .addHandler(new LoggingDeserializationProblemHandler());
+
+    private final List<ListEventsResponse> pages = new ArrayList<>();
+
+    private final List<ListEventsResponse.ListEventsResponseResource> resources = new ArrayList<>();
+
+    private final PaginatedResourceExtractor<ListEventsResponse, ListEventsResponse.ListEventsResponseResource>
+            extractor = new PaginatedResourceExtractor<>(this.objectMapper, ListEventsResponse.class,
+            ListEventsResponse.ListEventsResponseResource.class, this.resources::add, this.pages::add);
+
+    @Test
+    public void extractData() throws IOException {
+        this.extractor.extractData(response("{\"total_results\":2,\"total_pages\":1,\"prev_url\":null," +
+                "\"next_url\":\"/v2/events?page=2\",\"resources\":[" +
+                "{\"metadata\":{\"guid\":\"test-id-1\"},\"entity\":{\"type\":\"test-type-1\"}}," +
+                "null," +
+                "{\"metadata\":{\"guid\":\"test-id-2\"},\"entity\":{\"type\":\"test-type-2\"}}]}"));
+
+        assertEquals(2, this.resources.size());
+        assertEquals("test-id-1", this.resources.get(0).getMetadata().getId());
+        assertEquals("test-type-2", this.resources.get(1).getEntity().getType());
+
+        assertEquals(1, this.pages.size());
+        ListEventsResponse page = this.pages.get(0);
+        assertEquals("/v2/events?page=2", page.getNextUrl());
+        assertNull(page.getPreviousUrl());
+        assertEquals(Integer.valueOf(1), page.getTotalPages());
+        assertEquals(Integer.valueOf(2), page.getTotalResults());
+        assertTrue(page.getResources().isEmpty());
+    }
+
+    @Test
+    public void extractDataMetadataAfterResources() throws IOException {
+        this.extractor.extractData(response("{\"resources\":[{\"metadata\":{\"guid\":\"test-id\"}}]," +
+                "\"total_results\":1}"));
+
+        assertEquals(1, this.resources.size());
+        assertEquals(2, this.pages.size());
+        assertNull(this.pages.get(0).getTotalResults());
+        assertEquals(Integer.valueOf(1), this.pages.get(1).getTotalResults());
+    }
+
+    @Test
+    public void extractDataMetadataBeforeResources() throws IOException {
+        List<Integer> pagesSeen = new ArrayList<>();
+
+        new PaginatedResourceExtractor<>(this.objectMapper, ListEventsResponse.class,
+                ListEventsResponse.ListEventsResponseResource.class, resource -> pagesSeen.add(this.pages.size()),
+                this.pages::add)
+                .extractData(response("{\"total_results\":2,\"resources\":[" +
+                        "{\"metadata\":{\"guid\":\"test-id-1\"}},{\"metadata\":{\"guid\":\"test-id-2\"}}]}"));
+
+        assertEquals(Arrays.asList(1, 1), pagesSeen);
+        assertEquals(1, this.pages.size());
+    }
+
+    @Test
+    public void extractDataNullResources() throws IOException {
+        this.extractor.extractData(response("{\"total_results\":0,\"resources\":null}"));
+
+        assertTrue(this.resources.isEmpty());
+        assertEquals(Integer.valueOf(0), this.pages.get(0).getTotalResults());
+    }
+
+    @Test
+    public void extractDataV3() throws IOException {
+        List<ListApplicationsResponse> pages = new ArrayList<>();
+        List<ListApplicationsResponse.Resource> resources = new ArrayList<>();
+
+        new PaginatedResourceExtractor<>(this.objectMapper, ListApplicationsResponse.class,
+                ListApplicationsResponse.Resource.class, resources::add, pages::add)
+                .extractData(response("{\"pagination\":{\"total_results\":1,\"next\":null}," +
+                        "\"resources\":[{\"guid\":\"test-id\",\"name\":\"test-name\"}]}"));
+
+        assertEquals("test-name", resources.get(0).getName());
+        assertEquals(Integer.valueOf(1), pages.get(0).getPagination().getTotalResults());
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void extractDataNotObject() throws IOException {
+        this.extractor.extractData(response("[]"));
+    }
+
+    @Test(expected = IOException.class)
+    public void extractDataTruncated() throws IOException {
+        this.extractor.extractData(response("{\"resources\":[{\"metadata\":{\"guid\":\"test-id\"}}"));
+    }
+
+    private static MockClientHttpResponse response(String body) {
+        return new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), OK);
+    }
+
+}
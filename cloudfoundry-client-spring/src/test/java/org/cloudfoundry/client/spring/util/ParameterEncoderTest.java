@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.QueryParameter;
+import org.junit.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ParameterEncoderTest {
+
+    private final List<String> created = new ArrayList<>();
+
+    private final ParameterEncoder<QueryParameter> encoder = new ParameterEncoder<>(QueryParameter.class,
+            (queryParameter, getter) -> {
+                this.created.add(queryParameter.value());
+                return (builder, instance) -> builder.queryParam(queryParameter.value(), getter.apply(instance));
+            });
+
+    @Test
+    public void encode() {
+        UriComponentsBuilder builder1 = UriComponentsBuilder.newInstance();
+        this.encoder.encode(builder1, new StubQueryParams("test-value-1"));
+
+        UriComponentsBuilder builder2 = UriComponentsBuilder.newInstance();
+        this.encoder.encode(builder2, new StubQueryParams("test-value-2"));
+
+        assertEquals("test-parameter-a=test-value-1&test-parameter-b=test-value-1", builder1.build().getQuery());
+        assertEquals("test-parameter-a=test-value-2&test-parameter-b=test-value-2", builder2.build().getQuery());
+        assertEquals(Arrays.asList("test-parameter-a", "test-parameter-b"), this.created);
+    }
+
+    @Test
+    public void encodePrimitive() {
+        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
+        this.encoder.encode(builder, new StubPrimitiveQueryParams());
+
+        assertEquals("test-parameter-int=1", builder.build().getQuery());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void encodeThrows() {
+        this.encoder.encode(UriComponentsBuilder.newInstance(), new StubThrowingQueryParams());
+    }
+
+    private static final class StubPrimitiveQueryParams {
+
+        @QueryParameter("test-parameter-int")
+        int getInt() {
+            return 1;
+        }
+
+    }
+
+    private static final class StubQueryParams {
+
+        private final String value;
+
+        private StubQueryParams(String value) {
+            this.value = value;
+        }
+
+        @QueryParameter("test-parameter-b")
+        String getB() {
+            return this.value;
+        }
+
+        @QueryParameter("test-parameter-a")
+        String getA() {
+            return this.value;
+        }
+
+        String getUnannotated() {
+            return "test-unannotated";
+        }
+
+    }
+
+    private static final class StubThrowingQueryParams {
+
+        @QueryParameter("test-parameter")
+        String getValue() {
+            throw new IllegalStateException();
+        }
+
+    }
+
+}
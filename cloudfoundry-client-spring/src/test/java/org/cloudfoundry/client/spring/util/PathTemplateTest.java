@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+
+public final class PathTemplateTest {
+
+    private final URI root = URI.create("https://api.run.pivotal.io");
+
+    @Test
+    public void encode() {
+        PathTemplate template = PathTemplate.compile("v2", "spaces", "{id}");
+
+        assertEquals("https://api.run.pivotal.io/v2/spaces/test%20id%2Fwith%C3%A9",
+                template.expand(this.root, "test id/with\u00e9").toString());
+    }
+
+    @Test
+    public void expand() {
+        PathTemplate template = PathTemplate.compile("v3", "apps", "{id}", "processes", "{type}", "scale");
+
+        assertEquals(URI.create("https://api.run.pivotal.io/v3/apps/test-id/processes/web/scale"),
+                template.expand(this.root, "test-id", "web"));
+    }
+
+    @Test
+    public void noVariables() {
+        assertEquals(URI.create("https://api.run.pivotal.io/v2/info"),
+                PathTemplate.compile("v2", "info").expand(this.root));
+    }
+
+    @Test
+    public void rootWithTrailingSlash() {
+        assertEquals(URI.create("https://api.run.pivotal.io/v2/events/test-id"),
+                PathTemplate.compile("v2", "events", "{id}").expand(URI.create("https://api.run.pivotal.io/"),
+                        "test-id"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfVariables() {
+        PathTemplate.compile("v2", "events", "{id}").expand(this.root);
+    }
+
+}
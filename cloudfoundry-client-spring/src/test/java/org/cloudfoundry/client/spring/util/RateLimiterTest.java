@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+
+public final class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final RateLimiter rateLimiter = new RateLimiter(10, 2, 1, 1, this.clock::get);
+
+    @Test
+    public void burst() {
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(100), this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(200), this.rateLimiter.reserve("test-host", GET));
+    }
+
+    @Test
+    public void hosts() {
+        assertEquals(0, this.rateLimiter.reserve("test-host-1", POST));
+        assertEquals(0, this.rateLimiter.reserve("test-host-2", POST));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveBurst() {
+        new RateLimiter(10, 0, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveRate() {
+        new RateLimiter(10, 2, 0, 1);
+    }
+
+    @Test
+    public void readsAndWrites() {
+        assertEquals(0, this.rateLimiter.reserve("test-host", POST));
+        assertEquals(MILLISECONDS.toNanos(1000), this.rateLimiter.reserve("test-host", DELETE));
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+    }
+
+    @Test
+    public void release() {
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(100), this.rateLimiter.reserve("test-host", GET));
+
+        this.rateLimiter.release("test-host", GET);
+
+        assertEquals(MILLISECONDS.toNanos(100), this.rateLimiter.reserve("test-host", GET));
+    }
+
+    @Test
+    public void releaseFull() {
+        this.rateLimiter.release("test-host", GET);
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        this.rateLimiter.release("test-host", GET);
+
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(100), this.rateLimiter.reserve("test-host", GET));
+    }
+
+    @Test
+    public void refill() {
+        this.rateLimiter.reserve("test-host", GET);
+        this.rateLimiter.reserve("test-host", GET);
+
+        this.clock.addAndGet(MILLISECONDS.toNanos(150));
+
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(50), this.rateLimiter.reserve("test-host", GET));
+
+        this.clock.addAndGet(MILLISECONDS.toNanos(10000));
+
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(0, this.rateLimiter.reserve("test-host", GET));
+        assertEquals(MILLISECONDS.toNanos(100), this.rateLimiter.reserve("test-host", GET));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class RateLimitingTransportTest {
+
+    private final StubTransport delegate = new StubTransport();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final Executor executor = runnable -> {
+        this.executions.incrementAndGet();
+        runnable.run();
+    };
+
+    private final RequestEntity<?> request = new RequestEntity<>(GET, URI.create("https://api.run.pivotal.io/v2/test"));
+
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+
+    private final RateLimitingTransport transport = new RateLimitingTransport(this.delegate,
+            new RateLimiter(1000, 1, 1000, 1), this.scheduler, this.executor);
+
+    @Test
+    public void cancelDelayed() {
+        RateLimiter rateLimiter = new RateLimiter(0.001, 1, 1, 1);
+        RateLimitingTransport transport = new RateLimitingTransport(this.delegate, rateLimiter, this.scheduler,
+                this.executor);
+
+        transport.exchange(this.request, String.class);
+        ListenableFuture<ResponseEntity<String>> future = transport.exchange(this.request, String.class);
+
+        assertFalse(future.isDone());
+        future.cancel(true);
+
+        assertTrue(future.isCancelled());
+        assertEquals(1, this.delegate.requests.get());
+        assertTrue(rateLimiter.reserve("api.run.pivotal.io", GET) <= SECONDS.toNanos(1000));
+    }
+
+    @Test
+    public void delayed() throws Exception {
+        assertEquals("test-body", this.transport.exchange(this.request, String.class).get(5, SECONDS).getBody());
+        assertEquals("test-body", this.transport.exchange(this.request, String.class).get(5, SECONDS).getBody());
+        assertEquals("test-body", this.transport.execute(this.request, response -> "").get(5, SECONDS));
+
+        assertEquals(3, this.delegate.requests.get());
+        assertTrue(this.executions.get() > 0);
+    }
+
+    @Test
+    public void immediate() {
+        ListenableFuture<ResponseEntity<String>> future = this.transport.exchange(this.request, String.class);
+
+        assertTrue(future.isDone());
+        assertEquals(1, this.delegate.requests.get());
+        assertEquals(0, this.executions.get());
+    }
+
+    @After
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private static final class StubTransport implements Transport {
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+            return respond(new ResponseEntity<>((T) "test-body", OK));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+            return respond((T) "test-body");
+        }
+
+        private <T> ListenableFuture<T> respond(T response) {
+            this.requests.incrementAndGet();
+
+            SettableListenableFuture<T> future = new SettableListenableFuture<>();
+            future.set(response);
+            return future;
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class ResponseCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ResponseCache cache = new ResponseCache(2, 10, 30, SECONDS, this.clock::get);
+
+    @Test
+    public void evictBytes() {
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[6]);
+        this.cache.put(key("test-2"), uri("test-2"), OK, new HttpHeaders(), new byte[6]);
+
+        assertNull(this.cache.get(key("test-1")));
+        assertNotNull(this.cache.get(key("test-2")));
+        assertEquals(6, this.cache.getBytes());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[1]);
+        this.cache.put(key("test-2"), uri("test-2"), OK, new HttpHeaders(), new byte[1]);
+        this.cache.get(key("test-1"));
+        this.cache.put(key("test-3"), uri("test-3"), OK, new HttpHeaders(), new byte[1]);
+
+        assertNotNull(this.cache.get(key("test-1")));
+        assertNull(this.cache.get(key("test-2")));
+        assertNotNull(this.cache.get(key("test-3")));
+        assertEquals(2, this.cache.getEntries());
+        assertEquals(2, this.cache.getBytes());
+    }
+
+    @Test
+    public void expire() {
+        ResponseCache.Entry entry = this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[1]);
+
+        this.clock.addAndGet(SECONDS.toNanos(29));
+        assertTrue(this.cache.isFresh(entry));
+
+        this.clock.addAndGet(SECONDS.toNanos(1));
+        assertFalse(this.cache.isFresh(entry));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveBounds() {
+        new ResponseCache(0, 10, 30, SECONDS);
+    }
+
+    @Test
+    public void oversized() {
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[1]);
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[11]);
+
+        assertNull(this.cache.get(key("test-1")));
+        assertEquals(0, this.cache.getBytes());
+    }
+
+    @Test
+    public void removeIf() {
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[3]);
+        this.cache.put(key("test-2"), uri("test-2"), OK, new HttpHeaders(), new byte[5]);
+
+        this.cache.removeIf(key -> uri("test-1").equals(key.get(0)));
+
+        assertNull(this.cache.get(key("test-1")));
+        assertNotNull(this.cache.get(key("test-2")));
+        assertEquals(5, this.cache.getBytes());
+    }
+
+    @Test
+    public void replace() {
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[3]);
+        this.cache.put(key("test-1"), uri("test-1"), OK, new HttpHeaders(), new byte[5]);
+
+        assertEquals(1, this.cache.getEntries());
+        assertEquals(5, this.cache.getBytes());
+    }
+
+    @Test
+    public void revalidated() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ETAG, "\"test-etag-1\"");
+        headers.set("Content-Type", "application/json");
+        ResponseCache.Entry entry = this.cache.put(key("test-1"), uri("test-1"), OK, headers, new byte[1]);
+
+        this.clock.addAndGet(SECONDS.toNanos(60));
+
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.set(HttpHeaders.ETAG, "\"test-etag-2\"");
+        notModified.set("Content-Type", "text/plain");
+        ResponseCache.Entry revalidated = this.cache.revalidated(key("test-1"), uri("test-1"), entry, notModified);
+
+        assertTrue(this.cache.isFresh(revalidated));
+        assertEquals("\"test-etag-2\"", revalidated.getETag());
+        assertEquals("application/json", revalidated.headers.getFirst("Content-Type"));
+        assertEquals(1, this.cache.getRevalidations());
+    }
+
+    @Test
+    public void ttl() {
+        this.cache
+                .withTtl(5, SECONDS, "v2", "spaces", "{id}", "summary")
+                .withTtl(0, SECONDS, "v2", "info");
+
+        ResponseCache.Entry summary = this.cache.put(key("v2/spaces/test-id/summary"),
+                uri("v2/spaces/test-id/summary"), OK, new HttpHeaders(), new byte[1]);
+        ResponseCache.Entry info = this.cache.put(key("v2/info"), uri("v2/info"), OK, new HttpHeaders(), new byte[1]);
+        ResponseCache.Entry space = this.cache.put(key("v2/spaces/test-id"), uri("v2/spaces/test-id"), OK,
+                new HttpHeaders(), new byte[1]);
+
+        assertFalse(this.cache.isFresh(info));
+
+        this.clock.addAndGet(SECONDS.toNanos(5));
+        assertFalse(this.cache.isFresh(summary));
+        assertTrue(this.cache.isFresh(space));
+    }
+
+    private static List<Object> key(String path) {
+        return Arrays.asList(uri(path), new HttpHeaders());
+    }
+
+    private static URI uri(String path) {
+        return URI.create("https://api.run.pivotal.io/" + path);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.same;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpStatus.OK;
+
+public final class RestOperationsTransportTest {
+
+    private final RequestEntity<?> requestEntity = new RequestEntity<>(GET, URI.create("https://test-host"));
+
+    private final RestOperations restOperations = mock(RestOperations.class);
+
+    @Test
+    public void callingThread() throws ExecutionException, InterruptedException {
+        when(this.restOperations.exchange(this.requestEntity, String.class))
+                .thenReturn(new ResponseEntity<>("test-body", OK));
+
+        ListenableFuture<ResponseEntity<String>> future = new RestOperationsTransport(this.restOperations)
+                .exchange(this.requestEntity, String.class);
+
+        assertTrue(future.isDone());
+        assertEquals("test-body", future.get().getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void execute() throws ExecutionException, InterruptedException {
+        ResponseExtractor<String> responseExtractor = mock(ResponseExtractor.class);
+        when(this.restOperations.execute(eq(URI.create("https://test-host")), eq(GET), any(RequestCallback.class),
+                same(responseExtractor)))
+                .thenReturn("test-body");
+
+        ListenableFuture<String> future = new RestOperationsTransport(this.restOperations)
+                .execute(this.requestEntity, responseExtractor);
+
+        assertTrue(future.isDone());
+        assertEquals("test-body", future.get());
+    }
+
+    @Test
+    public void executor() throws ExecutionException, InterruptedException {
+        when(this.restOperations.exchange(this.requestEntity, String.class))
+                .thenReturn(new ResponseEntity<>("test-body", OK));
+
+        List<Runnable> tasks = new ArrayList<>();
+        ListenableFuture<ResponseEntity<String>> future = new RestOperationsTransport(this.restOperations, tasks::add)
+                .exchange(this.requestEntity, String.class);
+
+        assertFalse(future.isDone());
+        verifyZeroInteractions(this.restOperations);
+
+        tasks.forEach(Runnable::run);
+
+        assertTrue(future.isDone());
+        assertEquals("test-body", future.get().getBody());
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class RetryBudgetTest {
+
+    private final RetryBudget budget = new RetryBudget(4, 0.5);
+
+    @Test
+    public void exhausted() {
+        assertTrue(this.budget.onRetry());
+        assertFalse(this.budget.onRetry());
+        assertFalse(this.budget.onRetry());
+    }
+
+    @Test
+    public void exhaustedNotCharged() {
+        assertTrue(this.budget.onRetry());
+        assertFalse(this.budget.onRetry());
+
+        this.budget.onSuccess();
+
+        assertTrue(this.budget.onRetry());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxTokens() {
+        new RetryBudget(0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveTokenRatio() {
+        new RetryBudget(4, 0);
+    }
+
+    @Test
+    public void replenished() {
+        this.budget.onRetry();
+        this.budget.onRetry();
+
+        assertFalse(this.budget.onRetry());
+
+        for (int i = 0; i < 6; i++) {
+            this.budget.onSuccess();
+        }
+
+        assertTrue(this.budget.onRetry());
+    }
+
+}
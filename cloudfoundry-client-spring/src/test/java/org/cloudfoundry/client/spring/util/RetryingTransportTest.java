@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+public final class RetryingTransportTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final Executor executor = runnable -> {
+        this.executions.incrementAndGet();
+        runnable.run();
+    };
+
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+
+    private final StubTransport delegate = new StubTransport();
+
+    private final RetryingTransport transport = new RetryingTransport(this.delegate, 3, 1, 10, MILLISECONDS,
+            new RetryBudget(100, 0.1), this.scheduler, this.executor);
+
+    @Test
+    public void budgetExhausted() throws InterruptedException {
+        RetryingTransport transport = new RetryingTransport(this.delegate, 3, 1, 10, MILLISECONDS,
+                new RetryBudget(2, 0.1), this.scheduler, this.executor);
+
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertTrue(failure(transport.exchange(request(GET), String.class)) instanceof HttpServerErrorException);
+        assertEquals(1, this.delegate.attempts);
+    }
+
+    @Test
+    public void connectionFailure() throws Exception {
+        this.delegate.failures.add(new ResourceAccessException("test-message", new IOException()));
+
+        assertEquals("test-body", this.transport.exchange(request(GET), String.class).get(5, SECONDS).getBody());
+        assertEquals(2, this.delegate.attempts);
+    }
+
+    @Test
+    public void connectionFailureExecute() throws InterruptedException {
+        this.delegate.failures.add(new ResourceAccessException("test-message", new IOException()));
+
+        assertTrue(failure(this.transport.execute(request(GET), response -> "test-body")) instanceof
+                ResourceAccessException);
+        assertEquals(1, this.delegate.attempts);
+    }
+
+    @Test
+    public void maxAttempts() throws InterruptedException {
+        HttpServerErrorException exception = new HttpServerErrorException(SERVICE_UNAVAILABLE);
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+        this.delegate.failures.add(exception);
+
+        assertSame(exception, failure(this.transport.exchange(request(GET), String.class)));
+        assertEquals(3, this.delegate.attempts);
+    }
+
+    @Test
+    public void maxAttemptsNotCharged() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(4, 0.5);
+        RetryingTransport transport = new RetryingTransport(this.delegate, 2, 1, 10, MILLISECONDS, budget,
+                this.scheduler, this.executor);
+
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertTrue(failure(transport.exchange(request(GET), String.class)) instanceof HttpServerErrorException);
+        assertEquals(2, this.delegate.attempts);
+
+        budget.onSuccess();
+        assertTrue(budget.onRetry());
+    }
+
+    @Test
+    public void nonIdempotent() throws InterruptedException {
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertTrue(failure(this.transport.exchange(request(POST), String.class)) instanceof HttpServerErrorException);
+        assertEquals(1, this.delegate.attempts);
+    }
+
+    @Test
+    public void nonRetryableStatus() throws InterruptedException {
+        this.delegate.failures.add(new HttpClientErrorException(NOT_FOUND));
+
+        assertTrue(failure(this.transport.exchange(request(GET), String.class)) instanceof HttpClientErrorException);
+        assertEquals(1, this.delegate.attempts);
+    }
+
+    @Test
+    public void retry() throws Exception {
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertEquals("test-body", this.transport.exchange(request(GET), String.class).get(5, SECONDS).getBody());
+        assertEquals(3, this.delegate.attempts);
+        assertEquals(2, this.executions.get());
+    }
+
+    @Test
+    public void retryAfter() throws Exception {
+        RetryingTransport transport = new RetryingTransport(this.delegate, 3, 1, 10, SECONDS,
+                new RetryBudget(100, 0.1), this.scheduler, this.executor);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "0");
+        this.delegate.failures.add(new HttpClientErrorException(TOO_MANY_REQUESTS, "", headers, null, null));
+
+        assertEquals("test-body", transport.exchange(request(GET), String.class).get(5, SECONDS).getBody());
+        assertEquals(2, this.delegate.attempts);
+    }
+
+    @Test
+    public void retryAfterTooLong() throws InterruptedException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "120");
+        this.delegate.failures.add(new HttpClientErrorException(TOO_MANY_REQUESTS, "", headers, null, null));
+
+        assertTrue(failure(this.transport.exchange(request(GET), String.class)) instanceof HttpClientErrorException);
+        assertEquals(1, this.delegate.attempts);
+    }
+
+    @Test
+    public void retryExecute() throws Exception {
+        this.delegate.failures.add(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertEquals("test-body", this.transport.execute(request(GET), response -> "test-body").get(5, SECONDS));
+        assertEquals(2, this.delegate.attempts);
+    }
+
+    @After
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private static Throwable failure(ListenableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(5, SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+
+        throw new AssertionError("Expected failure");
+    }
+
+    private static RequestEntity<?> request(HttpMethod method) {
+        return new RequestEntity<>(method, URI.create("https://api.run.pivotal.io/v2/test"));
+    }
+
+    private static final class StubTransport implements Transport {
+
+        private volatile int attempts = 0;
+
+        private final List<RuntimeException> failures = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<ResponseEntity<T>> exchange(RequestEntity<?> requestEntity, Class<T> responseType) {
+            return respond(() -> new ResponseEntity<>((T) "test-body", OK));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ListenableFuture<T> execute(RequestEntity<?> requestEntity, ResponseExtractor<T> responseExtractor) {
+            return respond(() -> (T) "test-body");
+        }
+
+        private synchronized <T> ListenableFuture<T> respond(Supplier<T> response) {
+            SettableListenableFuture<T> future = new SettableListenableFuture<>();
+
+            if (this.attempts++ < this.failures.size()) {
+                future.setException(this.failures.get(this.attempts - 1));
+            } else {
+                future.set(response.get());
+            }
+
+            return future;
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.spring.util;
+
+import org.cloudfoundry.client.spring.TestSubscriber;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class RunMergingPublisherTest {
+
+    private final AtomicReference<Subscriber<String>> source = new AtomicReference<>();
+
+    private final AtomicInteger stopped = new AtomicInteger();
+
+    private final RunMergingPublisher<String> publisher = new RunMergingPublisher<>(
+            new BufferingPublisher<String>(subscriber -> {
+                this.source.set(subscriber);
+                return this.stopped::incrementAndGet;
+            }), item -> item.charAt(0), Comparator.comparing(item -> item.substring(2)), 4);
+
+    private final TestSubscriber<String> subscriber = new TestSubscriber<>();
+
+    @Test
+    public void cancel() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+        this.subscriber.getOnSubscribeEvents().get(0).cancel();
+
+        assertEquals(1, this.stopped.get());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        this.publisher.subscribe(this.subscriber);
+
+        assertNull(this.source.get());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertTrue(this.source.get() != null);
+    }
+
+    @Test
+    public void error() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        IllegalStateException exception = new IllegalStateException();
+        this.source.get().onNext("a-1");
+        this.source.get().onError(exception);
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+        assertSame(exception, this.subscriber.getOnErrorEvents().get(0));
+    }
+
+    @Test
+    public void merge() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("a-2");
+        this.source.get().onNext("b-1");
+        this.source.get().onNext("a-4");
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+
+        this.source.get().onNext("b-3");
+
+        assertEquals(Arrays.asList("b-1", "a-2"), this.subscriber.getOnNextEvents());
+
+        this.source.get().onNext("b-5");
+        this.source.get().onComplete();
+
+        assertEquals(Arrays.asList("b-1", "a-2", "b-3", "a-4", "b-5"), this.subscriber.getOnNextEvents());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void mergeOutOfOrderPartition() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("a-3");
+        this.source.get().onNext("b-5");
+        this.source.get().onNext("a-1");
+        this.source.get().onNext("a-2");
+        this.source.get().onNext("b-6");
+        this.source.get().onComplete();
+
+        assertEquals(Arrays.asList("a-1", "a-2", "a-3", "b-5", "b-6"), this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void mergeLateItem() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("a-2");
+        this.source.get().onNext("a-3");
+        this.source.get().onNext("b-1");
+        this.source.get().onComplete();
+
+        assertEquals(Arrays.asList("a-2", "b-1", "a-3"), this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void mergeRequested() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("a-2");
+        this.source.get().onNext("b-1");
+        this.source.get().onComplete();
+
+        assertEquals(Collections.singletonList("b-1"), this.subscriber.getOnNextEvents());
+        assertTrue(this.subscriber.getOnCompleteEvents().isEmpty());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        assertEquals(Arrays.asList("b-1", "a-2"), this.subscriber.getOnNextEvents());
+        assertEquals(1, this.subscriber.getOnCompleteEvents().size());
+    }
+
+    @Test
+    public void window() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+
+        this.source.get().onNext("a-5");
+        this.source.get().onNext("b-4");
+        this.source.get().onNext("c-3");
+
+        assertTrue(this.subscriber.getOnNextEvents().isEmpty());
+
+        this.source.get().onNext("d-2");
+
+        assertEquals(Collections.singletonList("d-2"), this.subscriber.getOnNextEvents());
+    }
+
+    @Test
+    public void windowLimitsSourceDemand() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(1);
+
+        this.source.get().onNext("a-1");
+        this.source.get().onNext("a-2");
+        this.source.get().onNext("a-3");
+        this.source.get().onNext("a-4");
+        this.source.get().onNext("a-5");
+        this.source.get().onNext("a-6");
+        this.source.get().onNext("a-7");
+
+        assertEquals(Collections.singletonList("a-1"), this.subscriber.getOnNextEvents());
+
+        this.subscriber.getOnSubscribeEvents().get(0).request(Long.MAX_VALUE);
+        this.source.get().onComplete();
+
+        assertEquals(Arrays.asList("a-1", "a-2", "a-3", "a-4", "a-5", "a-6", "a-7"),
+                this.subscriber.getOnNextEvents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveWindow() {
+        new RunMergingPublisher<>(this.publisher, item -> item, Comparator.naturalOrder(), 0);
+    }
+
+    @Test
+    public void nonPositiveRequest() {
+        this.publisher.subscribe(this.subscriber);
+        this.subscriber.getOnSubscribeEvents().get(0).request(0);
+
+        assertTrue(this.subscriber.getOnErrorEvents().get(0) instanceof IllegalArgumentException);
+    }
+
+}
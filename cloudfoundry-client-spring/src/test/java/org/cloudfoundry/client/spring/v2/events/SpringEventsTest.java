@@ -27,8 +27,11 @@ import org.cloudfoundry.client.v2.events.ListEventsResponse;
 import org.junit.Test;
 import reactor.rx.Streams;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.springframework.http.HttpMethod.GET;
@@ -145,4 +148,47 @@ public final class SpringEventsTest extends AbstractRestTest {
         Streams.wrap(this.events.list(request)).next().get();
     }
 
+    @Test
+    public void listResources() throws InterruptedException {
+        mockRequest(new RequestContext()
+                .method(GET).path("/v2/events?q=actee%20IN%20test-actee&page=-1")
+                .status(OK)
+                .responsePayload("v2/events/GET_response.json"));
+
+        ListEventsRequest request = new ListEventsRequest()
+                .withActee("test-actee")
+                .withPage(-1);
+
+        List<ListEventsResponse> pages = new ArrayList<>();
+        List<ListEventsResponse.ListEventsResponseResource> resources =
+                Streams.wrap(this.events.listResources(request, pages::add)).toList().await(5, SECONDS);
+
+        assertEquals(3, resources.size());
+        assertEquals("2cc565c7-18e7-4fff-8fb0-52525f09ee6b", resources.get(0).getMetadata().getId());
+        assertEquals("name-1042", resources.get(1).getEntity().getType());
+
+        assertEquals(1, pages.size());
+        ListEventsResponse page = pages.get(0);
+        assertNull(page.getNextUrl());
+        assertEquals(Integer.valueOf(1), page.getTotalPages());
+        assertEquals(Integer.valueOf(3), page.getTotalResults());
+        assertEquals(0, page.getResources().size());
+
+        verify();
+    }
+
+    @Test(expected = CloudFoundryException.class)
+    public void listResourcesError() throws InterruptedException {
+        mockRequest(new RequestContext()
+                .method(GET).path("/v2/events?q=actee%20IN%20test-actee&page=-1")
+                .errorResponse());
+
+        ListEventsRequest request = new ListEventsRequest()
+                .withActee("test-actee")
+                .withPage(-1);
+
+        Streams.wrap(this.events.listResources(request, page -> {
+        })).toList().await(5, SECONDS);
+    }
+
 }
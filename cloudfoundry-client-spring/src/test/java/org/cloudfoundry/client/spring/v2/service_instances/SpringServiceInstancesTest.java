@@ -25,9 +25,12 @@ import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesResponse.
 import org.junit.Test;
 import reactor.rx.Streams;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.springframework.http.HttpMethod.GET;
@@ -104,4 +107,28 @@ public final class SpringServiceInstancesTest extends AbstractRestTest {
         Streams.wrap(this.serviceInstances.list(request)).next().get();
     }
 
+    @Test
+    public void listResources() throws InterruptedException {
+        mockRequest(new RequestContext()
+                .method(GET).path("/v2/service_instances?q=name%20IN%20test-name&page=-1")
+                .status(OK)
+                .responsePayload("v2/service_instances/GET_response.json"));
+
+        ListServiceInstancesRequest request = new ListServiceInstancesRequest()
+                .withName("test-name")
+                .withPage(-1);
+
+        List<ListServiceInstancesResponse> pages = new ArrayList<>();
+        List<ListServiceInstancesResponse.ListServiceInstancesResponseResource> resources =
+                Streams.wrap(this.serviceInstances.listResources(request, pages::add)).toList().await(5, SECONDS);
+
+        assertEquals(1, resources.size());
+        assertEquals("24ec15f9-f6c7-434a-8893-51baab8408d8", resources.get(0).getMetadata().getId());
+        assertEquals("name-133", resources.get(0).getEntity().getName());
+
+        assertEquals(1, pages.size());
+        assertEquals(Integer.valueOf(1), pages.get(0).getTotalResults());
+        verify();
+    }
+
 }
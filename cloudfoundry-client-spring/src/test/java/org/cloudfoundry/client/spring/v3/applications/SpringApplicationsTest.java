@@ -19,6 +19,7 @@ package org.cloudfoundry.client.spring.v3.applications;
 import org.cloudfoundry.client.RequestValidationException;
 import org.cloudfoundry.client.spring.AbstractRestTest;
 import org.cloudfoundry.client.v2.CloudFoundryException;
+import org.cloudfoundry.client.v3.Link;
 import org.cloudfoundry.client.v3.applications.AssignApplicationDropletRequest;
 import org.cloudfoundry.client.v3.applications.AssignApplicationDropletResponse;
 import org.cloudfoundry.client.v3.applications.CreateApplicationRequest;
@@ -407,6 +408,31 @@ public final class SpringApplicationsTest extends AbstractRestTest {
         verify();
     }
 
+    @Test
+    public void listLink() {
+        mockRequest(new RequestContext()
+                .method(GET).path("/v3/apps?order_by=created_at&page=2&per_page=1")
+                .status(OK)
+                .responsePayload("v3/apps/GET_response.json"));
+
+        ListApplicationsRequest request = new ListApplicationsRequest()
+                .withName("test-name")
+                .withLink(new Link().withHref("/v3/apps?order_by=created_at&page=2&per_page=1"));
+
+        ListApplicationsResponse response = Streams.wrap(this.applications.list(request)).next().get();
+
+        assertEquals("my_app3", response.getResources().get(0).getName());
+        verify();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void listLinkOtherHost() {
+        ListApplicationsRequest request = new ListApplicationsRequest()
+                .withLink(new Link().withHref("https://example.com/v3/apps?page=2"));
+
+        Streams.wrap(this.applications.list(request)).next().get();
+    }
+
     @Test(expected = CloudFoundryException.class)
     public void listError() {
         mockRequest(new RequestContext()
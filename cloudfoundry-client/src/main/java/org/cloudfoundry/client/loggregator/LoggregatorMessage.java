@@ -16,24 +16,32 @@
 
 package org.cloudfoundry.client.loggregator;
 
+import com.google.protobuf.ByteString;
 import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Base class for Loggregator messages
  *
+ * <p>Instances created {@link #from(LogMessage) from} a protobuf message are views of it: the message text, drain urls
+ * and timestamp are only decoded when they are first accessed.  Configuring a view decodes the rest of the message and
+ * detaches it from the protobuf message.
+ *
  * <p><b>This class is NOT threadsafe.</b>
  */
 public final class LoggregatorMessage {
 
     private volatile String applicationId;
 
-    private final List<String> drainUrls = new ArrayList<>();
+    private volatile List<String> drainUrls;
+
+    private volatile LogMessage logMessage;
 
     private volatile String message;
 
@@ -52,14 +60,14 @@ public final class LoggregatorMessage {
      * @return a new instance
      */
     public static LoggregatorMessage from(LogMessage logMessage) {
-        return new LoggregatorMessage()
+        LoggregatorMessage message = new LoggregatorMessage()
                 .withApplicationId(logMessage.getAppId())
-                .withDrainUrls(logMessage.getDrainUrlsList())
-                .withMessage(logMessage.getMessage().toStringUtf8())
-                .withMessageType(MessageType.valueOf(logMessage.getMessageType().toString()))
+                .withMessageType(MessageType.valueOf(logMessage.getMessageType().name()))
                 .withSourceId(logMessage.getSourceId())
-                .withSourceName(logMessage.getSourceName())
-                .withTimestamp(new Date(NANOSECONDS.toMillis(logMessage.getTimestamp())));
+                .withSourceName(logMessage.getSourceName());
+
+        message.logMessage = logMessage;
+        return message;
     }
 
     /**
@@ -78,6 +86,7 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withApplicationId(String applicationId) {
+        detach();
         this.applicationId = applicationId;
         return this;
     }
@@ -88,6 +97,11 @@ public final class LoggregatorMessage {
      * @return the drain urls
      */
     public List<String> getDrainUrls() {
+        if (this.drainUrls == null) {
+            this.drainUrls = this.logMessage == null ? new ArrayList<>() :
+                    new ArrayList<>(this.logMessage.getDrainUrlsList());
+        }
+
         return this.drainUrls;
     }
 
@@ -98,7 +112,8 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withDrainUrl(String drainUrl) {
-        this.drainUrls.add(drainUrl);
+        detach();
+        getDrainUrls().add(drainUrl);
         return this;
     }
 
@@ -110,7 +125,8 @@ public final class LoggregatorMessage {
      */
 
     public LoggregatorMessage withDrainUrls(List<String> drainUrls) {
-        this.drainUrls.addAll(drainUrls);
+        detach();
+        getDrainUrls().addAll(drainUrls);
         return this;
     }
 
@@ -120,6 +136,10 @@ public final class LoggregatorMessage {
      * @return the message
      */
     public String getMessage() {
+        if (this.message == null && this.logMessage != null) {
+            this.message = this.logMessage.getMessage().toStringUtf8();
+        }
+
         return this.message;
     }
 
@@ -130,6 +150,7 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withMessage(String message) {
+        detach();
         this.message = message;
         return this;
     }
@@ -150,6 +171,7 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withMessageType(MessageType messageType) {
+        detach();
         this.messageType = messageType;
         return this;
     }
@@ -170,6 +192,7 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withSourceId(String sourceId) {
+        detach();
         this.sourceId = sourceId;
         return this;
     }
@@ -190,6 +213,7 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withSourceName(String sourceName) {
+        detach();
         this.sourceName = sourceName;
         return this;
     }
@@ -200,6 +224,10 @@ public final class LoggregatorMessage {
      * @return the timestamp
      */
     public Date getTimestamp() {
+        if (this.timestamp == null && this.logMessage != null) {
+            this.timestamp = new Date(NANOSECONDS.toMillis(this.logMessage.getTimestamp()));
+        }
+
         return this.timestamp;
     }
 
@@ -210,10 +238,63 @@ public final class LoggregatorMessage {
      * @return {@code this}
      */
     public LoggregatorMessage withTimestamp(Date timestamp) {
+        detach();
         this.timestamp = timestamp;
         return this;
     }
 
+    /**
+     * Returns the protobuf implementation of this message.  Views of a protobuf message that have not been configured
+     * return it unchanged.
+     *
+     * @return the protobuf implementation
+     * @throws IllegalArgumentException if the application id, message, message type, or timestamp has not been set
+     */
+    public LogMessage toLogMessage() {
+        LogMessage logMessage = this.logMessage;
+        if (logMessage != null) {
+            return logMessage;
+        }
+
+        LogMessage.Builder builder = LogMessage.newBuilder()
+                .addAllDrainUrls(getDrainUrls());
+
+        if (this.applicationId != null) {
+            builder.setAppId(this.applicationId);
+        }
+        if (this.message != null) {
+            builder.setMessage(ByteString.copyFromUtf8(this.message));
+        }
+        if (this.messageType != null) {
+            builder.setMessageType(LogMessage.MessageType.valueOf(this.messageType.name()));
+        }
+        if (this.sourceId != null) {
+            builder.setSourceId(this.sourceId);
+        }
+        if (this.sourceName != null) {
+            builder.setSourceName(this.sourceName);
+        }
+        if (this.timestamp != null) {
+            builder.setTimestamp(MILLISECONDS.toNanos(this.timestamp.getTime()));
+        }
+
+        if (!builder.isInitialized()) {
+            throw new IllegalArgumentException(String.format("Message is missing required fields %s",
+                    builder.findInitializationErrors()));
+        }
+
+        return builder.build();
+    }
+
+    private void detach() {
+        if (this.logMessage != null) {
+            getDrainUrls();
+            getMessage();
+            getTimestamp();
+            this.logMessage = null;
+        }
+    }
+
     /**
      * The type of message
      */
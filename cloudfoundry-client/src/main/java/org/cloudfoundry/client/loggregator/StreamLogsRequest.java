@@ -19,6 +19,9 @@ package org.cloudfoundry.client.loggregator;
 import org.cloudfoundry.client.Validatable;
 import org.cloudfoundry.client.ValidationResult;
 
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
 /**
  * The request payload for the Stream Logs operation
  *
@@ -28,6 +31,18 @@ public final class StreamLogsRequest implements Validatable {
 
     private volatile String id;
 
+    private volatile String messageContains;
+
+    private volatile String messagePattern;
+
+    private volatile LoggregatorMessage.MessageType messageType;
+
+    private volatile Boolean reconnect = null;
+
+    private volatile String sourceId;
+
+    private volatile String sourceName;
+
     /**
      * Returns the id
      *
@@ -48,6 +63,128 @@ public final class StreamLogsRequest implements Validatable {
         return this;
     }
 
+    /**
+     * Returns the text messages must contain
+     *
+     * @return the text messages must contain
+     */
+    public String getMessageContains() {
+        return this.messageContains;
+    }
+
+    /**
+     * Configure the text messages must contain
+     *
+     * @param messageContains the text messages must contain
+     * @return {@code this}
+     */
+    public StreamLogsRequest withMessageContains(String messageContains) {
+        this.messageContains = messageContains;
+        return this;
+    }
+
+    /**
+     * Returns the regular expression messages must match
+     *
+     * @return the regular expression messages must match
+     */
+    public String getMessagePattern() {
+        return this.messagePattern;
+    }
+
+    /**
+     * Configure the regular expression messages must match
+     *
+     * @param messagePattern the regular expression messages must match
+     * @return {@code this}
+     */
+    public StreamLogsRequest withMessagePattern(String messagePattern) {
+        this.messagePattern = messagePattern;
+        return this;
+    }
+
+    /**
+     * Returns the message type
+     *
+     * @return the message type
+     */
+    public LoggregatorMessage.MessageType getMessageType() {
+        return this.messageType;
+    }
+
+    /**
+     * Configure the message type
+     *
+     * @param messageType the message type
+     * @return {@code this}
+     */
+    public StreamLogsRequest withMessageType(LoggregatorMessage.MessageType messageType) {
+        this.messageType = messageType;
+        return this;
+    }
+
+    /**
+     * Returns whether to reconnect
+     *
+     * @return whether to reconnect
+     */
+    public Boolean getReconnect() {
+        return this.reconnect;
+    }
+
+    /**
+     * Configure whether to reconnect when an established stream fails, filling the gap from the recent logs.  The
+     * stream still fails if it cannot first be connected, if the server refuses a reconnection, or if reconnecting
+     * repeatedly fails
+     *
+     * @param reconnect whether to reconnect
+     * @return {@code this}
+     */
+    public StreamLogsRequest withReconnect(Boolean reconnect) {
+        this.reconnect = reconnect;
+        return this;
+    }
+
+    /**
+     * Returns the source id
+     *
+     * @return the source id
+     */
+    public String getSourceId() {
+        return this.sourceId;
+    }
+
+    /**
+     * Configure the source id
+     *
+     * @param sourceId the source id
+     * @return {@code this}
+     */
+    public StreamLogsRequest withSourceId(String sourceId) {
+        this.sourceId = sourceId;
+        return this;
+    }
+
+    /**
+     * Returns the source name
+     *
+     * @return the source name
+     */
+    public String getSourceName() {
+        return this.sourceName;
+    }
+
+    /**
+     * Configure the source name, such as {@code APP}, {@code RTR} or {@code STG}
+     *
+     * @param sourceName the source name
+     * @return {@code this}
+     */
+    public StreamLogsRequest withSourceName(String sourceName) {
+        this.sourceName = sourceName;
+        return this;
+    }
+
     @Override
     public ValidationResult isValid() {
         ValidationResult result = new ValidationResult();
@@ -56,6 +193,14 @@ public final class StreamLogsRequest implements Validatable {
             result.invalid("id must be specified");
         }
 
+        if (this.messagePattern != null) {
+            try {
+                Pattern.compile(this.messagePattern);
+            } catch (PatternSyntaxException e) {
+                result.invalid("messagePattern must be a valid regular expression");
+            }
+        }
+
         return result;
     }
 
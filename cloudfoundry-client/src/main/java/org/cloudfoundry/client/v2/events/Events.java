@@ -18,6 +18,8 @@ package org.cloudfoundry.client.v2.events;
 
 import org.reactivestreams.Publisher;
 
+import java.util.function.Consumer;
+
 /**
  * Main entry point to the Cloud Foundry Events Client API
  */
@@ -218,4 +220,16 @@ public interface Events {
      * @return the response from the List Events request
      */
     Publisher<ListEventsResponse> list(ListEventsRequest request);
+
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/214/events/list_all_events.html">List Events</a> request,
+     * emitting each resource as soon as it has been read rather than once the whole page has been read
+     *
+     * @param request      the List Events request
+     * @param pageConsumer the consumer of the page metadata, without resources, as soon as it has been read
+     * @return the resources from the List Events request
+     */
+    Publisher<ListEventsResponse.ListEventsResponseResource> listResources(ListEventsRequest request,
+                                                                          Consumer<ListEventsResponse> pageConsumer);
+
 }
@@ -18,6 +18,8 @@ package org.cloudfoundry.client.v2.serviceinstances;
 
 import org.reactivestreams.Publisher;
 
+import java.util.function.Consumer;
+
 /**
  * Main entry point to the Cloud Foundry Service Instances Client API
  */
@@ -32,4 +34,16 @@ public interface ServiceInstances {
      */
     Publisher<ListServiceInstancesResponse> list(ListServiceInstancesRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/214/service_instances/list_all_service_instances.html">List
+     * Service Instances</a> request, emitting each resource as soon as it has been read rather than once the whole page
+     * has been read
+     *
+     * @param request      the List Service Instances request
+     * @param pageConsumer the consumer of the page metadata, without resources, as soon as it has been read
+     * @return the resources from the List Service Instances request
+     */
+    Publisher<ListServiceInstancesResponse.ListServiceInstancesResponseResource> listResources(
+            ListServiceInstancesRequest request, Consumer<ListServiceInstancesResponse> pageConsumer);
+
 }
@@ -28,10 +28,34 @@ import org.cloudfoundry.client.ValidationResult;
  */
 public abstract class PaginatedRequest<T extends PaginatedRequest<T>> {
 
+    private volatile Link link;
+
     private volatile Integer page;
 
     private volatile Integer perPage;
 
+    /**
+     * Returns the pagination link
+     *
+     * @return the pagination link
+     */
+    public final Link getLink() {
+        return this.link;
+    }
+
+    /**
+     * Configure a pagination link, such as the {@code next} link of a page, to request as given in place of the url
+     * that would be built from this request
+     *
+     * @param link the pagination link
+     * @return {@code this}
+     */
+    @SuppressWarnings("unchecked")
+    public final T withLink(Link link) {
+        this.link = link;
+        return (T) this;
+    }
+
     /**
      * Returns the page
      *
@@ -84,6 +108,10 @@ public abstract class PaginatedRequest<T extends PaginatedRequest<T>> {
     protected final ValidationResult isPaginatedRequestValid() {
         ValidationResult result = new ValidationResult();
 
+        if (this.link != null && this.link.getHref() == null) {
+            result.invalid("link must specify an href");
+        }
+
         if (this.page != null && this.page < 1) {
             result.invalid("page must be greater than or equal to 1");
         }
@@ -16,6 +16,8 @@
 
 package org.cloudfoundry.client.loggregator;
 
+import com.google.protobuf.ByteString;
+import org.cloudfoundry.client.loggregator.LoggregatorProtocolBuffers.LogMessage;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -23,11 +25,88 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.ERR;
 import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.OUT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public final class LoggregatorMessageTest {
 
+    @Test
+    public void from() {
+        Date timestamp = new Date();
+
+        LogMessage logMessage = LogMessage.newBuilder()
+                .setAppId("test-app-id")
+                .addDrainUrls("test-drain-url-1")
+                .setMessage(ByteString.copyFromUtf8("test-message"))
+                .setMessageType(LogMessage.MessageType.ERR)
+                .setSourceId("test-source-id")
+                .setSourceName("test-source-name")
+                .setTimestamp(MILLISECONDS.toNanos(timestamp.getTime()))
+                .build();
+
+        LoggregatorMessage message = LoggregatorMessage.from(logMessage)
+                .withDrainUrl("test-drain-url-2");
+
+        assertEquals("test-app-id", message.getApplicationId());
+        assertEquals(Arrays.asList("test-drain-url-1", "test-drain-url-2"), message.getDrainUrls());
+        assertEquals("test-message", message.getMessage());
+        assertEquals(ERR, message.getMessageType());
+        assertEquals("test-source-id", message.getSourceId());
+        assertEquals("test-source-name", message.getSourceName());
+        assertEquals(timestamp, message.getTimestamp());
+        assertEquals("test-message-override", message.withMessage("test-message-override").getMessage());
+    }
+
+    @Test
+    public void toLogMessage() {
+        Date timestamp = new Date();
+
+        LoggregatorMessage message = new LoggregatorMessage()
+                .withApplicationId("test-id")
+                .withDrainUrl("test-drain-url")
+                .withMessage("test-message")
+                .withMessageType(OUT)
+                .withSourceId("test-source-id")
+                .withSourceName("test-source-name")
+                .withTimestamp(timestamp);
+
+        LogMessage logMessage = message.toLogMessage();
+
+        assertEquals("test-id", logMessage.getAppId());
+        assertEquals(Collections.singletonList("test-drain-url"), logMessage.getDrainUrlsList());
+        assertEquals("test-message", logMessage.getMessage().toStringUtf8());
+        assertEquals(LogMessage.MessageType.OUT, logMessage.getMessageType());
+        assertEquals("test-source-id", logMessage.getSourceId());
+        assertEquals("test-source-name", logMessage.getSourceName());
+        assertEquals(MILLISECONDS.toNanos(timestamp.getTime()), logMessage.getTimestamp());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toLogMessageMissingFields() {
+        new LoggregatorMessage()
+                .withApplicationId("test-id")
+                .withMessage("test-message")
+                .toLogMessage();
+    }
+
+    @Test
+    public void toLogMessageView() {
+        LogMessage logMessage = LogMessage.newBuilder()
+                .setAppId("test-app-id")
+                .setMessage(ByteString.copyFromUtf8("test-message"))
+                .setMessageType(LogMessage.MessageType.OUT)
+                .setTimestamp(0)
+                .build();
+
+        assertSame(logMessage, LoggregatorMessage.from(logMessage).toLogMessage());
+        assertEquals("test-message-override", LoggregatorMessage.from(logMessage)
+                .withMessage("test-message-override")
+                .toLogMessage().getMessage().toStringUtf8());
+    }
+
     @Test
     public void test() {
         List<String> drainUrls = Arrays.asList("test-drain-url-1", "test-drain-url-2");
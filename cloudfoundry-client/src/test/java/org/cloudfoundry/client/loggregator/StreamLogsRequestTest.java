@@ -21,6 +21,7 @@ import org.junit.Test;
 
 import static org.cloudfoundry.client.ValidationResult.Status.INVALID;
 import static org.cloudfoundry.client.ValidationResult.Status.VALID;
+import static org.cloudfoundry.client.loggregator.LoggregatorMessage.MessageType.ERR;
 import static org.junit.Assert.assertEquals;
 
 public final class StreamLogsRequestTest {
@@ -28,9 +29,21 @@ public final class StreamLogsRequestTest {
     @Test
     public void test() {
         StreamLogsRequest request = new StreamLogsRequest()
-                .withId("test-id");
+                .withId("test-id")
+                .withMessageContains("test-message-contains")
+                .withMessagePattern("test-message-pattern")
+                .withMessageType(ERR)
+                .withReconnect(true)
+                .withSourceId("test-source-id")
+                .withSourceName("test-source-name");
 
         assertEquals("test-id", request.getId());
+        assertEquals("test-message-contains", request.getMessageContains());
+        assertEquals("test-message-pattern", request.getMessagePattern());
+        assertEquals(ERR, request.getMessageType());
+        assertEquals(true, request.getReconnect());
+        assertEquals("test-source-id", request.getSourceId());
+        assertEquals("test-source-name", request.getSourceName());
     }
 
     @Test
@@ -51,4 +64,15 @@ public final class StreamLogsRequestTest {
         assertEquals("id must be specified", result.getMessages().get(0));
     }
 
+    @Test
+    public void isValidInvalidMessagePattern() {
+        ValidationResult result = new StreamLogsRequest()
+                .withId("test-id")
+                .withMessagePattern("[")
+                .isValid();
+
+        assertEquals(INVALID, result.getStatus());
+        assertEquals("messagePattern must be a valid regular expression", result.getMessages().get(0));
+    }
+
 }
@@ -25,10 +25,13 @@ public final class PaginatedRequestTest {
 
     @Test
     public void test() {
+        Link link = new Link().withHref("/v3/apps?page=2");
         StubPaginatedRequest request = new StubPaginatedRequest()
+                .withLink(link)
                 .withPage(-1)
                 .withPerPage(-2);
 
+        assertEquals(link, request.getLink());
         assertEquals(Integer.valueOf(-1), request.getPage());
         assertEquals(Integer.valueOf(-2), request.getPerPage());
     }
@@ -51,6 +54,16 @@ public final class PaginatedRequestTest {
         assertEquals(ValidationResult.Status.VALID, result.getStatus());
     }
 
+    @Test
+    public void isPaginationRequestValidNoHref() {
+        ValidationResult result = new StubPaginatedRequest()
+                .withLink(new Link())
+                .isPaginatedRequestValid();
+
+        assertEquals(ValidationResult.Status.INVALID, result.getStatus());
+        assertEquals("link must specify an href", result.getMessages().get(0));
+    }
+
     @Test
     public void isPaginationRequestValidZeroPage() {
         ValidationResult result = new StubPaginatedRequest()
@@ -18,25 +18,69 @@ package org.cloudfoundry.operations;
 
 import org.cloudfoundry.client.v2.PaginatedRequest;
 import org.cloudfoundry.client.v2.PaginatedResponse;
+import org.cloudfoundry.client.v2.Resource;
 import org.reactivestreams.Publisher;
 import reactor.rx.Stream;
 import reactor.rx.Streams;
 
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 abstract class AbstractOperations {
 
+    private static final int PAGE_CONCURRENCY = 4;
+
     protected final <T extends PaginatedRequest<T>, U extends PaginatedResponse> Stream<U> paginate(
             Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor) {
 
+        return paginate(requestProvider, operationExecutor, Integer.MAX_VALUE, false);
+    }
+
+    protected final <T extends PaginatedRequest<T>, U extends PaginatedResponse> Stream<U> paginate(
+            Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor, int maxConcurrency,
+            boolean ordered) {
+
         return Streams.just(Streams.wrap(operationExecutor.apply(requestProvider.get().withPage(1))))
                 .concatMap(responseStream -> responseStream
                         .take(1)
-                        .concatMap(response -> Streams.range(2, response.getTotalPages() - 1)
-                                        .flatMap(page -> operationExecutor.apply(requestProvider.get().withPage(page)))
-                                        .startWith(response)
-                        ));
+                        .concatMap(response -> {
+                            Iterable<Publisher<U>> pages = () -> IntStream.rangeClosed(2, response.getTotalPages())
+                                    .mapToObj(page -> operationExecutor.apply(requestProvider.get().withPage(page)))
+                                    .iterator();
+
+                            return Streams.wrap(new MergingPublisher<>(pages, maxConcurrency, ordered))
+                                    .startWith(response);
+                        }));
+    }
+
+    protected final <T extends PaginatedRequest<T>, U extends PaginatedResponse<U, R>, R extends Resource<R, ?>>
+    Stream<R> paginateLazily(Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor) {
+
+        return Streams.wrap(new PaginatingPublisher<T, U, R>(
+                () -> requestProvider.get().withPage(1),
+                (request, response) -> request.getPage() < response.getTotalPages() ?
+                        Optional.of(requestProvider.get().withPage(request.getPage() + 1)) : Optional.empty(),
+                operationExecutor, PaginatedResponse::getResources, false));
+    }
+
+    protected final <T extends PaginatedRequest<T>, U extends PaginatedResponse<U, R>, R extends Resource<R, ?>>
+    Stream<R> paginateResources(Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor) {
+
+        Publisher<R> fetchingAhead = paginate(requestProvider, operationExecutor, PAGE_CONCURRENCY, true)
+                .concatMap(response -> Streams.from(response.getResources()));
+
+        return Streams.wrap(new DemandSwitchingPublisher<>(paginateLazily(requestProvider, operationExecutor),
+                fetchingAhead));
+    }
+
+    protected final <T extends org.cloudfoundry.client.v3.PaginatedRequest<T>,
+            U extends org.cloudfoundry.client.v3.PaginatedResponse<U, R>, R>
+    Stream<R> paginateLinks(Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor,
+                            boolean prefetch) {
+
+        return Streams.wrap(LinkPagination.follow(requestProvider, operationExecutor, prefetch));
     }
 
 }
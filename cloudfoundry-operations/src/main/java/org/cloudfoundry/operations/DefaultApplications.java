@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.reactivestreams.Publisher;
+
+import java.util.Optional;
+
+final class DefaultApplications extends AbstractOperations implements Applications {
+
+    private final CloudFoundryClient cloudFoundryClient;
+
+    private final Optional<String> spaceId;
+
+    DefaultApplications(CloudFoundryClient cloudFoundryClient, Optional<String> spaceId) {
+        this.cloudFoundryClient = cloudFoundryClient;
+        this.spaceId = spaceId;
+    }
+
+    @Override
+    public Publisher<Application> list() {
+        String spaceId = this.spaceId
+                .orElseThrow(() -> new IllegalStateException("No space targeted"));
+
+        return paginateLinks(() -> new ListApplicationsRequest().withSpaceId(spaceId),
+                request -> this.cloudFoundryClient.applications().list(request), false)
+                .map(resource -> new Application(resource.getId(), resource.getName()));
+    }
+
+}
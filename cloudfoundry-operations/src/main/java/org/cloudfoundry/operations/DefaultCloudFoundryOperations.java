@@ -22,16 +22,24 @@ import java.util.Optional;
 
 final class DefaultCloudFoundryOperations implements CloudFoundryOperations {
 
+    private final Applications applications;
+
     private final Organizations organizations;
 
     private final Spaces spaces;
 
     DefaultCloudFoundryOperations(CloudFoundryClient cloudFoundryClient, Optional<String> organizationId,
                                   Optional<String> spaceId) {
+        this.applications = new DefaultApplications(cloudFoundryClient, spaceId);
         this.organizations = new DefaultOrganizations(cloudFoundryClient);
         this.spaces = new DefaultSpaces(cloudFoundryClient, organizationId);
     }
 
+    @Override
+    public Applications applications() {
+        return this.applications;
+    }
+
     @Override
     public Organizations organizations() {
         return this.organizations;
@@ -19,7 +19,6 @@ package org.cloudfoundry.operations;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
 import org.reactivestreams.Publisher;
-import reactor.rx.Streams;
 
 final class DefaultOrganizations extends AbstractOperations implements Organizations {
 
@@ -31,8 +30,8 @@ final class DefaultOrganizations extends AbstractOperations implements Organizat
 
     @Override
     public Publisher<Organization> list() {
-        return paginate(ListOrganizationsRequest::new, request -> this.cloudFoundryClient.organizations().list(request))
-                .flatMap(r -> Streams.from(r.getResources()))
+        return paginateResources(ListOrganizationsRequest::new,
+                request -> this.cloudFoundryClient.organizations().list(request))
                 .map(resource -> new Organization(resource.getMetadata().getId(), resource.getEntity().getName()));
     }
 
@@ -19,7 +19,6 @@ package org.cloudfoundry.operations;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
 import org.reactivestreams.Publisher;
-import reactor.rx.Streams;
 
 import java.util.Optional;
 
@@ -39,9 +38,8 @@ final class DefaultSpaces extends AbstractOperations implements Spaces {
         String organizationId = this.organizationId
                 .orElseThrow(() -> new IllegalStateException("No organization targeted"));
 
-        return paginate(() -> new ListSpacesRequest().withOrganizationId(organizationId),
+        return paginateResources(() -> new ListSpacesRequest().withOrganizationId(organizationId),
                 request -> this.cloudFoundryClient.spaces().list(request))
-                .flatMap(r -> Streams.from(r.getResources()))
                 .map(resource -> new Space(resource.getMetadata().getId(), resource.getEntity().getName()));
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Publisher} that chooses its source by the first demand of its subscriber.  A subscriber that requests every
+ * item at once, such as one collecting a listing into a list, is subscribed to the unbounded source.  Any other
+ * subscriber, such as one looking for the first match, is subscribed to the bounded source.  Neither source is
+ * subscribed to until the first request.
+ *
+ * @param <T> the type of the items
+ */
+final class DemandSwitchingPublisher<T> implements Publisher<T> {
+
+    private final Publisher<? extends T> bounded;
+
+    private final Publisher<? extends T> unbounded;
+
+    DemandSwitchingPublisher(Publisher<? extends T> bounded, Publisher<? extends T> unbounded) {
+        this.bounded = bounded;
+        this.unbounded = unbounded;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new SwitchingSubscription<>(subscriber, this.bounded, this.unbounded));
+    }
+
+    private static final class SwitchingSubscription<T> implements Subscriber<T>, Subscription {
+
+        private final Publisher<? extends T> bounded;
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong pending = new AtomicLong();
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final Subscriber<? super T> subscriber;
+
+        private final Publisher<? extends T> unbounded;
+
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+        private SwitchingSubscription(Subscriber<? super T> subscriber, Publisher<? extends T> bounded,
+                                      Publisher<? extends T> unbounded) {
+            this.bounded = bounded;
+            this.subscriber = subscriber;
+            this.unbounded = unbounded;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+
+            Subscription upstream = this.upstream.get();
+            if (upstream != null) {
+                upstream.cancel();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            this.subscriber.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onNext(T item) {
+            this.subscriber.onNext(item);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (this.cancelled) {
+                subscription.cancel();
+                return;
+            }
+
+            this.upstream.set(subscription);
+            requestPending(subscription);
+        }
+
+        @Override
+        public void request(long n) {
+            if (this.started.compareAndSet(false, true)) {
+                this.pending.set(n);
+                (n == Long.MAX_VALUE ? this.unbounded : this.bounded).subscribe(this);
+                return;
+            }
+
+            Subscription upstream = this.upstream.get();
+            if (upstream != null) {
+                upstream.request(n);
+                return;
+            }
+
+            this.pending.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+
+            upstream = this.upstream.get();
+            if (upstream != null) {
+                requestPending(upstream);
+            }
+        }
+
+        private void requestPending(Subscription subscription) {
+            long n = this.pending.getAndSet(0);
+            if (n != 0) {
+                subscription.request(n);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.PaginatedRequest;
+import org.cloudfoundry.client.v3.PaginatedResponse;
+import org.reactivestreams.Publisher;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pagination of v3 listings by following the {@code next} link of each page
+ */
+final class LinkPagination {
+
+    private LinkPagination() {
+    }
+
+    /**
+     * Returns a {@link Publisher} of the resources of every page of a v3 listing.  The first page is requested with the
+     * page configured by the request provider, or the first page if none is configured, and each subsequent page is
+     * requested by following the previous page's {@code next} link as given.
+     *
+     * @param requestProvider   the provider of requests, configured with everything but the page
+     * @param operationExecutor the executor of the listing operation
+     * @param prefetch          whether to request the next page as soon as the previous page has been received
+     * @param <T>               the type of the requests
+     * @param <U>               the type of the pages
+     * @param <R>               the type of the resources
+     * @return a {@link Publisher} of the resources
+     */
+    static <T extends PaginatedRequest<T>, U extends PaginatedResponse<U, R>, R> Publisher<R> follow(
+            Supplier<T> requestProvider, Function<T, Publisher<U>> operationExecutor, boolean prefetch) {
+
+        return new PaginatingPublisher<T, U, R>(
+                () -> {
+                    T request = requestProvider.get();
+                    return request.getPage() == null ? request.withPage(1) : request;
+                },
+                (request, response) -> nextLink(response).map(link -> requestProvider.get().withLink(link)),
+                operationExecutor, PaginatedResponse::getResources, prefetch);
+    }
+
+    /**
+     * Returns the {@code next} link of a page
+     *
+     * @param response the page
+     * @return the next link, or empty if the page is the last
+     */
+    static Optional<Link> nextLink(PaginatedResponse<?, ?> response) {
+        return Optional.ofNullable(response.getPagination())
+                .map(PaginatedResponse.Pagination::getNext)
+                .filter(link -> link.getHref() != null);
+    }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Publisher} that subscribes to a sequence of publishers, with at most {@code maxConcurrency} of them
+ * subscribed at a time, and merges their items.  When ordered, items are emitted in the order of the sequence, with the
+ * items of publishers that complete ahead of their turn held until it comes.  Otherwise, items are emitted as they
+ * arrive.
+ *
+ * <p>Each source is requested in full on subscription, so sources should emit a small number of items, such as the
+ * single response of a page request.
+ *
+ * @param <T> the type of the items
+ */
+final class MergingPublisher<T> implements Publisher<T> {
+
+    private final int maxConcurrency;
+
+    private final boolean ordered;
+
+    private final Iterable<? extends Publisher<? extends T>> sources;
+
+    MergingPublisher(Iterable<? extends Publisher<? extends T>> sources, int maxConcurrency, boolean ordered) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        this.ordered = ordered;
+        this.sources = sources;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new MergingSubscription<>(subscriber, this.sources.iterator(), this.maxConcurrency,
+                this.ordered));
+    }
+
+    private static final class MergingSubscription<T> implements Subscription {
+
+        private final Deque<SourceSubscriber<T>> active = new ArrayDeque<>();
+
+        private volatile boolean cancelled = false;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private final int maxConcurrency;
+
+        private final boolean ordered;
+
+        private final Iterator<? extends Publisher<? extends T>> sources;
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private MergingSubscription(Subscriber<? super T> subscriber,
+                                    Iterator<? extends Publisher<? extends T>> sources, int maxConcurrency,
+                                    boolean ordered) {
+            this.maxConcurrency = maxConcurrency;
+            this.ordered = ordered;
+            this.sources = sources;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                String message = "Request amount must be positive, but was " + n;
+                this.error.compareAndSet(null, new IllegalArgumentException(message));
+            } else {
+                this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+
+            drain();
+        }
+
+        private void cancelAll() {
+            this.active.forEach(SourceSubscriber::cancel);
+            this.active.clear();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            for (; ; ) {
+                if (this.cancelled) {
+                    cancelAll();
+                    return;
+                }
+
+                Throwable throwable = this.error.get();
+                if (throwable != null) {
+                    this.cancelled = true;
+                    cancelAll();
+                    this.subscriber.onError(throwable);
+                    return;
+                }
+
+                try {
+                    while (this.active.size() < this.maxConcurrency && this.sources.hasNext()) {
+                        SourceSubscriber<T> source = new SourceSubscriber<>(this);
+                        this.active.offer(source);
+                        this.sources.next().subscribe(source);
+                    }
+                } catch (RuntimeException e) {
+                    this.error.compareAndSet(null, e);
+                    continue;
+                }
+
+                long requested = this.demand.get();
+                long emitted = 0;
+                boolean removed = false;
+
+                Iterator<SourceSubscriber<T>> iterator = this.active.iterator();
+                while (iterator.hasNext()) {
+                    SourceSubscriber<T> source = iterator.next();
+                    boolean done = source.done;
+
+                    T item;
+                    while (emitted != requested && (item = source.queue.poll()) != null) {
+                        this.subscriber.onNext(item);
+                        emitted++;
+                    }
+
+                    if (done && source.queue.isEmpty()) {
+                        iterator.remove();
+                        removed = true;
+                    } else if (this.ordered) {
+                        break;
+                    }
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.demand.addAndGet(-emitted);
+                }
+
+                if (this.active.isEmpty() && !this.sources.hasNext()) {
+                    this.cancelled = true;
+                    this.subscriber.onComplete();
+                    return;
+                }
+
+                if (removed) {
+                    continue;
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    private static final class SourceSubscriber<T> implements Subscriber<T> {
+
+        private volatile boolean cancelled = false;
+
+        private volatile boolean done = false;
+
+        private final MergingSubscription<T> parent;
+
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        private volatile Subscription subscription;
+
+        private SourceSubscriber(MergingSubscription<T> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            this.parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.parent.error.compareAndSet(null, throwable);
+            this.parent.drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            this.queue.offer(item);
+            this.parent.drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+
+            if (this.cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        private void cancel() {
+            this.cancelled = true;
+
+            Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+    }
+
+}
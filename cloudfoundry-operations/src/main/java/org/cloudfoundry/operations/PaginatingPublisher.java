@@ -0,0 +1,295 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Publisher} that emits the resources of a sequence of pages, requesting pages one at a time.  A page is only
+ * requested once downstream demand reaches the end of the resources of the previous page, or, when prefetching, as
+ * soon as the previous page has been received and all earlier pages have been emitted.  No further pages are requested
+ * once the subscription is cancelled.
+ *
+ * @param <T> the type of the page requests
+ * @param <U> the type of the pages
+ * @param <R> the type of the resources
+ */
+final class PaginatingPublisher<T, U, R> implements Publisher<R> {
+
+    private final Supplier<T> firstRequest;
+
+    private final BiFunction<T, U, Optional<T>> nextRequest;
+
+    private final Function<T, Publisher<U>> operationExecutor;
+
+    private final boolean prefetch;
+
+    private final Function<U, List<R>> resourcesExtractor;
+
+    PaginatingPublisher(Supplier<T> firstRequest, BiFunction<T, U, Optional<T>> nextRequest,
+                        Function<T, Publisher<U>> operationExecutor, Function<U, List<R>> resourcesExtractor,
+                        boolean prefetch) {
+        this.firstRequest = firstRequest;
+        this.nextRequest = nextRequest;
+        this.operationExecutor = operationExecutor;
+        this.prefetch = prefetch;
+        this.resourcesExtractor = resourcesExtractor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> subscriber) {
+        subscriber.onSubscribe(new PaginatingSubscription(subscriber));
+    }
+
+    private final class PaginatingSubscription implements Subscription {
+
+        private volatile boolean cancelled = false;
+
+        private PageSubscriber current;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private boolean last = false;
+
+        private int lastPageSize = 0;
+
+        private Optional<T> next = Optional.empty();
+
+        private final Queue<R> resources = new ArrayDeque<>();
+
+        private boolean started = false;
+
+        private final Subscriber<? super R> subscriber;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private PaginatingSubscription(Subscriber<? super R> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                String message = "Request amount must be positive, but was " + n;
+                this.error.compareAndSet(null, new IllegalArgumentException(message));
+            } else {
+                this.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+
+            drain();
+        }
+
+        private void cancelCurrent() {
+            if (this.current != null) {
+                this.current.cancel();
+                this.current = null;
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            for (; ; ) {
+                if (this.cancelled) {
+                    cancelCurrent();
+                    this.resources.clear();
+                    return;
+                }
+
+                Throwable throwable = this.error.get();
+                if (throwable != null) {
+                    this.cancelled = true;
+                    cancelCurrent();
+                    this.resources.clear();
+                    this.subscriber.onError(throwable);
+                    return;
+                }
+
+                if (this.current != null && this.current.done) {
+                    try {
+                        receive(this.current);
+                    } catch (RuntimeException e) {
+                        this.error.compareAndSet(null, e);
+                        continue;
+                    }
+                }
+
+                long requested = this.demand.get();
+                long emitted = 0;
+
+                R resource;
+                while (emitted != requested && (resource = this.resources.poll()) != null) {
+                    this.subscriber.onNext(resource);
+                    emitted++;
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    requested = this.demand.addAndGet(-emitted);
+                }
+
+                if (this.resources.isEmpty() && this.last) {
+                    this.cancelled = true;
+                    this.subscriber.onComplete();
+                    return;
+                }
+
+                if (this.current == null && shouldRequestPage(requested)) {
+                    try {
+                        requestPage();
+                    } catch (RuntimeException e) {
+                        this.error.compareAndSet(null, e);
+                    }
+                    continue;
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void receive(PageSubscriber pageSubscriber) {
+            this.current = null;
+
+            U page = pageSubscriber.page;
+            if (page == null) {
+                this.last = true;
+                return;
+            }
+
+            List<R> pageResources = PaginatingPublisher.this.resourcesExtractor.apply(page);
+            this.lastPageSize = pageResources.size();
+            this.resources.addAll(pageResources);
+
+            this.next = PaginatingPublisher.this.nextRequest.apply(pageSubscriber.request, page);
+            this.last = !this.next.isPresent();
+        }
+
+        private void requestPage() {
+            T request;
+            if (!this.started) {
+                this.started = true;
+                request = PaginatingPublisher.this.firstRequest.get();
+            } else {
+                request = this.next.get();
+            }
+
+            this.current = new PageSubscriber(request);
+            PaginatingPublisher.this.operationExecutor.apply(request).subscribe(this.current);
+        }
+
+        private boolean shouldRequestPage(long requested) {
+            if (!this.started) {
+                return requested > 0;
+            }
+
+            if (this.last) {
+                return false;
+            }
+
+            if (PaginatingPublisher.this.prefetch && this.resources.size() <= this.lastPageSize) {
+                return true;
+            }
+
+            return this.resources.isEmpty() && requested > 0;
+        }
+
+        private final class PageSubscriber implements Subscriber<U> {
+
+            private volatile boolean cancelled = false;
+
+            private volatile boolean done = false;
+
+            private volatile U page;
+
+            private final T request;
+
+            private volatile Subscription subscription;
+
+            private PageSubscriber(T request) {
+                this.request = request;
+            }
+
+            @Override
+            public void onComplete() {
+                this.done = true;
+                drain();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                PaginatingSubscription.this.error.compareAndSet(null, throwable);
+                drain();
+            }
+
+            @Override
+            public void onNext(U page) {
+                if (this.page == null) {
+                    this.page = page;
+                }
+            }
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+
+                if (this.cancelled) {
+                    subscription.cancel();
+                } else {
+                    subscription.request(Long.MAX_VALUE);
+                }
+            }
+
+            private void cancel() {
+                this.cancelled = true;
+
+                Subscription subscription = this.subscription;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ package org.cloudfoundry.operations;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.organizations.Organizations;
 import org.cloudfoundry.client.v2.spaces.Spaces;
+import org.cloudfoundry.client.v3.applications.Applications;
 import org.junit.Before;
 
 import static org.mockito.Mockito.mock;
@@ -26,6 +27,8 @@ import static org.mockito.Mockito.when;
 
 public abstract class AbstractOperationsTest {
 
+    protected final Applications applications = mock(Applications.class);
+
     protected final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class);
 
     protected final Organizations organizations = mock(Organizations.class);
@@ -34,6 +37,7 @@ public abstract class AbstractOperationsTest {
 
     @Before
     public void mockClient() throws Exception {
+        when(this.cloudFoundryClient.applications()).thenReturn(this.applications);
         when(this.cloudFoundryClient.organizations()).thenReturn(this.organizations);
         when(this.cloudFoundryClient.spaces()).thenReturn(this.spaces);
     }
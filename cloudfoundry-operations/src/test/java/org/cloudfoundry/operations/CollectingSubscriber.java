@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class CollectingSubscriber<T> implements Subscriber<T> {
+
+    volatile boolean complete = false;
+
+    volatile Throwable error;
+
+    final List<T> items = new ArrayList<>();
+
+    volatile Subscription subscription;
+
+    @Override
+    public void onComplete() {
+        this.complete = true;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.error = throwable;
+    }
+
+    @Override
+    public void onNext(T item) {
+        this.items.add(item);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+}
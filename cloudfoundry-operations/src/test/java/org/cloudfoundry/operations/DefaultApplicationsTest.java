@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.PaginatedResponse.Pagination;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.junit.Test;
+import reactor.Publishers;
+import reactor.rx.Streams;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
+
+public final class DefaultApplicationsTest extends AbstractOperationsTest {
+
+    private final DefaultApplications applications = new DefaultApplications(this.cloudFoundryClient,
+            Optional.of("test-space-id"));
+
+    private final DefaultApplications applicationsNoSpace = new DefaultApplications(this.cloudFoundryClient,
+            Optional.empty());
+
+    @Test
+    public void list() {
+        Link next = new Link().withHref("/v3/apps?page=2&per_page=1&space_guids[]=test-space-id");
+
+        ListApplicationsResponse page1 = new ListApplicationsResponse()
+                .withPagination(new Pagination().withNext(next))
+                .withResource(new ListApplicationsResponse.Resource().withId("test-id-1").withName("test-name-1"));
+        ListApplicationsResponse page2 = new ListApplicationsResponse()
+                .withPagination(new Pagination())
+                .withResource(new ListApplicationsResponse.Resource().withId("test-id-2").withName("test-name-2"));
+
+        when(this.cloudFoundryClient.applications().list(any(ListApplicationsRequest.class))).thenAnswer(invocation -> {
+            ListApplicationsRequest request = invocation.getArgumentAt(0, ListApplicationsRequest.class);
+            assertEquals(Collections.singletonList("test-space-id"), request.getSpaceIds());
+
+            return Publishers.just(request.getLink() == null ? page1 : page2);
+        });
+
+        List<Application> expected = Arrays.asList(
+                new Application("test-id-1", "test-name-1"),
+                new Application("test-id-2", "test-name-2")
+        );
+
+        List<Application> actual = Streams.wrap(this.applications.list()).toList().poll();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void listNoSpace() {
+        this.applicationsNoSpace.list();
+    }
+
+}
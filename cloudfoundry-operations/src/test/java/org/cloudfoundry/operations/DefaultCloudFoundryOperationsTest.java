@@ -27,6 +27,11 @@ public final class DefaultCloudFoundryOperationsTest extends AbstractOperationsT
     private final DefaultCloudFoundryOperations operations = new DefaultCloudFoundryOperations(
             this.cloudFoundryClient, Optional.empty(), Optional.<String>empty());
 
+    @Test
+    public void applications() {
+        assertNotNull(this.operations.applications());
+    }
+
     @Test
     public void organizations() {
         assertNotNull(this.operations.organizations());
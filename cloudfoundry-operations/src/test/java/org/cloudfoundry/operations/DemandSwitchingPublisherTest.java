@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class DemandSwitchingPublisherTest {
+
+    private final StubPublisher bounded = new StubPublisher();
+
+    private final CollectingSubscriber<String> subscriber = new CollectingSubscriber<>();
+
+    private final StubPublisher unbounded = new StubPublisher();
+
+    @Test
+    public void bounded() {
+        new DemandSwitchingPublisher<>(this.bounded, this.unbounded).subscribe(this.subscriber);
+        this.subscriber.subscription.request(1);
+        this.subscriber.subscription.request(2);
+
+        assertNull(this.unbounded.subscriber);
+        assertEquals(Arrays.asList(1L, 2L), this.bounded.requests);
+
+        this.bounded.subscriber.onNext("test-value");
+        this.bounded.subscriber.onComplete();
+
+        assertEquals(Collections.singletonList("test-value"), this.subscriber.items);
+        assertTrue(this.subscriber.complete);
+    }
+
+    @Test
+    public void cancel() {
+        new DemandSwitchingPublisher<>(this.bounded, this.unbounded).subscribe(this.subscriber);
+        this.subscriber.subscription.request(1);
+        this.subscriber.subscription.cancel();
+
+        assertTrue(this.bounded.cancelled);
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        new DemandSwitchingPublisher<>(this.bounded, this.unbounded).subscribe(this.subscriber);
+
+        assertNull(this.bounded.subscriber);
+        assertNull(this.unbounded.subscriber);
+    }
+
+    @Test
+    public void error() {
+        IllegalStateException exception = new IllegalStateException();
+
+        new DemandSwitchingPublisher<>(this.bounded, this.unbounded).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+        this.unbounded.subscriber.onError(exception);
+
+        assertEquals(exception, this.subscriber.error);
+    }
+
+    @Test
+    public void unbounded() {
+        new DemandSwitchingPublisher<>(this.bounded, this.unbounded).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertNull(this.bounded.subscriber);
+        assertEquals(Collections.singletonList(Long.MAX_VALUE), this.unbounded.requests);
+        assertFalse(this.unbounded.cancelled);
+    }
+
+    private static final class StubPublisher implements Publisher<String> {
+
+        private volatile boolean cancelled = false;
+
+        private final List<Long> requests = new ArrayList<>();
+
+        private volatile Subscriber<? super String> subscriber;
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void cancel() {
+                    StubPublisher.this.cancelled = true;
+                }
+
+                @Override
+                public void request(long n) {
+                    StubPublisher.this.requests.add(n);
+                }
+
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.PaginatedRequest;
+import org.cloudfoundry.client.v3.PaginatedResponse;
+import org.cloudfoundry.client.v3.PaginatedResponse.Pagination;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.droplets.ListDropletsRequest;
+import org.cloudfoundry.client.v3.droplets.ListDropletsResponse;
+import org.cloudfoundry.client.v3.packages.ListPackagesRequest;
+import org.cloudfoundry.client.v3.packages.ListPackagesResponse;
+import org.cloudfoundry.client.v3.processes.ListProcessesRequest;
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class LinkPaginationTest {
+
+    private final List<PaginatedRequest<?>> requests = new ArrayList<>();
+
+    @Test
+    public void applications() {
+        ListApplicationsResponse page1 = new ListApplicationsResponse()
+                .withPagination(pagination("/v3/apps?names=test-name&page=2&per_page=1"))
+                .withResource(new ListApplicationsResponse.Resource().withId("test-id-1"));
+        ListApplicationsResponse page2 = new ListApplicationsResponse()
+                .withPagination(pagination("/v3/apps?names=test-name&page=3&per_page=1"))
+                .withResource(new ListApplicationsResponse.Resource().withId("test-id-2"));
+        ListApplicationsResponse page3 = new ListApplicationsResponse()
+                .withPagination(pagination(null))
+                .withResource(new ListApplicationsResponse.Resource().withId("test-id-3"));
+
+        CollectingSubscriber<ListApplicationsResponse.Resource> subscriber = new CollectingSubscriber<>();
+        LinkPagination.follow(() -> new ListApplicationsRequest().withName("test-name").withPerPage(1),
+                pages(page1, page2, page3), false)
+                .subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList(page1.getResources().get(0), page2.getResources().get(0),
+                page3.getResources().get(0)), subscriber.items);
+        assertEquals(Arrays.asList(null, "/v3/apps?names=test-name&page=2&per_page=1",
+                "/v3/apps?names=test-name&page=3&per_page=1"), requestedLinks());
+        assertEquals(Integer.valueOf(1), this.requests.get(0).getPage());
+        this.requests.forEach(request -> {
+            assertEquals(Collections.singletonList("test-name"), ((ListApplicationsRequest) request).getNames());
+            assertEquals(Integer.valueOf(1), request.getPerPage());
+        });
+        assertTrue(subscriber.complete);
+    }
+
+    @Test
+    public void droplets() {
+        ListDropletsResponse page1 = new ListDropletsResponse()
+                .withPagination(pagination("https://api.run.pivotal.io/v3/droplets?page=2"))
+                .withResource(new ListDropletsResponse.Resource().withId("test-id-1"));
+        ListDropletsResponse page2 = new ListDropletsResponse()
+                .withResource(new ListDropletsResponse.Resource().withId("test-id-2"));
+
+        CollectingSubscriber<ListDropletsResponse.Resource> subscriber = new CollectingSubscriber<>();
+        LinkPagination.follow(ListDropletsRequest::new, pages(page1, page2), false).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(2, subscriber.items.size());
+        assertEquals(Arrays.asList(null, "https://api.run.pivotal.io/v3/droplets?page=2"), requestedLinks());
+        assertTrue(subscriber.complete);
+    }
+
+    @Test
+    public void lazy() {
+        ListPackagesResponse page1 = new ListPackagesResponse()
+                .withPagination(pagination("/v3/packages?page=2"))
+                .withResource(new ListPackagesResponse.Resource().withId("test-id-1"))
+                .withResource(new ListPackagesResponse.Resource().withId("test-id-2"));
+        ListPackagesResponse page2 = new ListPackagesResponse()
+                .withPagination(pagination(null))
+                .withResource(new ListPackagesResponse.Resource().withId("test-id-3"));
+
+        CollectingSubscriber<ListPackagesResponse.Resource> subscriber = new CollectingSubscriber<>();
+        LinkPagination.follow(ListPackagesRequest::new, pages(page1, page2), false).subscribe(subscriber);
+        subscriber.subscription.request(2);
+
+        assertEquals(2, subscriber.items.size());
+        assertEquals(Collections.singletonList(null), requestedLinks());
+
+        subscriber.subscription.request(1);
+
+        assertEquals(3, subscriber.items.size());
+        assertEquals(Arrays.asList(null, "/v3/packages?page=2"), requestedLinks());
+        assertTrue(subscriber.complete);
+    }
+
+    @Test
+    public void nextLink() {
+        Link next = new Link().withHref("/v3/apps?per_page=10&page=4");
+
+        assertEquals(Optional.of(next), LinkPagination.nextLink(new ListApplicationsResponse()
+                .withPagination(new Pagination().withNext(next))));
+        assertEquals(Optional.empty(), LinkPagination.nextLink(new ListApplicationsResponse()
+                .withPagination(pagination(null))));
+        assertEquals(Optional.empty(), LinkPagination.nextLink(new ListApplicationsResponse()));
+        assertEquals(Optional.empty(), LinkPagination.nextLink(new ListApplicationsResponse()
+                .withPagination(new Pagination().withNext(new Link()))));
+    }
+
+    @Test
+    public void prefetch() {
+        ListProcessesResponse page1 = new ListProcessesResponse()
+                .withPagination(pagination("/v3/processes?page=2"))
+                .withResource(new ListProcessesResponse.Resource().withId("test-id-1"))
+                .withResource(new ListProcessesResponse.Resource().withId("test-id-2"));
+        ListProcessesResponse page2 = new ListProcessesResponse()
+                .withPagination(pagination(null))
+                .withResource(new ListProcessesResponse.Resource().withId("test-id-3"));
+
+        CollectingSubscriber<ListProcessesResponse.Resource> subscriber = new CollectingSubscriber<>();
+        LinkPagination.follow(ListProcessesRequest::new, pages(page1, page2), true).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertEquals(1, subscriber.items.size());
+        assertEquals(Arrays.asList(null, "/v3/processes?page=2"), requestedLinks());
+    }
+
+    private static Pagination pagination(String next) {
+        return new Pagination().withNext(next == null ? null : new Link().withHref(next));
+    }
+
+    @SafeVarargs
+    private final <T extends PaginatedRequest<T>, U extends PaginatedResponse<U, ?>> Function<T, Publisher<U>> pages(
+            U... pages) {
+
+        return request -> subscriber -> subscriber.onSubscribe(new Subscription() {
+
+            private boolean done = false;
+
+            @Override
+            public void cancel() {
+                this.done = true;
+            }
+
+            @Override
+            public void request(long n) {
+                if (!this.done) {
+                    this.done = true;
+                    LinkPaginationTest.this.requests.add(request);
+                    subscriber.onNext(page(request, pages));
+                    subscriber.onComplete();
+                }
+            }
+
+        });
+    }
+
+    private static <U extends PaginatedResponse<U, ?>> U page(PaginatedRequest<?> request, U[] pages) {
+        if (request.getLink() == null) {
+            return pages[0];
+        }
+
+        for (int i = 0; i < pages.length - 1; i++) {
+            if (request.getLink().equals(pages[i].getPagination().getNext())) {
+                return pages[i + 1];
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown link " + request.getLink().getHref());
+    }
+
+    private List<String> requestedLinks() {
+        List<String> links = new ArrayList<>();
+        this.requests.forEach(request -> links.add(request.getLink() == null ? null : request.getLink().getHref()));
+        return links;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class MergingPublisherTest {
+
+    private final List<ManualPublisher> sources = Arrays.asList(new ManualPublisher(), new ManualPublisher(),
+            new ManualPublisher());
+
+    private final CollectingSubscriber<String> subscriber = new CollectingSubscriber<>();
+
+    @Test
+    public void boundedConcurrency() {
+        new MergingPublisher<>(this.sources, 2, true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList(true, true, false), subscribed());
+
+        this.sources.get(0).complete("test-value-1");
+
+        assertEquals(Arrays.asList(true, true, true), subscribed());
+    }
+
+    @Test
+    public void cancel() {
+        new MergingPublisher<>(this.sources, 2, true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+        this.subscriber.subscription.cancel();
+
+        assertTrue(this.sources.get(0).cancelled);
+        assertTrue(this.sources.get(1).cancelled);
+        assertEquals(Arrays.asList(true, true, false), subscribed());
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        new MergingPublisher<>(this.sources, 2, true).subscribe(this.subscriber);
+
+        assertEquals(Arrays.asList(false, false, false), subscribed());
+    }
+
+    @Test
+    public void demand() {
+        new MergingPublisher<>(this.sources, 3, true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(1);
+
+        this.sources.get(0).complete("test-value-1");
+        this.sources.get(1).complete("test-value-2");
+
+        assertEquals(Collections.singletonList("test-value-1"), this.subscriber.items);
+
+        this.subscriber.subscription.request(2);
+        this.sources.get(2).complete("test-value-3");
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3"), this.subscriber.items);
+        assertTrue(this.subscriber.complete);
+    }
+
+    @Test
+    public void error() {
+        IllegalStateException exception = new IllegalStateException();
+
+        new MergingPublisher<>(this.sources, 3, true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+        this.sources.get(1).subscriber.onError(exception);
+
+        assertEquals(exception, this.subscriber.error);
+        assertTrue(this.sources.get(0).cancelled);
+        assertTrue(this.sources.get(2).cancelled);
+    }
+
+    @Test
+    public void ordered() {
+        new MergingPublisher<>(this.sources, 3, true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        this.sources.get(2).complete("test-value-3");
+        this.sources.get(1).complete("test-value-2");
+
+        assertTrue(this.subscriber.items.isEmpty());
+
+        this.sources.get(0).complete("test-value-1");
+
+        assertEquals(Arrays.asList("test-value-1", "test-value-2", "test-value-3"), this.subscriber.items);
+        assertTrue(this.subscriber.complete);
+    }
+
+    @Test
+    public void unordered() {
+        new MergingPublisher<>(this.sources, 3, false).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        this.sources.get(2).complete("test-value-3");
+        this.sources.get(1).complete("test-value-2");
+        this.sources.get(0).complete("test-value-1");
+
+        assertEquals(Arrays.asList("test-value-3", "test-value-2", "test-value-1"), this.subscriber.items);
+        assertTrue(this.subscriber.complete);
+    }
+
+    private List<Boolean> subscribed() {
+        List<Boolean> subscribed = new ArrayList<>();
+        this.sources.forEach(source -> subscribed.add(source.subscriber != null));
+        return subscribed;
+    }
+
+    private static final class ManualPublisher implements Publisher<String> {
+
+        private volatile boolean cancelled = false;
+
+        private volatile Subscriber<? super String> subscriber;
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void cancel() {
+                    ManualPublisher.this.cancelled = true;
+                }
+
+                @Override
+                public void request(long n) {
+                }
+
+            });
+        }
+
+        private void complete(String item) {
+            this.subscriber.onNext(item);
+            this.subscriber.onComplete();
+        }
+
+    }
+
+}
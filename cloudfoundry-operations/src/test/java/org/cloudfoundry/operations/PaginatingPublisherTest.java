@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class PaginatingPublisherTest {
+
+    private final List<Integer> requestedPages = new ArrayList<>();
+
+    private final CollectingSubscriber<String> subscriber = new CollectingSubscriber<>();
+
+    @Test
+    public void all() {
+        publisher(false).subscribe(this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("1-1", "1-2", "2-1", "2-2", "3-1", "3-2"), this.subscriber.items);
+        assertEquals(Arrays.asList(1, 2, 3), this.requestedPages);
+        assertTrue(this.subscriber.complete);
+    }
+
+    @Test
+    public void cancel() {
+        publisher(false).subscribe(this.subscriber);
+        this.subscriber.subscription.request(2);
+        this.subscriber.subscription.cancel();
+        this.subscriber.subscription.request(1);
+
+        assertEquals(Arrays.asList("1-1", "1-2"), this.subscriber.items);
+        assertEquals(Collections.singletonList(1), this.requestedPages);
+    }
+
+    @Test
+    public void deferredUntilRequest() {
+        publisher(false).subscribe(this.subscriber);
+
+        assertTrue(this.requestedPages.isEmpty());
+    }
+
+    @Test
+    public void lazy() {
+        publisher(false).subscribe(this.subscriber);
+        this.subscriber.subscription.request(1);
+
+        assertEquals(Collections.singletonList("1-1"), this.subscriber.items);
+        assertEquals(Collections.singletonList(1), this.requestedPages);
+
+        this.subscriber.subscription.request(1);
+
+        assertEquals(Collections.singletonList(1), this.requestedPages);
+
+        this.subscriber.subscription.request(1);
+
+        assertEquals(Arrays.asList("1-1", "1-2", "2-1"), this.subscriber.items);
+        assertEquals(Arrays.asList(1, 2), this.requestedPages);
+    }
+
+    @Test
+    public void prefetch() {
+        publisher(true).subscribe(this.subscriber);
+        this.subscriber.subscription.request(1);
+
+        assertEquals(Collections.singletonList("1-1"), this.subscriber.items);
+        assertEquals(Arrays.asList(1, 2), this.requestedPages);
+    }
+
+    private PaginatingPublisher<Integer, List<String>, String> publisher(boolean prefetch) {
+        return new PaginatingPublisher<>(() -> 1,
+                (page, response) -> page < 3 ? Optional.of(page + 1) : Optional.empty(),
+                this::page, Function.identity(), prefetch);
+    }
+
+    private Publisher<List<String>> page(Integer page) {
+        return subscriber -> subscriber.onSubscribe(new Subscription() {
+
+            private boolean done = false;
+
+            @Override
+            public void cancel() {
+                this.done = true;
+            }
+
+            @Override
+            public void request(long n) {
+                if (!this.done) {
+                    this.done = true;
+                    PaginatingPublisherTest.this.requestedPages.add(page);
+                    subscriber.onNext(Arrays.asList(page + "-1", page + "-2"));
+                    subscriber.onComplete();
+                }
+            }
+
+        });
+    }
+
+}